@@ -3,17 +3,24 @@ package com.wuxp.codegen.meta.annotations.factories;
 
 import com.wuxp.codegen.core.ClientProviderType;
 import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.parser.JavaClassParser;
 import com.wuxp.codegen.meta.annotations.ClientAnnotationProvider;
 import com.wuxp.codegen.meta.transform.AnnotationCodeGenTransformer;
 import com.wuxp.codegen.model.CommonCodeGenAnnotation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cglib.core.SpringNamingPolicy;
+import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
@@ -45,6 +52,28 @@ public abstract class AbstractAnnotationMetaFactory<A extends Annotation, T exte
     private static final Map<ClientProviderType, Map<Class<? extends Annotation>, AnnotationCodeGenTransformer<? extends CommonCodeGenAnnotation, ? extends AnnotationMate>>>
             CLIENT_PROVIDER_TYPE_ANNOTATION_TRANSFORMERS = new EnumMap<>(ClientProviderType.class);
 
+    /**
+     * 注解元数据的代理对象缓存，元数据对象只依赖注解的属性，可以复用
+     *
+     * @key 注解实例和元数据类型（元数据类型由 {@link ClientProviderType} 决定）
+     */
+    private static final Map<ProxyMateKey, AnnotationMate> PROXY_MATES = new ConcurrentReferenceHashMap<>(256);
+
+    /**
+     * @key 注解的元数据类型
+     * @value cglib 生成的代理类
+     */
+    private static final Map<Class<?>, Class<?>> PROXY_CLASSES = new ConcurrentHashMap<>(64);
+
+    static {
+        // 缓存持有注解实例以及注解的类型，随解析结果一起清除，避免持有上一次生成的类
+        JavaClassParser.registerCacheCleaner(() -> {
+            PROXY_MATES.clear();
+            PROXY_CLASSES.clear();
+            ProxyAnnotationMethodInterceptor.DISPATCH_TABLES.clear();
+        });
+    }
+
 
     /**
      * 返回一个代理的元数据对象
@@ -58,22 +87,42 @@ public abstract class AbstractAnnotationMetaFactory<A extends Annotation, T exte
         if (annotation == null) {
             throw new NullPointerException("annotation must not null");
         }
-        clazz = tryGetAnnotationType(annotation, clazz);
+        Class<? extends AnnotationMate> mateClass = tryGetAnnotationType(annotation, clazz);
+        return (T) PROXY_MATES.computeIfAbsent(new ProxyMateKey(annotation, mateClass), key -> createProxyMate(annotation, mateClass));
+    }
+
+    private static AnnotationMate createProxyMate(Annotation annotation, Class<? extends AnnotationMate> clazz) {
+        Class<?> proxyClass = PROXY_CLASSES.computeIfAbsent(clazz, AbstractAnnotationMetaFactory::createProxyClass);
+        boolean hasEmptyConstructor = Arrays.stream(clazz.getConstructors()).anyMatch(constructor -> constructor.getParameterCount() == 0);
+        // 和 Enhancer#create 一样通过 ThreadLocal 绑定回调
+        Enhancer.registerCallbacks(proxyClass, new Callback[]{new ProxyAnnotationMethodInterceptor(annotation)});
+        try {
+            if (hasEmptyConstructor) {
+                return (AnnotationMate) proxyClass.getConstructor().newInstance();
+            }
+            Constructor<?> constructor = proxyClass.getConstructor(annotation.annotationType());
+            return (AnnotationMate) constructor.newInstance(annotation);
+        } catch (InvocationTargetException exception) {
+            Throwable cause = exception.getTargetException();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CodegenRuntimeException(cause);
+        } catch (ReflectiveOperationException exception) {
+            throw new CodegenRuntimeException("创建注解元数据代理失败，type = " + clazz.getName(), exception);
+        } finally {
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    private static Class<?> createProxyClass(Class<?> clazz) {
         Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(clazz);
         enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
         enhancer.setUseFactory(true);
         enhancer.setUseCache(true);
-        enhancer.setCallback(new ProxyAnnotationMethodInterceptor(annotation));
-
-        Constructor<?>[] constructors = clazz.getConstructors();
-
-        boolean hasEmptyConstructor = Arrays.stream(constructors).anyMatch(constructor -> constructor.getParameters().length == 0);
-
-        if (hasEmptyConstructor) {
-            return (T) enhancer.create();
-        }
-        return (T) enhancer.create(new Class[]{annotation.annotationType()}, new Object[]{annotation});
+        enhancer.setCallbackType(ProxyAnnotationMethodInterceptor.class);
+        return enhancer.createClass();
     }
 
     private Class<? extends AnnotationMate> tryGetAnnotationType(Annotation annotation, Class<? extends AnnotationMate> clazz) {
@@ -118,28 +167,35 @@ public abstract class AbstractAnnotationMetaFactory<A extends Annotation, T exte
     private static class ProxyAnnotationMethodInterceptor implements MethodInterceptor {
 
         /**
-         * 注解实例
+         * 注解方法的分派表，每个注解（代理）类型一个
+         *
+         * @key 注解（代理）类型
+         * @value {
+         * key: 元数据类型的方法
+         * value: 注解中对应方法的 MethodHandle，类型为 (Object, Object[])Object，不存在时为 empty
+         * }
          */
-        private final Annotation annotation;
+        private static final Map<Class<?>, Map<Method, Optional<MethodHandle>>> DISPATCH_TABLES = new ConcurrentHashMap<>(64);
 
         /**
-         * 注解的方法列表
+         * 注解实例
          */
-        private final Method[] annotationMethods;
+        private final Annotation annotation;
 
+        private final Map<Method, Optional<MethodHandle>> dispatchTable;
 
         private ProxyAnnotationMethodInterceptor(Annotation annotation) {
             this.annotation = annotation;
-            this.annotationMethods = annotation.getClass().getMethods();
+            this.dispatchTable = DISPATCH_TABLES.computeIfAbsent(annotation.getClass(), key -> new ConcurrentHashMap<>(16));
         }
 
         @Override
         public Object intercept(Object annotationMate, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
             //查找方法是否在注解
-            Optional<Method> optionalMethod = matchMethodByAnnotations(method);
+            Optional<MethodHandle> optionalMethod = dispatchTable.computeIfAbsent(method, this::matchMethodByAnnotations);
             if (optionalMethod.isPresent()) {
                 // 注解中的方法
-                return optionalMethod.get().invoke(annotation, args);
+                return optionalMethod.get().invokeExact((Object) annotation, args);
             }
 
             int modifiers = method.getModifiers();
@@ -160,12 +216,61 @@ public abstract class AbstractAnnotationMetaFactory<A extends Annotation, T exte
             return result;
         }
 
-        private Optional<Method> matchMethodByAnnotations(Method method) {
-            return Arrays.stream(annotationMethods)
+        private Optional<MethodHandle> matchMethodByAnnotations(Method method) {
+            return Arrays.stream(annotation.getClass().getMethods())
                     .filter(m -> method.getReturnType().equals(m.getReturnType()))
                     .filter(m -> method.getName().equals(m.getName()))
-                    .filter(m -> m.getParameters().length == method.getParameters().length)
-                    .findFirst();
+                    .filter(m -> m.getParameterCount() == method.getParameterCount())
+                    .findFirst()
+                    .map(ProxyAnnotationMethodInterceptor::toMethodHandle);
+        }
+
+        private static MethodHandle toMethodHandle(Method method) {
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.publicLookup().unreflect(method);
+            } catch (IllegalAccessException exception) {
+                // 非 public 的注解
+                method.setAccessible(true);
+                try {
+                    handle = MethodHandles.lookup().unreflect(method);
+                } catch (IllegalAccessException e) {
+                    throw new CodegenRuntimeException(e);
+                }
+            }
+            return handle.asType(handle.type().generic()).asSpreader(Object[].class, method.getParameterCount());
+        }
+    }
+
+    /**
+     * 按照注解实例的引用和元数据类型作为缓存的 key，避免计算注解的 hashCode
+     */
+    private static final class ProxyMateKey {
+
+        private final Annotation annotation;
+
+        private final Class<?> mateClass;
+
+        ProxyMateKey(Annotation annotation, Class<?> mateClass) {
+            this.annotation = annotation;
+            this.mateClass = mateClass;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ProxyMateKey)) {
+                return false;
+            }
+            ProxyMateKey key = (ProxyMateKey) other;
+            return annotation == key.annotation && mateClass == key.mateClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(annotation) + mateClass.hashCode();
         }
     }
 }
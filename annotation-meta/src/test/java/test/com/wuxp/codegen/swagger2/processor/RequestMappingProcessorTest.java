@@ -6,6 +6,7 @@ import com.wuxp.codegen.meta.annotations.factories.spring.RequestMappingMetaFact
 import com.wuxp.codegen.core.ClientProviderType;
 import com.wuxp.codegen.core.config.CodegenConfig;
 import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -48,6 +49,18 @@ class RequestMappingProcessorTest {
                 });
     }
 
+    @Test
+    void testProxyMateCache() throws Exception {
+        CodegenConfigHolder.setConfig(CodegenConfig.builder()
+                .providerType(ClientProviderType.SPRING_CLOUD_OPENFEIGN)
+                .build());
+        GetMapping annotation = TestController.class.getMethod("getHello").getAnnotation(GetMapping.class);
+        RequestMappingMetaFactory.RequestMappingMate mappingMate = annotationMetaFactory.factory(annotation);
+        Assertions.assertSame(mappingMate, annotationMetaFactory.factory(annotation));
+        Assertions.assertArrayEquals(new String[]{"get_hello"}, mappingMate.value());
+        Assertions.assertArrayEquals(new RequestMethod[]{RequestMethod.GET}, mappingMate.method());
+    }
+
     @Test
     void testNotNullProcess() throws Exception {
         TestController controller = new TestController();
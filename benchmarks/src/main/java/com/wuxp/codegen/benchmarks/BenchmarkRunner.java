@@ -0,0 +1,69 @@
+package com.wuxp.codegen.benchmarks;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 运行基准测试，结果以 json 格式输出到 target/benchmarks/jmh-result-{commit}.json
+ * <p>
+ * 参数和 JMH 的命令行参数相同，例如：-f 1 -wi 1 JavaClassParserBenchmark；
+ * 对比两次提交的结果文件即可发现性能回退
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public final class BenchmarkRunner {
+
+    private static final String UNKNOWN_COMMIT = "unknown";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder optionsBuilder = new OptionsBuilder();
+        optionsBuilder.parent(commandLineOptions);
+        if (!commandLineOptions.getResult().hasValue()) {
+            Path resultFile = Paths.get("target", "benchmarks", String.format("jmh-result-%s.json", getCommitId()));
+            Files.createDirectories(resultFile.getParent());
+            optionsBuilder.resultFormat(ResultFormatType.JSON).result(resultFile.toString());
+            log.info("基准测试结果输出到：{}", resultFile.toAbsolutePath());
+        }
+        Options options = optionsBuilder.build();
+        new Runner(options).run();
+    }
+
+    /**
+     * @return 当前 git 提交的短 id，获取失败时返回 unknown
+     */
+    private static String getCommitId() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String commitId;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                commitId = reader.readLine();
+            }
+            if (process.waitFor() == 0 && commitId != null && !commitId.trim().isEmpty()) {
+                return commitId.trim();
+            }
+        } catch (IOException exception) {
+            log.warn("获取 git 提交 id 失败，message = {}", exception.getMessage());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return UNKNOWN_COMMIT;
+    }
+}
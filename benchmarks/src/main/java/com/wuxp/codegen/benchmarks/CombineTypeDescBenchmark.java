@@ -0,0 +1,50 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.core.strategy.CombineTypeDescStrategy;
+import com.wuxp.codegen.model.CommonCodeGenClassMeta;
+import com.wuxp.codegen.model.languages.typescript.TypescriptClassMeta;
+import com.wuxp.codegen.types.DartFullTypeCombineTypeDescStrategy;
+import com.wuxp.codegen.types.SimpleCombineTypeDescStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CombineTypeDescStrategy#combine(CommonCodeGenClassMeta[])} 的基准测试
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CombineTypeDescBenchmark {
+
+    /**
+     * Promise<Record<string,Array<Array<string>>>>
+     */
+    private final CommonCodeGenClassMeta[] classMetas = {
+            TypescriptClassMeta.PROMISE,
+            TypescriptClassMeta.RECORD,
+            TypescriptClassMeta.STRING,
+            TypescriptClassMeta.ARRAY,
+            TypescriptClassMeta.ARRAY,
+            TypescriptClassMeta.STRING
+    };
+
+    private final CombineTypeDescStrategy simpleCombineTypeDescStrategy = new SimpleCombineTypeDescStrategy();
+
+    private final CombineTypeDescStrategy dartFullTypeCombineTypeDescStrategy = new DartFullTypeCombineTypeDescStrategy();
+
+    @Benchmark
+    public String simpleCombine() {
+        return simpleCombineTypeDescStrategy.combine(classMetas);
+    }
+
+    @Benchmark
+    public String dartFullTypeCombine() {
+        return dartFullTypeCombineTypeDescStrategy.combine(classMetas);
+    }
+}
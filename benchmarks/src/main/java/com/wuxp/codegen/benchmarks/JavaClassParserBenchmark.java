@@ -0,0 +1,61 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import com.wuxp.codegen.model.languages.java.JavaClassMeta;
+import com.wuxp.codegen.swagger2.example.controller.OrderController;
+import com.wuxp.codegen.swagger2.example.controller.UserController;
+import com.wuxp.codegen.swagger2.example.domain.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JavaClassParser#parse(Class)} 的基准测试
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JavaClassParserBenchmark {
+
+    @Param({"OrderController", "UserController", "Order"})
+    private String className;
+
+    private Class<?> clazz;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        switch (className) {
+            case "UserController":
+                clazz = UserController.class;
+                break;
+            case "Order":
+                clazz = Order.class;
+                break;
+            case "OrderController":
+            default:
+                clazz = OrderController.class;
+        }
+    }
+
+    /**
+     * 首次解析（清除解析结果的缓存）
+     */
+    @Benchmark
+    public JavaClassMeta parse() {
+        JavaClassParser.clearCaches();
+        return JavaClassParser.JAVA_CLASS_PARSER.parse(clazz);
+    }
+
+    /**
+     * 命中缓存
+     */
+    @Benchmark
+    public JavaClassMeta parseCached() {
+        return JavaClassParser.JAVA_CLASS_PARSER.parse(clazz);
+    }
+}
@@ -0,0 +1,77 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.core.ClassCodeGenerator;
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.CodegenBuilder;
+import com.wuxp.codegen.starter.LoongCodeGenerator;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import com.wuxp.codegen.swagger2.example.controller.OrderController;
+import org.openjdk.jmh.annotations.*;
+
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按照语言（客户端）生成一个控制器的 sdk，包括语言元数据的解析（publishParse）和 freemarker 模板的渲染
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class LanguageCodegenBenchmark {
+
+    static final String SCAN_PACKAGE = "com.wuxp.codegen.swagger2.**.controller";
+
+    @Param({"TYPESCRIPT_FEIGN", "UMI_REQUEST", "AXIOS", "DART_FEIGN", "SPRING_CLOUD_OPENFEIGN", "RETROFIT"})
+    private ClientProviderType clientProviderType;
+
+    private ClassCodeGenerator codeGenerator;
+
+    private final Collection<Class<?>> classes = Collections.singleton(OrderController.class);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LoongCodeGenerator loongCodeGenerator = new LoongCodeGenerator(OpenApiType.SWAGGER_2, SCAN_PACKAGE);
+        loongCodeGenerator.setOutputPath(getOutputPath("language"));
+        loongCodeGenerator.setClientProviderTypes(Collections.singletonList(clientProviderType));
+        CodegenBuilder codegenBuilder = loongCodeGenerator.getCodeGeneratorBuilders().iterator().next();
+        codeGenerator = (ClassCodeGenerator) codegenBuilder.buildCodeGenerator();
+    }
+
+    @Benchmark
+    public void generate() {
+        codeGenerator.generate(classes);
+    }
+
+    static String getOutputPath(String name) {
+        return Paths.get("target", "benchmarks", "codegen", name).toAbsolutePath().toString();
+    }
+
+    /**
+     * 每次调用使用新的输出目录，避免输出目录中已经存在的文件（内容没有变化时跳过写入）影响测量结果
+     *
+     * @param name 基准测试名称
+     * @return 新创建的输出目录
+     */
+    static Path createOutputDirectory(String name) throws IOException {
+        Path parent = Files.createDirectories(Paths.get(getOutputPath(name)));
+        return Files.createTempDirectory(parent, "invocation-");
+    }
+
+    static void deleteOutputDirectory(Path outputDirectory) throws IOException {
+        if (outputDirectory != null) {
+            FileSystemUtils.deleteRecursively(outputDirectory);
+        }
+    }
+}
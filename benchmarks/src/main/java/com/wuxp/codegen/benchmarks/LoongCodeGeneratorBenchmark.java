@@ -0,0 +1,44 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import com.wuxp.codegen.starter.LoongCodeGenerator;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端的 {@link LoongCodeGenerator} 基准测试，扫描示例中的控制器并生成所有语言（客户端）的 sdk
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class LoongCodeGeneratorBenchmark {
+
+    private Path outputDirectory;
+
+    @Setup(Level.Invocation)
+    public void setup() throws IOException {
+        JavaClassParser.clearCaches();
+        outputDirectory = LanguageCodegenBenchmark.createOutputDirectory("loong");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        LanguageCodegenBenchmark.deleteOutputDirectory(outputDirectory);
+    }
+
+    @Benchmark
+    public void generate() {
+        LoongCodeGenerator loongCodeGenerator = new LoongCodeGenerator(OpenApiType.SWAGGER_2, LanguageCodegenBenchmark.SCAN_PACKAGE);
+        loongCodeGenerator.setOutputPath(outputDirectory.toString());
+        loongCodeGenerator.generate();
+    }
+}
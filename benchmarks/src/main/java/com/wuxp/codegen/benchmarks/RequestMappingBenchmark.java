@@ -0,0 +1,41 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.meta.util.RequestMappingUtils;
+import com.wuxp.codegen.swagger2.example.controller.OrderController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RequestMappingUtils#findRequestMappingAnnotation(Annotation[])} 的基准测试，每次调用查找一个控制器的所有方法
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestMappingBenchmark {
+
+    private Annotation[][] methodAnnotations;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        methodAnnotations = Arrays.stream(OrderController.class.getMethods())
+                .map(Method::getAnnotations)
+                .toArray(Annotation[][]::new);
+    }
+
+    @Benchmark
+    public void findRequestMappingAnnotation(Blackhole blackhole) {
+        for (Annotation[] annotations : methodAnnotations) {
+            blackhole.consume(RequestMappingUtils.findRequestMappingAnnotation(annotations));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.wuxp.codegen.benchmarks.corpus.SyntheticApiCorpus;
+import com.wuxp.codegen.core.ClassCodeGenerator;
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import com.wuxp.codegen.starter.LoongCodeGenerator;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代码生成随接口规模变化的基准测试，使用 {@link SyntheticApiCorpus} 生成的语料
+ * <p>
+ * 输出每种 {@link ClientProviderType} 在不同语料规模下的耗时和堆内存峰值（peakHeapBytes），
+ * 每次调用清除进程内的缓存并使用新的生成器和输出目录，测量的是一次完整（冷）生成的耗时，
+ * 内存分配使用 JMH 的 gc profiler 获取，例如：
+ * mvn -P benchmarks -pl benchmarks exec:exec -Dexec.args="-classpath %classpath com.wuxp.codegen.benchmarks.BenchmarkRunner ScalingCodegenBenchmark -prof gc -p controllers=2000"
+ * </p>
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx8g"})
+@State(Scope.Thread)
+public class ScalingCodegenBenchmark {
+
+    /**
+     * 控制器的数量
+     */
+    @Param({"10", "100", "500", "2000"})
+    private int controllers;
+
+    /**
+     * 每个控制器使用的 DTO 数量
+     */
+    @Param({"10"})
+    private int dtosPerController;
+
+    @Param({"SWAGGER_2"})
+    private OpenApiType openApiType;
+
+    @Param({"TYPESCRIPT_FEIGN", "UMI_REQUEST", "AXIOS", "DART_FEIGN", "SPRING_CLOUD_OPENFEIGN", "RETROFIT"})
+    private ClientProviderType clientProviderType;
+
+    private SyntheticApiCorpus corpus;
+
+    private List<Class<?>> classes;
+
+    private Path outputDirectory;
+
+    private ClassCodeGenerator codeGenerator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        corpus = SyntheticApiCorpus.builder()
+                .controllers(controllers)
+                .dtosPerController(dtosPerController)
+                .openApiType(openApiType)
+                .build();
+        classes = corpus.loadControllers();
+    }
+
+    /**
+     * 生成器中的模板策略、增量清单等持有上一次生成的状态，每次调用都重新创建
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException {
+        JavaClassParser.clearCaches();
+        outputDirectory = LanguageCodegenBenchmark.createOutputDirectory("scaling");
+        LoongCodeGenerator loongCodeGenerator = new LoongCodeGenerator(openApiType, corpus.getScanPackage());
+        loongCodeGenerator.setOutputPath(outputDirectory.toString());
+        loongCodeGenerator.setClientProviderTypes(Collections.singletonList(clientProviderType));
+        codeGenerator = (ClassCodeGenerator) loongCodeGenerator.getCodeGeneratorBuilders().iterator().next().buildCodeGenerator();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() throws IOException {
+        LanguageCodegenBenchmark.deleteOutputDirectory(outputDirectory);
+    }
+
+    @Benchmark
+    public void generate(HeapUsage heapUsage) {
+        codeGenerator.generate(classes);
+        heapUsage.record();
+    }
+
+    /**
+     * 每次迭代中堆内存的峰值
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapUsage {
+
+        public long peakHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakHeapBytes = 0;
+            System.gc();
+            ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        void record() {
+            long peak = 0;
+            for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (memoryPool.getType() == MemoryType.HEAP) {
+                    peak += memoryPool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapBytes = Math.max(peakHeapBytes, peak);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.wuxp.codegen.benchmarks;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.wuxp.codegen.SourceCodeProvider;
+import com.wuxp.codegen.swagger2.example.controller.OrderController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SourceCodeProvider#getMethodDeclaration(Method)} 的基准测试
+ * <p>
+ * 需要通过 classes 目录运行（参见 benchmarks/pom.xml），才能找到示例模块的源代码
+ * </p>
+ *
+ * @author wuxp
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SourceCodeProviderBenchmark {
+
+    private Method[] methods;
+
+    private Method method;
+
+    private SourceCodeProvider sourceCodeProvider;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        methods = OrderController.class.getDeclaredMethods();
+        method = Arrays.stream(methods)
+                .filter(declaredMethod -> "createOrder".equals(declaredMethod.getName()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("method createOrder not found"));
+        sourceCodeProvider = new SourceCodeProvider();
+    }
+
+    /**
+     * 首次获取（新的 {@link SourceCodeProvider}，需要建立源代码文件索引并解析源代码）
+     */
+    @Benchmark
+    public Optional<MethodDeclaration> getMethodDeclaration() {
+        return new SourceCodeProvider().getMethodDeclaration(method);
+    }
+
+    /**
+     * 命中缓存，每次调用获取控制器的所有方法
+     */
+    @Benchmark
+    public void getMethodDeclarationCached(Blackhole blackhole) {
+        for (Method method : methods) {
+            blackhole.consume(sourceCodeProvider.getMethodDeclaration(method));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.wuxp.codegen.benchmarks.corpus;
+
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 合成的大规模 api 语料，用于测试代码生成随接口规模的变化
+ * <p>
+ * 按照配置生成 spring 控制器和 DTO 的源代码（包含多层泛型、继承链、循环引用、枚举、swagger 注解以及 javadoc），
+ * 编译后通过独立的类加载器加载控制器
+ * </p>
+ * <p>
+ * 语料按照 maven 模块的目录结构输出（src/main/java、target/classes），使得 {@link com.wuxp.codegen.SourceCodeProvider} 能够找到源代码；
+ * 相同配置的语料只生成和编译一次
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+@Getter
+@Builder
+public final class SyntheticApiCorpus {
+
+    public static final String BASE_PACKAGE = "com.wuxp.codegen.benchmarks.corpus.api";
+
+    private static final String COMPLETED_MARK_FILE = ".completed";
+
+    /**
+     * 控制器的数量
+     */
+    @Builder.Default
+    private final int controllers = 10;
+
+    /**
+     * 每个控制器使用的 DTO 数量
+     */
+    @Builder.Default
+    private final int dtosPerController = 10;
+
+    /**
+     * 每个控制器的方法数量
+     */
+    @Builder.Default
+    private final int methodsPerController = 6;
+
+    /**
+     * 方法返回值中泛型嵌套的层数
+     */
+    @Builder.Default
+    private final int genericDepth = 3;
+
+    /**
+     * DTO 继承链的长度
+     */
+    @Builder.Default
+    private final int inheritanceDepth = 3;
+
+    /**
+     * 每个枚举的常量数量
+     */
+    @Builder.Default
+    private final int enumConstants = 5;
+
+    /**
+     * 每个分组（包）中控制器的数量
+     */
+    @Builder.Default
+    private final int controllersPerGroup = 50;
+
+    /**
+     * 使用的 swagger 注解
+     */
+    @Builder.Default
+    private final OpenApiType openApiType = OpenApiType.SWAGGER_2;
+
+    /**
+     * 是否生成 javadoc
+     */
+    @Builder.Default
+    private final boolean javadoc = true;
+
+    /**
+     * 语料的根目录，每种配置使用一个子目录
+     */
+    @Builder.Default
+    private final Path outputDirectory = Paths.get("target", "benchmarks", "corpus");
+
+    /**
+     * @return 控制器的扫描包名
+     */
+    public String getScanPackage() {
+        return BASE_PACKAGE + ".**.controller";
+    }
+
+    /**
+     * @return DTO 的总数
+     */
+    public int getDtoCount() {
+        return controllers * dtosPerController;
+    }
+
+    /**
+     * @return 语料所在目录（模块根目录）
+     */
+    public Path getModuleRoot() {
+        String name = String.format("%s-c%d-d%d-m%d-g%d-i%d-e%d-p%d%s", openApiType.name().toLowerCase(), controllers, dtosPerController,
+                methodsPerController, genericDepth, inheritanceDepth, enumConstants, controllersPerGroup, javadoc ? "-javadoc" : "");
+        return outputDirectory.resolve(name).toAbsolutePath();
+    }
+
+    public Path getSourceDirectory() {
+        return getModuleRoot().resolve(Paths.get("src", "main", "java"));
+    }
+
+    public Path getClassesDirectory() {
+        return getModuleRoot().resolve(Paths.get("target", "classes"));
+    }
+
+    /**
+     * 生成并编译语料，已经编译过的语料直接使用
+     *
+     * @return 编译结果所在目录
+     */
+    public Path compile() {
+        Path classesDirectory = getClassesDirectory();
+        if (Files.exists(classesDirectory.resolve(COMPLETED_MARK_FILE))) {
+            return classesDirectory;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<Path> sourceFiles = new SyntheticApiSourceWriter(this).write(getSourceDirectory());
+            Files.createDirectories(classesDirectory);
+            doCompile(sourceFiles, classesDirectory);
+            Files.createFile(classesDirectory.resolve(COMPLETED_MARK_FILE));
+            if (log.isInfoEnabled()) {
+                log.info("生成语料{}，共{}个源代码文件，耗时{}ms", getModuleRoot(), sourceFiles.size(), System.currentTimeMillis() - start);
+            }
+        } catch (IOException exception) {
+            throw new CodegenRuntimeException("生成语料失败：" + exception.getMessage(), exception);
+        }
+        return classesDirectory;
+    }
+
+    /**
+     * 编译并加载语料中的控制器
+     *
+     * @return 控制器
+     */
+    public List<Class<?>> loadControllers() {
+        Path classesDirectory = compile();
+        ClassLoader classLoader = newClassLoader(classesDirectory);
+        List<Class<?>> result = new ArrayList<>(controllers);
+        for (int index = 0; index < controllers; index++) {
+            String className = SyntheticApiSourceWriter.getControllerClassName(this, index);
+            try {
+                result.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException exception) {
+                throw new CodegenRuntimeException("加载语料中的类失败：" + className, exception);
+            }
+        }
+        return result;
+    }
+
+    private static void doCompile(List<Path> sourceFiles, Path classesDirectory) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new CodegenRuntimeException("编译语料需要使用 jdk 运行");
+        }
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            List<File> files = sourceFiles.stream().map(Path::toFile).collect(Collectors.toList());
+            List<String> options = Arrays.asList(
+                    "-d", classesDirectory.toString(),
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-encoding", StandardCharsets.UTF_8.name(),
+                    "-parameters",
+                    "-proc:none",
+                    "-nowarn");
+            Boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(files)).call();
+            if (!Boolean.TRUE.equals(success)) {
+                String message = diagnostics.getDiagnostics().stream()
+                        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                        .limit(10)
+                        .map(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                        .collect(Collectors.joining("\n"));
+                throw new CodegenRuntimeException("编译语料失败：\n" + message);
+            }
+        }
+    }
+
+    private static ClassLoader newClassLoader(Path classesDirectory) {
+        try {
+            // 生成过程中会持有类，不关闭类加载器
+            return new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, SyntheticApiCorpus.class.getClassLoader());
+        } catch (MalformedURLException exception) {
+            throw new CodegenRuntimeException(exception);
+        }
+    }
+
+    /**
+     * 删除语料的源代码和编译结果
+     */
+    public void delete() {
+        Path moduleRoot = getModuleRoot();
+        if (!Files.exists(moduleRoot)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(moduleRoot)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException exception) {
+            log.warn("删除语料失败，path = {}，message = {}", moduleRoot, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.wuxp.codegen.benchmarks.corpus;
+
+import com.wuxp.codegen.starter.enums.OpenApiType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 输出合成语料的源代码
+ * <p>
+ * 包结构：
+ * <pre>
+ * {@link SyntheticApiCorpus#BASE_PACKAGE}.common     ApiResponse&lt;T&gt;、PageInfo&lt;T&gt;、BaseDto&lt;ID&gt;
+ * {@link SyntheticApiCorpus#BASE_PACKAGE}.g{n}.controller  控制器
+ * {@link SyntheticApiCorpus#BASE_PACKAGE}.g{n}.dto         DTO，同一个控制器的 DTO 组成继承链并且循环引用
+ * {@link SyntheticApiCorpus#BASE_PACKAGE}.g{n}.enums       枚举
+ * </pre>
+ * </p>
+ *
+ * @author wuxp
+ */
+final class SyntheticApiSourceWriter {
+
+    private static final String COMMON_PACKAGE = SyntheticApiCorpus.BASE_PACKAGE + ".common";
+
+    private static final String[] GENERIC_WRAPPERS = {"Map<String, %s>", "List<%s>", "PageInfo<%s>"};
+
+    private final SyntheticApiCorpus corpus;
+
+    private final boolean swagger3;
+
+    SyntheticApiSourceWriter(SyntheticApiCorpus corpus) {
+        this.corpus = corpus;
+        this.swagger3 = corpus.getOpenApiType() == OpenApiType.SWAGGER_3;
+    }
+
+    static String getControllerClassName(SyntheticApiCorpus corpus, int controllerIndex) {
+        return String.format("%s.%s.C%dController", getGroupPackage(corpus, controllerIndex), "controller", controllerIndex);
+    }
+
+    private static String getGroupPackage(SyntheticApiCorpus corpus, int controllerIndex) {
+        return String.format("%s.g%d", SyntheticApiCorpus.BASE_PACKAGE, controllerIndex / Math.max(corpus.getControllersPerGroup(), 1));
+    }
+
+    /**
+     * @param sourceDirectory 源代码目录
+     * @return 输出的源代码文件
+     */
+    List<Path> write(Path sourceDirectory) throws IOException {
+        List<Path> result = new ArrayList<>(corpus.getControllers() * (corpus.getDtosPerController() + 2) + 3);
+        result.add(writeFile(sourceDirectory, COMMON_PACKAGE, "ApiResponse", apiResponse()));
+        result.add(writeFile(sourceDirectory, COMMON_PACKAGE, "PageInfo", pageInfo()));
+        result.add(writeFile(sourceDirectory, COMMON_PACKAGE, "BaseDto", baseDto()));
+        for (int controllerIndex = 0; controllerIndex < corpus.getControllers(); controllerIndex++) {
+            String groupPackage = getGroupPackage(corpus, controllerIndex);
+            result.add(writeFile(sourceDirectory, groupPackage + ".enums", getEnumName(controllerIndex), enumSource(controllerIndex)));
+            for (int dtoIndex = 0; dtoIndex < corpus.getDtosPerController(); dtoIndex++) {
+                result.add(writeFile(sourceDirectory, groupPackage + ".dto", getDtoName(controllerIndex, dtoIndex), dto(controllerIndex, dtoIndex)));
+            }
+            result.add(writeFile(sourceDirectory, groupPackage + ".controller", String.format("C%dController", controllerIndex), controller(controllerIndex)));
+        }
+        return result;
+    }
+
+    private static Path writeFile(Path sourceDirectory, String packageName, String className, String content) throws IOException {
+        Path directory = sourceDirectory.resolve(packageName.replace('.', '/'));
+        Files.createDirectories(directory);
+        Path file = directory.resolve(className + ".java");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private String apiResponse() {
+        JavaSource source = new JavaSource(COMMON_PACKAGE);
+        source.imports(modelImports());
+        classHeader(source, "统一的响应对象", "public class ApiResponse<T>");
+        field(source, "T", "data", "响应数据");
+        field(source, "String", "message", "响应消息");
+        field(source, "boolean", "success", "是否成功");
+        return source.end();
+    }
+
+    private String pageInfo() {
+        JavaSource source = new JavaSource(COMMON_PACKAGE);
+        source.imports(modelImports());
+        source.imports("java.util.List");
+        classHeader(source, "分页对象", "public class PageInfo<T>");
+        field(source, "List<T>", "records", "分页数据");
+        field(source, "long", "total", "总数");
+        field(source, "int", "page", "页码");
+        return source.end();
+    }
+
+    private String baseDto() {
+        JavaSource source = new JavaSource(COMMON_PACKAGE);
+        source.imports(modelImports());
+        source.imports("java.util.Date");
+        classHeader(source, "DTO 基类", "public abstract class BaseDto<ID>");
+        field(source, "ID", "id", "编号");
+        field(source, "Date", "createTime", "创建时间");
+        return source.end();
+    }
+
+    private String enumSource(int controllerIndex) {
+        String groupPackage = getGroupPackage(corpus, controllerIndex);
+        JavaSource source = new JavaSource(groupPackage + ".enums");
+        javadoc(source, "", String.format("控制器%d使用的状态", controllerIndex));
+        source.line("public enum %s {", getEnumName(controllerIndex));
+        for (int index = 0; index < corpus.getEnumConstants(); index++) {
+            javadoc(source, "    ", "状态" + index);
+            source.line("    STATUS_%d%s", index, index == corpus.getEnumConstants() - 1 ? ";" : ",");
+        }
+        return source.end();
+    }
+
+    private String dto(int controllerIndex, int dtoIndex) {
+        String groupPackage = getGroupPackage(corpus, controllerIndex);
+        int dtos = corpus.getDtosPerController();
+        String previous = getDtoName(controllerIndex, (dtoIndex + dtos - 1) % dtos);
+        String next = getDtoName(controllerIndex, (dtoIndex + 1) % dtos);
+        String parent = corpus.getInheritanceDepth() <= 1 || dtoIndex % corpus.getInheritanceDepth() == 0 ? "BaseDto<Long>" : getDtoName(controllerIndex, dtoIndex - 1);
+
+        JavaSource source = new JavaSource(groupPackage + ".dto");
+        source.imports(COMMON_PACKAGE + ".BaseDto", COMMON_PACKAGE + ".PageInfo", groupPackage + ".enums." + getEnumName(controllerIndex));
+        source.imports(modelImports());
+        source.imports("java.util.List", "java.util.Map");
+        classHeader(source, String.format("控制器%d的第%d个 DTO", controllerIndex, dtoIndex),
+                String.format("public class %s extends %s", getDtoName(controllerIndex, dtoIndex), parent));
+        field(source, "String", "name" + dtoIndex, "名称");
+        field(source, getEnumName(controllerIndex), "status" + dtoIndex, "状态");
+        field(source, next, "next" + dtoIndex, "循环引用的 DTO");
+        field(source, String.format("List<%s>", previous), "children" + dtoIndex, "子节点");
+        field(source, String.format("Map<String, PageInfo<%s>>", previous), "pages" + dtoIndex, "分组的分页数据");
+        return source.end();
+    }
+
+    private String controller(int controllerIndex) {
+        String groupPackage = getGroupPackage(corpus, controllerIndex);
+        String enumName = getEnumName(controllerIndex);
+        JavaSource source = new JavaSource(groupPackage + ".controller");
+        source.imports(COMMON_PACKAGE + ".ApiResponse", COMMON_PACKAGE + ".PageInfo", groupPackage + ".dto.*", groupPackage + ".enums." + enumName);
+        if (swagger3) {
+            source.imports("io.swagger.v3.oas.annotations.Operation", "io.swagger.v3.oas.annotations.Parameter", "io.swagger.v3.oas.annotations.tags.Tag");
+        } else {
+            source.imports("io.swagger.annotations.Api", "io.swagger.annotations.ApiOperation", "io.swagger.annotations.ApiParam");
+        }
+        source.imports("org.springframework.web.bind.annotation.*", "java.util.List", "java.util.Map");
+        source.line("");
+        javadoc(source, "", String.format("控制器%d", controllerIndex));
+        source.line(swagger3 ? "@Tag(name = \"controller%d\")" : "@Api(tags = {\"controller%d\"})", controllerIndex);
+        source.line("@RestController");
+        source.line("@RequestMapping(\"/g%d/c%d\")", controllerIndex / Math.max(corpus.getControllersPerGroup(), 1), controllerIndex);
+        source.line("public class C%dController {", controllerIndex);
+        for (int methodIndex = 0; methodIndex < corpus.getMethodsPerController(); methodIndex++) {
+            String dto = getDtoName(controllerIndex, methodIndex % corpus.getDtosPerController());
+            source.line("");
+            switch (methodIndex % 3) {
+                case 0:
+                    javadoc(source, "    ", "查询" + methodIndex, "@param id 编号", "@param status 状态", "@return 查询结果");
+                    operation(source, "查询" + methodIndex);
+                    source.line("    @GetMapping(\"/{id}/query%d\")", methodIndex);
+                    source.line("    public %s query%d(@PathVariable(\"id\") %s Long id, @RequestParam(value = \"status\", required = false) %s %s status) {",
+                            getGenericReturnType(dto), methodIndex, parameter("编号"), parameter("状态"), enumName);
+                    break;
+                case 1:
+                    javadoc(source, "    ", "保存" + methodIndex, "@param req 请求", "@return 保存后的编号");
+                    operation(source, "保存" + methodIndex);
+                    source.line("    @PostMapping(\"/save%d\")", methodIndex);
+                    source.line("    public ApiResponse<Long> save%d(@RequestBody %s %s req) {", methodIndex, parameter("请求"), dto);
+                    break;
+                default:
+                    javadoc(source, "    ", "分页查询" + methodIndex, "@param query 查询条件", "@return 分页结果");
+                    operation(source, "分页查询" + methodIndex);
+                    source.line("    @GetMapping(\"/page%d\")", methodIndex);
+                    source.line("    public ApiResponse<PageInfo<%s>> page%d(%s query) {", dto, methodIndex, dto);
+                    break;
+            }
+            source.line("        return null;");
+            source.line("    }");
+        }
+        return source.end();
+    }
+
+    /**
+     * @return ApiResponse 包装的多层泛型，例如：ApiResponse<PageInfo<List<Dto>>>
+     */
+    private String getGenericReturnType(String dto) {
+        String type = dto;
+        for (int depth = 1; depth < corpus.getGenericDepth(); depth++) {
+            type = String.format(GENERIC_WRAPPERS[depth % GENERIC_WRAPPERS.length], type);
+        }
+        return String.format("ApiResponse<%s>", type);
+    }
+
+    private String[] modelImports() {
+        return swagger3 ? new String[]{"io.swagger.v3.oas.annotations.media.Schema"}
+                : new String[]{"io.swagger.annotations.ApiModel", "io.swagger.annotations.ApiModelProperty"};
+    }
+
+    private void classHeader(JavaSource source, String description, String declaration) {
+        source.line("");
+        javadoc(source, "", description);
+        source.line(swagger3 ? "@Schema(description = \"%s\")" : "@ApiModel(description = \"%s\")", description);
+        source.line("%s {", declaration);
+    }
+
+    private void field(JavaSource source, String type, String name, String description) {
+        String capitalizeName = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        source.line("");
+        javadoc(source, "    ", description);
+        source.line(swagger3 ? "    @Schema(description = \"%s\")" : "    @ApiModelProperty(value = \"%s\")", description);
+        source.line("    private %s %s;", type, name);
+        source.line("");
+        source.line("    public %s get%s() {", type, capitalizeName);
+        source.line("        return %s;", name);
+        source.line("    }");
+        source.line("");
+        source.line("    public void set%s(%s %s) {", capitalizeName, type, name);
+        source.line("        this.%s = %s;", name, name);
+        source.line("    }");
+    }
+
+    private void operation(JavaSource source, String description) {
+        source.line(swagger3 ? "    @Operation(summary = \"%s\")" : "    @ApiOperation(value = \"%s\")", description);
+    }
+
+    private String parameter(String description) {
+        return String.format(swagger3 ? "@Parameter(description = \"%s\")" : "@ApiParam(value = \"%s\")", description);
+    }
+
+    private void javadoc(JavaSource source, String indent, String description, String... blockTags) {
+        if (!corpus.isJavadoc()) {
+            return;
+        }
+        source.line("%s/**", indent);
+        source.line("%s * %s", indent, description);
+        if (blockTags.length > 0) {
+            source.line("%s *", indent);
+            for (String blockTag : blockTags) {
+                source.line("%s * %s", indent, blockTag);
+            }
+        }
+        source.line("%s */", indent);
+    }
+
+    private static String getDtoName(int controllerIndex, int dtoIndex) {
+        return String.format("C%dDto%d", controllerIndex, dtoIndex);
+    }
+
+    private static String getEnumName(int controllerIndex) {
+        return String.format("C%dStatus", controllerIndex);
+    }
+
+    private static final class JavaSource {
+
+        private final StringBuilder content = new StringBuilder(4096);
+
+        JavaSource(String packageName) {
+            line("package %s;", packageName);
+            line("");
+        }
+
+        void imports(String... classNames) {
+            for (String className : classNames) {
+                line("import %s;", className);
+            }
+        }
+
+        void line(String format, Object... args) {
+            content.append(args.length == 0 ? format : String.format(format, args)).append('\n');
+        }
+
+        String end() {
+            return content.append("}\n").toString();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.wuxp.codegen.benchmarks.corpus;
+
+import com.wuxp.codegen.SourceCodeProvider;
+import com.wuxp.codegen.core.ClassCodeGenerator;
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.starter.LoongCodeGenerator;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+class SyntheticApiCorpusTest {
+
+    @Test
+    void testGenerateSdkByCorpus() throws Exception {
+        Path outputDirectory = Paths.get("target", "test-corpus");
+        Path codegenPath = outputDirectory.resolve("codegen").toAbsolutePath();
+        for (OpenApiType openApiType : new OpenApiType[]{OpenApiType.SWAGGER_2, OpenApiType.SWAGGER_3}) {
+            SyntheticApiCorpus corpus = SyntheticApiCorpus.builder()
+                    .controllers(3)
+                    .dtosPerController(4)
+                    .controllersPerGroup(2)
+                    .openApiType(openApiType)
+                    .outputDirectory(outputDirectory)
+                    .build();
+            List<Class<?>> controllers = corpus.loadControllers();
+            Assertions.assertEquals(3, controllers.size());
+            // 能够从语料中获取源代码的注释
+            Assertions.assertTrue(new SourceCodeProvider().getJavadoc(controllers.get(0)).isPresent());
+
+            LoongCodeGenerator loongCodeGenerator = new LoongCodeGenerator(openApiType, corpus.getScanPackage());
+            loongCodeGenerator.setOutputPath(codegenPath.toString());
+            loongCodeGenerator.setClientProviderTypes(Collections.singletonList(ClientProviderType.TYPESCRIPT_FEIGN));
+            ClassCodeGenerator codeGenerator = (ClassCodeGenerator) loongCodeGenerator.getCodeGeneratorBuilders().iterator().next().buildCodeGenerator();
+            codeGenerator.generate(controllers);
+            Assertions.assertFalse(FileUtils.listFiles(codegenPath.toFile(), null, true).isEmpty());
+        }
+        FileUtils.deleteDirectory(new File(outputDirectory.toString()));
+    }
+}
@@ -3,18 +3,35 @@ package com.wuxp.codegen.format;
 import com.wuxp.codegen.core.CodeFormatter;
 import com.wuxp.codegen.core.config.CodegenConfig;
 import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 通过调用命令行去格式化代码
+ * <p>
+ * 格式化工具（node、flutter等）的启动开销较大，异步格式化时将文件按照批次合并为一个命令执行，
+ * 子类通过 {@link #genFormatCommand(List)} 支持批量格式化，批次执行失败（超时或退出码不为 0）时逐个文件重新格式化
+ * </p>
  *
  * @author wuxp
  */
@@ -26,6 +43,31 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
      */
     private static final int MAX_EXECUTE_COMMAND_TIMEOUT_MILLISECONDS = 3500;
 
+    /**
+     * 批量格式化时，每个文件增加的超时时间，单位毫秒
+     */
+    private static final int EXECUTE_COMMAND_TIMEOUT_MILLISECONDS_PER_FILE = 200;
+
+    /**
+     * 每个批次默认的文件数量
+     */
+    private static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * 批量格式化时命令的最大长度，windows 命令行的最大长度为 8191
+     */
+    private static final int MAX_BATCH_COMMAND_LENGTH = 7000;
+
+    /**
+     * 命令参数的分隔符，与 {@link Runtime#exec(String)} 一致
+     */
+    private static final String COMMAND_DELIMITERS = " \t\n\r\f";
+
+    /**
+     * 等待读取命令输出结束的最大时间，单位毫秒
+     */
+    private static final long OUTPUT_CONSUMER_JOIN_TIMEOUT_MILLISECONDS = 1000;
+
     /**
      * 是否启用 formatter
      */
@@ -36,11 +78,33 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
      */
     protected ThreadPoolExecutor executor;
 
-    private final List<CompletableFuture<?>> futureTasks;
+    /**
+     * 支持在多个线程中渲染模板时并发提交格式化任务
+     */
+    private final Queue<CompletableFuture<?>> futureTasks;
+
+    private final Object batchLock = new Object();
+
+    /**
+     * 正在收集文件的批次
+     */
+    private FormatBatch currentBatch;
+
+    /**
+     * 已执行批次的格式化耗时，单位毫秒
+     */
+    private final LongAdder batchTimeMillis = new LongAdder();
+
+    private final LongAdder batchFileTotal = new LongAdder();
+
+    /**
+     * 格式化失败被跳过的文件数量
+     */
+    private final LongAdder skippedFileTotal = new LongAdder();
 
     protected AbstractCommandCodeFormatter() {
         this.enabled = this.preCheckEnv();
-        this.futureTasks = new ArrayList<>(512);
+        this.futureTasks = new ConcurrentLinkedQueue<>();
         this.init();
     }
 
@@ -52,21 +116,103 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
         if (executor == null) {
             runCommand(genFormatCommand(filepath));
             return CompletableFuture.completedFuture(null);
-        } else {
-            Future<?> future = asyncRunCommand(filepath, CodegenConfigHolder.getConfig());
-            return CompletableFuture.runAsync(waitFutureResult(future));
         }
+        FormatBatch batch;
+        FormatBatch fullBatch = null;
+        synchronized (batchLock) {
+            if (currentBatch == null) {
+                currentBatch = new FormatBatch(CodegenConfigHolder.getConfig());
+            }
+            batch = currentBatch;
+            batch.add(filepath);
+            if (batch.size() >= getBatchSize() || batch.getCommandLength() >= MAX_BATCH_COMMAND_LENGTH) {
+                fullBatch = batch;
+                currentBatch = null;
+            }
+        }
+        if (fullBatch != null) {
+            submitBatch(fullBatch);
+        }
+        return batch.future;
     }
 
-    private Future<?> asyncRunCommand(String filepath, CodegenConfig codegenConfig) {
-        return executor.submit(() -> {
-            // keep config
-            CodegenConfigHolder.setConfig(codegenConfig);
-            runCommand(genFormatCommand(filepath));
-            CodegenConfigHolder.clear();
+    /**
+     * 提交正在收集文件的批次
+     */
+    private void flushBatch() {
+        FormatBatch batch;
+        synchronized (batchLock) {
+            batch = currentBatch;
+            currentBatch = null;
+        }
+        if (batch != null) {
+            submitBatch(batch);
+        }
+    }
+
+    private void submitBatch(FormatBatch batch) {
+        futureTasks.add(batch.future);
+        // 队列已满时由提交任务的线程执行（背压）
+        executor.execute(() -> {
+            // keep config，队列已满时在提交任务的线程中执行，需要恢复原本的配置
+            CodegenConfig previousConfig = CodegenConfigHolder.getConfig();
+            CodegenConfigHolder.setConfig(batch.codegenConfig);
+            try {
+                runBatch(batch);
+                batch.future.complete(null);
+            } catch (RuntimeException exception) {
+                batch.future.completeExceptionally(exception);
+            } finally {
+                if (previousConfig == null) {
+                    CodegenConfigHolder.clear();
+                } else {
+                    CodegenConfigHolder.setConfig(previousConfig);
+                }
+            }
         });
     }
 
+    private void runBatch(FormatBatch batch) {
+        long startTime = System.currentTimeMillis();
+        String command = batch.size() == 1 ? genFormatCommand(batch.filepaths.get(0)) : genFormatCommand(batch.filepaths);
+        if (command == null) {
+            // 不支持批量格式化，逐个执行
+            runEach(batch.filepaths);
+        } else if (!runCommand(command, MAX_EXECUTE_COMMAND_TIMEOUT_MILLISECONDS + (long) EXECUTE_COMMAND_TIMEOUT_MILLISECONDS_PER_FILE * batch.size())) {
+            if (batch.size() == 1) {
+                logSkippedFiles(batch.filepaths);
+            } else {
+                // 批次执行失败，逐个文件重试，避免一个文件导致整个批次都没有格式化
+                log.warn("批量格式化{}个文件失败，逐个文件重新格式化", batch.size());
+                runEach(batch.filepaths);
+            }
+        }
+        long costTime = System.currentTimeMillis() - startTime;
+        batchTimeMillis.add(costTime);
+        batchFileTotal.add(batch.size());
+        if (log.isDebugEnabled()) {
+            log.debug("格式化{}个文件，耗时：{}ms", batch.size(), costTime);
+        }
+    }
+
+    private void runEach(List<String> filepaths) {
+        List<String> skippedFiles = new ArrayList<>();
+        for (String filepath : filepaths) {
+            if (!runCommand(genFormatCommand(filepath))) {
+                skippedFiles.add(filepath);
+            }
+        }
+        logSkippedFiles(skippedFiles);
+    }
+
+    private void logSkippedFiles(List<String> filepaths) {
+        if (filepaths.isEmpty()) {
+            return;
+        }
+        skippedFileTotal.add(filepaths.size());
+        log.warn("格式化失败，跳过的文件：{}", filepaths);
+    }
+
     private Runnable waitFutureResult(Future<?> future) {
         return () -> {
             try {
@@ -82,24 +228,50 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
 
     @Override
     public void format(String filepath) {
-        futureTasks.add(asyncFormat(filepath));
+        asyncFormat(filepath);
     }
 
+    @Override
+    public boolean isSupportFormatInMemory() {
+        return !enabled;
+    }
+
+    /**
+     * 将代码写入临时文件，同步执行格式化命令后读取格式化后的代码，格式化失败时返回原本的代码
+     */
     @Override
     public String format(String sourcecode, Charset charsetName) {
-        // TODO 待支持
-        return sourcecode;
+        if (!enabled) {
+            return sourcecode;
+        }
+        Path filepath = null;
+        try {
+            filepath = Files.createTempFile("codegen_format_", getTemporaryFileSuffix());
+            Files.write(filepath, sourcecode.getBytes(charsetName));
+            if (runCommand(genFormatCommand(filepath.toString()))) {
+                return new String(Files.readAllBytes(filepath), charsetName);
+            }
+            logSkippedFiles(Collections.singletonList(filepath.toString()));
+            return sourcecode;
+        } catch (IOException exception) {
+            throw new CodegenRuntimeException(exception);
+        } finally {
+            if (filepath != null) {
+                filepath.toFile().delete();
+            }
+        }
     }
 
     @Override
     public CompletableFuture<Void> future() {
+        flushBatch();
         if (CollectionUtils.isEmpty(futureTasks)) {
             return CompletableFuture.completedFuture(null);
         }
         return CompletableFuture.runAsync(() -> {
             int taskTotal = syncCountFutureTaskTotal();
             if (log.isInfoEnabled()) {
-                log.info("共执行的异步任务数量：{}", taskTotal);
+                log.info("共执行的异步任务（批次）数量：{}，格式化文件数量：{}，跳过文件数量：{}，累计耗时：{}ms", taskTotal, batchFileTotal.sum(), skippedFileTotal.sum(), batchTimeMillis.sum());
             }
             futureTasks.clear();
         });
@@ -122,18 +294,51 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
      */
     protected abstract String genFormatCommand(String filepath);
 
+    /**
+     * 生成批量格式化的命令
+     *
+     * @param filepaths 文件路径列表
+     * @return 命令，返回 null 表示不支持批量格式化
+     */
+    protected String genFormatCommand(List<String> filepaths) {
+        return null;
+    }
+
+    /**
+     * @return 每个批次的文件数量
+     */
+    protected int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    /**
+     * @return 在内存中格式化代码时使用的临时文件后缀
+     */
+    protected String getTemporaryFileSuffix() {
+        return ".tmp";
+    }
+
+    /**
+     * @return 格式化失败被跳过的文件数量
+     */
+    long getSkippedFileTotal() {
+        return skippedFileTotal.sum();
+    }
+
     protected boolean runCommand(String cmd) {
         return runCommand(cmd, null, null);
     }
 
     protected boolean runCommand(String cmd, String[] args, String delimiter) {
-        String command = genCommand(cmd, args, delimiter);
+        return runCommand(genCommand(cmd, args, delimiter), MAX_EXECUTE_COMMAND_TIMEOUT_MILLISECONDS);
+    }
+
+    private boolean runCommand(String command, long timeoutMilliseconds) {
         if (log.isDebugEnabled()) {
             log.debug("执行命令：{}", command);
         }
         try {
-            executeCommand(command);
-            return true;
+            return executeCommand(command, timeoutMilliseconds);
         } catch (IOException exception) {
             log.error("调用命令行格式代码失败：{}", exception.getMessage(), exception);
         } catch (InterruptedException exception) {
@@ -143,14 +348,59 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
         return false;
     }
 
-    private void executeCommand(String command) throws IOException, InterruptedException {
-        Process exec = Runtime.getRuntime().exec(command);
-        // 最多等待5秒钟
-        boolean success = exec.waitFor(MAX_EXECUTE_COMMAND_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
-        if (log.isTraceEnabled()) {
-            log.trace("调用命令行格式代码：{}", success);
+    /**
+     * @return 命令在超时时间内执行完成并且退出码为 0 时返回 <code>true</code>
+     */
+    private boolean executeCommand(String command, long timeoutMilliseconds) throws IOException, InterruptedException {
+        CodegenMetrics metrics = CodegenMetrics.current();
+        CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.FORMATTER_PROCESS);
+        long start = metrics.start();
+        // 合并 stderr 到 stdout 并持续读取，避免输出填满管道缓冲区导致子进程阻塞
+        Process exec = new ProcessBuilder(StringUtils.tokenizeToStringArray(command, COMMAND_DELIMITERS))
+                .redirectErrorStream(true)
+                .start();
+        metrics.increment(CodegenMetrics.Counter.FORMATTER_PROCESSES);
+        Thread outputConsumer = consumeOutput(exec, command);
+        try {
+            if (!exec.waitFor(timeoutMilliseconds, TimeUnit.MILLISECONDS)) {
+                log.warn("执行命令超时（{}ms），command：{}", timeoutMilliseconds, command);
+                exec.destroyForcibly();
+                return false;
+            }
+            int exitCode = exec.exitValue();
+            if (log.isTraceEnabled()) {
+                log.trace("调用命令行格式代码，exitCode：{}", exitCode);
+            }
+            if (exitCode != 0) {
+                log.warn("执行命令失败，exitCode：{}，command：{}", exitCode, command);
+            }
+            return exitCode == 0;
+        } finally {
+            outputConsumer.join(OUTPUT_CONSUMER_JOIN_TIMEOUT_MILLISECONDS);
+            metrics.stop(CodegenMetrics.Stage.FORMAT, start);
+            recording.detail(command).record();
         }
-        exec.destroy();
+    }
+
+    private static Thread consumeOutput(Process process, String command) {
+        Thread thread = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), Charset.defaultCharset()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("{}", line);
+                    }
+                }
+            } catch (IOException exception) {
+                // 进程被强制结束时流会被关闭
+                if (log.isTraceEnabled()) {
+                    log.trace("读取命令输出失败，command：{}，message：{}", command, exception.getMessage());
+                }
+            }
+        }, "command_code_formatter_output");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
     }
 
     protected String genCommand(String cmd, String[] args, String delimiter) {
@@ -165,11 +415,46 @@ public abstract class AbstractCommandCodeFormatter implements CodeFormatter {
     }
 
     protected void init() {
-        this.executor = new ThreadPoolExecutor(1, 2, 1, TimeUnit.MINUTES,
-                new ArrayBlockingQueue<>(1024),
-                new CustomizableThreadFactory("command_code_formatter"),
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("command_code_formatter");
+        threadFactory.setDaemon(true);
+        // 每个任务是一个批次，队列不需要太长，队列满时由提交任务的线程执行
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 1, TimeUnit.MINUTES,
+                new ArrayBlockingQueue<>(poolSize * 2),
+                threadFactory,
                 new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
     }
 
+    /**
+     * 一个批次的格式化任务
+     */
+    private static final class FormatBatch {
+
+        private final CodegenConfig codegenConfig;
+
+        private final List<String> filepaths = new ArrayList<>();
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private int commandLength;
+
+        FormatBatch(CodegenConfig codegenConfig) {
+            this.codegenConfig = codegenConfig;
+        }
+
+        void add(String filepath) {
+            filepaths.add(filepath);
+            commandLength += filepath.length() + 1;
+        }
+
+        int size() {
+            return filepaths.size();
+        }
+
+        int getCommandLength() {
+            return commandLength;
+        }
+    }
 
 }
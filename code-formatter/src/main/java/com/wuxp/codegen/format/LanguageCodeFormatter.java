@@ -56,6 +56,15 @@ public class LanguageCodeFormatter implements CodeFormatter {
         }
     }
 
+    @Override
+    public boolean isSupportFormatInMemory() {
+        if (CodegenConfigHolder.isEnabledCodeFormatter()) {
+            return getFormatter().map(CodeFormatter::isSupportFormatInMemory).orElse(true);
+        }
+        // 不格式化
+        return true;
+    }
+
     private Optional<CodeFormatter> getFormatter() {
         return getFormatter(languageDescription);
     }
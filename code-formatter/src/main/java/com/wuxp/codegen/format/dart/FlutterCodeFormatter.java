@@ -2,6 +2,8 @@ package com.wuxp.codegen.format.dart;
 
 import com.wuxp.codegen.format.AbstractCommandCodeFormatter;
 
+import java.util.List;
+
 /**
  * 使用 flutter format filepath 格式化代码
  * <p>
@@ -19,6 +21,16 @@ public class FlutterCodeFormatter extends AbstractCommandCodeFormatter {
         return genCommand("flutter format", new String[]{filepath}, " ");
     }
 
+    @Override
+    protected String genFormatCommand(List<String> filepaths) {
+        return genCommand("flutter format", filepaths.toArray(new String[0]), " ");
+    }
+
+    @Override
+    protected String getTemporaryFileSuffix() {
+        return ".dart";
+    }
+
     @Override
     protected boolean preCheckEnv() {
         return runCommand("flutter --help");
@@ -3,6 +3,10 @@ package com.wuxp.codegen.format.typecript;
 import com.wuxp.codegen.format.AbstractCommandCodeFormatter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 使用 https://github.com/prettier/prettier 格式化代码
  * <p>
@@ -22,7 +26,22 @@ public class PrettierCodeFormatter extends AbstractCommandCodeFormatter {
 
     @Override
     protected String genFormatCommand(String filepath) {
-        return genCommand("node", new String[]{FORMAT_SHELL_FILEPATH, filepath, "UTF-8"}, " ");
+        return genFormatCommand(Collections.singletonList(filepath));
+    }
+
+    @Override
+    protected String genFormatCommand(List<String> filepaths) {
+        // 一个 node 进程格式化一批文件
+        List<String> args = new ArrayList<>(filepaths.size() + 2);
+        args.add(FORMAT_SHELL_FILEPATH);
+        args.add("--encoding=UTF-8");
+        args.addAll(filepaths);
+        return genCommand("node", args.toArray(new String[0]), " ");
+    }
+
+    @Override
+    protected String getTemporaryFileSuffix() {
+        return ".ts";
     }
 
     @Override
@@ -1,9 +1,17 @@
 const childProcess = require('child_process');
 const fs = require('fs');
 
+// 参数：[--encoding=UTF-8] filepath1 filepath2 ...
 let args = process.argv.splice(2);
-let filepath = args[0];
-let encoding = args[1] || "UTF-8";
+let encoding = "UTF-8";
+const filepaths = [];
+args.forEach(arg => {
+    if (arg.startsWith("--encoding=")) {
+        encoding = arg.substring("--encoding=".length);
+    } else {
+        filepaths.push(arg);
+    }
+});
 
 /**
  * npm 获取全局安装包路径 https://blog.csdn.net/ljy_1024/article/details/103610443
@@ -16,13 +24,12 @@ const getGlobalModulesPath = () => {
     return result.replace("\n", "").replace("\r", "");
 }
 
-const formatSourceFile = (filepath, encoding) => {
-    const prettierModule = getGlobalModulesPath() + "/prettier/index.js";
-    const prettier = require(prettierModule);
+const formatSourceFile = (prettier, filepath, encoding) => {
     const sourcecode = fs.readFileSync(filepath, {encoding: encoding});
     const result = prettier.format(sourcecode, {semi: false, parser: "typescript"});
     fs.writeFileSync(filepath, result, {
         encoding: encoding
     });
 }
-formatSourceFile(filepath, encoding);
+const prettier = require(getGlobalModulesPath() + "/prettier/index.js");
+filepaths.forEach(filepath => formatSourceFile(prettier, filepath, encoding));
@@ -0,0 +1,99 @@
+package com.wuxp.codegen.format;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+class AbstractCommandCodeFormatterTest {
+
+    private static final String FAILURE_FILE = "failure.ts";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBatchFormat() throws Exception {
+        RecordingCodeFormatter formatter = new RecordingCodeFormatter();
+        for (String filepath : Arrays.asList("a.ts", "b.ts", "c.ts", FAILURE_FILE, "e.ts")) {
+            formatter.asyncFormat(filepath);
+        }
+        formatter.future().get();
+
+        // 按照批次大小拆分，最后一个批次只有一个文件
+        List<List<String>> batches = formatter.batches.stream()
+                .sorted((o1, o2) -> o1.get(0).compareTo(o2.get(0)))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList(Arrays.asList("a.ts", "b.ts"), Arrays.asList("c.ts", FAILURE_FILE)), batches);
+        // 批次执行失败后逐个文件重试
+        Assertions.assertEquals(Arrays.asList("c.ts", "e.ts", FAILURE_FILE), formatter.files.stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(1, formatter.getSkippedFileTotal());
+    }
+
+    @Test
+    void testFormatInMemory() throws Exception {
+        Path formatted = tempDir.resolve("formatted.ts");
+        Files.write(formatted, "export default {}\n".getBytes(StandardCharsets.UTF_8));
+        AbstractCommandCodeFormatter formatter = new AbstractCommandCodeFormatter() {
+            @Override
+            protected String genFormatCommand(String filepath) {
+                return genCommand("cp", new String[]{formatted.toString(), filepath}, " ");
+            }
+
+            @Override
+            protected boolean preCheckEnv() {
+                return true;
+            }
+        };
+        Assertions.assertEquals("export default {}\n", formatter.format("export  default {  }", StandardCharsets.UTF_8));
+
+        Files.delete(formatted);
+        // 格式化失败时返回原本的代码
+        Assertions.assertEquals("export  default {  }", formatter.format("export  default {  }", StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, formatter.getSkippedFileTotal());
+    }
+
+    private static class RecordingCodeFormatter extends AbstractCommandCodeFormatter {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        private final List<String> files = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected String genFormatCommand(String filepath) {
+            files.add(filepath);
+            return getCommand(Collections.singletonList(filepath));
+        }
+
+        @Override
+        protected String genFormatCommand(List<String> filepaths) {
+            batches.add(filepaths);
+            return getCommand(filepaths);
+        }
+
+        @Override
+        protected int getBatchSize() {
+            return 2;
+        }
+
+        @Override
+        protected boolean preCheckEnv() {
+            return true;
+        }
+
+        private static String getCommand(List<String> filepaths) {
+            return filepaths.contains(FAILURE_FILE) ? "false" : "true";
+        }
+    }
+}
@@ -40,6 +40,13 @@ public interface CodeFormatter extends CodeGenerateAsyncTaskFuture {
     }
 
 
+    /**
+     * @return 是否支持在内存中格式化代码（{@link #format(String, Charset)}），不支持时需要先写入文件再调用 {@link #format(String)}
+     */
+    default boolean isSupportFormatInMemory() {
+        return true;
+    }
+
     /**
      * 格式化代码
      *
@@ -2,12 +2,15 @@ package com.wuxp.codegen.core.config;
 
 
 import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import com.wuxp.codegen.model.CommonCodeGenClassMeta;
 import com.wuxp.codegen.model.LanguageDescription;
 import com.wuxp.codegen.model.languages.dart.DartClassMeta;
 import com.wuxp.codegen.model.languages.typescript.TypescriptClassMeta;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,7 +24,7 @@ import java.util.*;
  * @author wxup
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public final class CodegenConfig {
 
 
@@ -75,6 +78,20 @@ public final class CodegenConfig {
      */
     private boolean enabledCodeFormatter;
 
+    /**
+     * java 类解析结果的磁盘缓存目录，为 null 时不启用
+     *
+     * @see com.wuxp.codegen.core.parser.JavaClassParser
+     */
+    private String parserCacheDirectory;
+
+    /**
+     * 本次生成的耗时和计数统计，由代码生成器在生成开始时设置
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private CodegenMetrics metrics;
+
 
     public boolean isJava() {
         return LanguageDescription.JAVA.equals(languageDescription) || LanguageDescription.JAVA_ANDROID.equals(languageDescription);
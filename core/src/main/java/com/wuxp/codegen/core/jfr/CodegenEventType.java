@@ -0,0 +1,45 @@
+package com.wuxp.codegen.core.jfr;
+
+/**
+ * 代码生成中发送 jfr 事件的环节
+ *
+ * @author wuxp
+ * @see CodegenFlightRecorder
+ */
+public enum CodegenEventType {
+
+    /**
+     * java 类解析
+     */
+    CLASS_PARSE,
+
+    /**
+     * 类型定义的发布和解析（转换为目标语言）
+     */
+    TYPE_PARSE,
+
+    /**
+     * 解析后置处理器的执行
+     */
+    POST_PROCESS,
+
+    /**
+     * 模板渲染
+     */
+    TEMPLATE_RENDER,
+
+    /**
+     * 写入文件
+     */
+    FILE_WRITE,
+
+    /**
+     * 格式化命令的进程
+     */
+    FORMATTER_PROCESS,
+
+    /**
+     * 从源代码仓库拉取代码
+     */
+    VCS_CHECKOUT
+}
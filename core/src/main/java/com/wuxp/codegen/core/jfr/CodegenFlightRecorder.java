@@ -0,0 +1,95 @@
+package com.wuxp.codegen.core.jfr;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 在代码生成的热点路径上发送 Java Flight Recorder 事件，通过 jfr print 或 JMC 查看每个类、模板的耗时
+ * <p>
+ * 默认不启用，此时 {@link #begin(CodegenEventType)} 返回共享的空实现，不会加载 jdk.jfr 中的类；
+ * 通过构建器的 flightRecorder 选项或系统属性 {@value #ENABLED_PROPERTY} 启用，
+ * 启用后只有在 jfr 录制中开启了对应事件时才会提交
+ * </p>
+ * 例如：java -XX:StartFlightRecording=filename=codegen.jfr ...，然后执行 jfr print --categories Codegen codegen.jfr
+ *
+ * @author wuxp
+ */
+@Slf4j
+public final class CodegenFlightRecorder {
+
+    public static final String ENABLED_PROPERTY = "wuxp.codegen.jfr.enabled";
+
+    private static final CodegenRecording NONE = new NoneRecording();
+
+    private static volatile boolean enabled;
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            enable();
+        }
+    }
+
+    private CodegenFlightRecorder() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 启用 jfr 事件，当前 jvm 不支持 jfr 时不启用
+     */
+    public static synchronized void enable() {
+        if (enabled) {
+            return;
+        }
+        try {
+            enabled = CodegenJfrEvents.isAvailable();
+        } catch (LinkageError error) {
+            enabled = false;
+        }
+        if (!enabled) {
+            log.warn("当前 jvm 不支持 Java Flight Recorder，忽略代码生成的 jfr 事件");
+        }
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始记录一个事件
+     *
+     * @param type 事件类型
+     * @return 未启用时返回空实现
+     */
+    public static CodegenRecording begin(CodegenEventType type) {
+        if (!enabled) {
+            return NONE;
+        }
+        return CodegenJfrEvents.begin(type);
+    }
+
+    private static final class NoneRecording implements CodegenRecording {
+
+        @Override
+        public CodegenRecording className(String className) {
+            return this;
+        }
+
+        @Override
+        public CodegenRecording bytes(long bytes) {
+            return this;
+        }
+
+        @Override
+        public CodegenRecording detail(String detail) {
+            return this;
+        }
+
+        @Override
+        public void record() {
+            // none
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.wuxp.codegen.core.jfr;
+
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import jdk.jfr.*;
+
+/**
+ * 代码生成的 jfr 事件定义，只在启用 {@link CodegenFlightRecorder} 后加载
+ *
+ * @author wuxp
+ */
+final class CodegenJfrEvents {
+
+    private static final String CATEGORY = "Codegen";
+
+    private CodegenJfrEvents() {
+        throw new AssertionError();
+    }
+
+    static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    static CodegenRecording begin(CodegenEventType type) {
+        AbstractCodegenEvent result = newEvent(type);
+        result.begin();
+        return result;
+    }
+
+    private static AbstractCodegenEvent newEvent(CodegenEventType type) {
+        switch (type) {
+            case CLASS_PARSE:
+                return new ClassParseEvent();
+            case TYPE_PARSE:
+                return new TypeParseEvent();
+            case POST_PROCESS:
+                return new PostProcessEvent();
+            case TEMPLATE_RENDER:
+                return new TemplateRenderEvent();
+            case FILE_WRITE:
+                return new FileWriteEvent();
+            case FORMATTER_PROCESS:
+                return new FormatterProcessEvent();
+            case VCS_CHECKOUT:
+                return new VcsCheckoutEvent();
+            default:
+                throw new IllegalArgumentException("不支持的事件类型：" + type);
+        }
+    }
+
+    @Category(CATEGORY)
+    @StackTrace(false)
+    abstract static class AbstractCodegenEvent extends Event implements CodegenRecording {
+
+        @Label("Class Name")
+        String className;
+
+        @Label("Language")
+        String language;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Detail")
+        String detail;
+
+        @Override
+        public CodegenRecording className(String className) {
+            this.className = className;
+            return this;
+        }
+
+        @Override
+        public CodegenRecording bytes(long bytes) {
+            this.bytes = bytes;
+            return this;
+        }
+
+        @Override
+        public CodegenRecording detail(String detail) {
+            this.detail = detail;
+            return this;
+        }
+
+        @Override
+        public void record() {
+            end();
+            if (shouldCommit()) {
+                CodegenConfig config = CodegenConfigHolder.getConfig();
+                if (config != null && config.getLanguageDescription() != null) {
+                    language = config.getLanguageDescription().name();
+                }
+                commit();
+            }
+        }
+    }
+
+    @Name("com.wuxp.codegen.ClassParse")
+    @Label("Class Parse")
+    @Description("java 类解析")
+    static final class ClassParseEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.TypeParse")
+    @Label("Type Definition Parse")
+    @Description("类型定义的发布和解析")
+    static final class TypeParseEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.PostProcess")
+    @Label("Post Processor")
+    @Description("解析后置处理器的执行，detail 为处理器名称")
+    static final class PostProcessEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.TemplateRender")
+    @Label("Template Render")
+    @Description("模板渲染，detail 为模板路径，size 为字符数")
+    static final class TemplateRenderEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.FileWrite")
+    @Label("File Write")
+    @Description("写入文件，detail 为文件路径")
+    static final class FileWriteEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.FormatterProcess")
+    @Label("Formatter Process")
+    @Description("格式化命令的进程，detail 为执行的命令")
+    static final class FormatterProcessEvent extends AbstractCodegenEvent {
+    }
+
+    @Name("com.wuxp.codegen.VcsCheckout")
+    @Label("VCS Checkout")
+    @Description("从源代码仓库拉取代码，className 为项目名称，detail 为分支名称")
+    static final class VcsCheckoutEvent extends AbstractCodegenEvent {
+    }
+}
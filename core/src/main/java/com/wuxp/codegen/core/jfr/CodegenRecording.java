@@ -0,0 +1,29 @@
+package com.wuxp.codegen.core.jfr;
+
+/**
+ * 一次正在记录的 jfr 事件，由 {@link CodegenFlightRecorder#begin(CodegenEventType)} 返回，结束时调用 {@link #record()}
+ *
+ * @author wuxp
+ */
+public interface CodegenRecording {
+
+    /**
+     * @param className 类名称（VCS 拉取时为项目名称）
+     */
+    CodegenRecording className(String className);
+
+    /**
+     * @param bytes 输出的大小（渲染时为字符数）
+     */
+    CodegenRecording bytes(long bytes);
+
+    /**
+     * @param detail 附加信息，例如：后置处理器名称、模板路径、文件路径、格式化命令、分支名称
+     */
+    CodegenRecording detail(String detail);
+
+    /**
+     * 结束并提交事件
+     */
+    void record();
+}
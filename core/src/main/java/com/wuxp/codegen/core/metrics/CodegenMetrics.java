@@ -0,0 +1,430 @@
+package com.wuxp.codegen.core.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次代码生成的各个阶段的耗时、计数以及最慢的类
+ * <p>
+ * 每次生成创建一个实例，保存在 {@link CodegenConfig#getMetrics()} 中，随配置传递到并行渲染、命令行格式化的线程中；
+ * 没有配置时使用 {@link #DISABLED}，不做任何记录
+ * </p>
+ * <p>
+ * 各个阶段的耗时相互包含（例如：语言解析包含 java 类解析和后置处理），并行生成时为所有线程耗时的总和
+ * </p>
+ * <p>
+ * jvm 支持时（{@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}）同时记录各个阶段在当前线程中分配的内存，
+ * 与耗时一样相互包含
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public final class CodegenMetrics {
+
+    public static final CodegenMetrics DISABLED = new CodegenMetrics("disabled", false);
+
+    /**
+     * 每个阶段记录的最慢的类的数量
+     */
+    private static final int SLOWEST_SIZE = 10;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    /**
+     * 用于获取线程分配的内存，jvm 不支持时为 null
+     */
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getAllocationThreadMXBean();
+
+    private final String name;
+
+    private final boolean enabled;
+
+    private final long startTime;
+
+    private volatile long totalNanos;
+
+    private final Map<Stage, LongAdder> stageNanos = new EnumMap<>(Stage.class);
+
+    private final Map<Stage, LongAdder> stageCounts = new EnumMap<>(Stage.class);
+
+    private final Map<Stage, LongAdder> stageAllocatedBytes = new EnumMap<>(Stage.class);
+
+    /**
+     * 当前线程中已经开始（{@link #start()}）但还没有结束的阶段分配内存的起点
+     */
+    private final ThreadLocal<AllocationFrames> allocationFrames = ThreadLocal.withInitial(AllocationFrames::new);
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+    private final Map<Stage, SlowestRecorder> slowest = new EnumMap<>(Stage.class);
+
+    public CodegenMetrics(String name) {
+        this(name, true);
+    }
+
+    private CodegenMetrics(String name, boolean enabled) {
+        this.name = name;
+        this.enabled = enabled;
+        this.startTime = System.nanoTime();
+        for (Stage stage : Stage.values()) {
+            stageNanos.put(stage, new LongAdder());
+            stageCounts.put(stage, new LongAdder());
+            stageAllocatedBytes.put(stage, new LongAdder());
+            slowest.put(stage, new SlowestRecorder());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * @return 当前线程中正在进行的生成的统计，没有时返回 {@link #DISABLED}
+     */
+    public static CodegenMetrics current() {
+        CodegenConfig config = CodegenConfigHolder.getConfig();
+        CodegenMetrics result = config == null ? null : config.getMetrics();
+        return result == null ? DISABLED : result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return 开始时间，和 {@link #stop(Stage, long)} 配合使用
+     */
+    public long start() {
+        if (!enabled) {
+            return 0L;
+        }
+        long result = System.nanoTime();
+        if (THREAD_MX_BEAN != null) {
+            allocationFrames.get().push(result, getCurrentThreadAllocatedBytes());
+        }
+        return result;
+    }
+
+    public void stop(Stage stage, long start) {
+        stop(stage, start, null);
+    }
+
+    /**
+     * @param stage   阶段
+     * @param start   {@link #start()} 的返回值
+     * @param subject 耗时的主体（例如：类名），不为 null 时参与最慢排名
+     */
+    public void stop(Stage stage, long start, String subject) {
+        if (!enabled) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        stageNanos.get(stage).add(nanos);
+        stageCounts.get(stage).increment();
+        if (THREAD_MX_BEAN != null) {
+            long allocatedBytes = allocationFrames.get().pop(start);
+            if (allocatedBytes >= 0) {
+                stageAllocatedBytes.get(stage).add(getCurrentThreadAllocatedBytes() - allocatedBytes);
+            }
+        }
+        if (subject != null) {
+            slowest.get(stage).record(subject, nanos);
+        }
+    }
+
+    public void increment(Counter counter) {
+        add(counter, 1);
+    }
+
+    public void add(Counter counter, long value) {
+        if (enabled) {
+            counters.get(counter).add(value);
+        }
+    }
+
+    public long getStageNanos(Stage stage) {
+        return stageNanos.get(stage).sum();
+    }
+
+    public long getStageCount(Stage stage) {
+        return stageCounts.get(stage).sum();
+    }
+
+    /**
+     * @return 该阶段分配的内存，单位字节，jvm 不支持时返回 0
+     */
+    public long getStageAllocatedBytes(Stage stage) {
+        return stageAllocatedBytes.get(stage).sum();
+    }
+
+    public long getCounter(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * @return 该阶段最慢的类，按照耗时降序
+     */
+    public List<Map.Entry<String, Long>> getSlowest(Stage stage) {
+        return slowest.get(stage).get();
+    }
+
+    /**
+     * 生成结束，记录总耗时
+     */
+    public void completed() {
+        this.totalNanos = System.nanoTime() - startTime;
+    }
+
+    /**
+     * @return 统计报告，用于输出 json
+     */
+    public Map<String, Object> toReport() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        Map<String, Object> stages = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("millis", TimeUnit.NANOSECONDS.toMillis(getStageNanos(stage)));
+            value.put("count", getStageCount(stage));
+            if (THREAD_MX_BEAN != null) {
+                value.put("allocatedBytes", getStageAllocatedBytes(stage));
+            }
+            List<Map<String, Object>> offenders = new ArrayList<>();
+            getSlowest(stage).forEach(entry -> {
+                Map<String, Object> offender = new LinkedHashMap<>();
+                offender.put("name", entry.getKey());
+                offender.put("millis", TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+                offenders.add(offender);
+            });
+            if (!offenders.isEmpty()) {
+                value.put("slowest", offenders);
+            }
+            stages.put(stage.name(), value);
+        }
+        result.put("stages", stages);
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            counterValues.put(counter.name(), getCounter(counter));
+        }
+        result.put("counters", counterValues);
+        return result;
+    }
+
+    /**
+     * 输出统计报告到日志和 json 文件
+     *
+     * @param reportPath json 文件路径，为 null 时只输出到日志
+     */
+    public void report(String reportPath) {
+        if (!enabled) {
+            return;
+        }
+        if (log.isInfoEnabled()) {
+            log.info(toLogMessage());
+        }
+        if (reportPath == null) {
+            return;
+        }
+        try {
+            Path path = Paths.get(reportPath);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), toReport());
+        } catch (IOException exception) {
+            log.warn("写入代码生成统计报告失败，path = {}，message = {}", reportPath, exception.getMessage());
+        }
+    }
+
+    private String toLogMessage() {
+        StringBuilder builder = new StringBuilder(512);
+        builder.append("代码生成统计[").append(name).append("]，总耗时：").append(TimeUnit.NANOSECONDS.toMillis(totalNanos)).append("ms");
+        for (Stage stage : Stage.values()) {
+            long count = getStageCount(stage);
+            if (count == 0) {
+                continue;
+            }
+            builder.append("\n  ").append(stage.getDescription()).append("：")
+                    .append(TimeUnit.NANOSECONDS.toMillis(getStageNanos(stage))).append("ms，")
+                    .append(count).append("次");
+            if (THREAD_MX_BEAN != null) {
+                builder.append("，分配内存：").append(getStageAllocatedBytes(stage) / BYTES_PER_MB).append("MB");
+            }
+            List<Map.Entry<String, Long>> offenders = getSlowest(stage);
+            if (!offenders.isEmpty()) {
+                builder.append("，最慢：");
+                offenders.stream().limit(3).forEach(entry -> builder.append(entry.getKey()).append("(")
+                        .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms) "));
+            }
+        }
+        for (Counter counter : Counter.values()) {
+            builder.append("\n  ").append(counter.getDescription()).append("：").append(getCounter(counter));
+        }
+        return builder.toString();
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationThreadMXBean() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean result = (com.sun.management.ThreadMXBean) threadMXBean;
+                if (result.isThreadAllocatedMemorySupported() && result.isThreadAllocatedMemoryEnabled()) {
+                    return result;
+                }
+            }
+        } catch (LinkageError | RuntimeException exception) {
+            log.debug("不支持获取线程分配的内存，message = {}", exception.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 生成的阶段
+     */
+    public enum Stage {
+
+        SCAN("包扫描"),
+
+        CLASS_PARSE("java 类解析"),
+
+        LANGUAGE_PARSE("语言解析"),
+
+        POST_PROCESS("解析后置处理"),
+
+        RENDER("模板渲染"),
+
+        WRITE("写入文件"),
+
+        FORMAT("代码格式化");
+
+        private final String description;
+
+        Stage(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 计数
+     */
+    public enum Counter {
+
+        CLASSES_SCANNED("扫描到的类"),
+
+        CLASSES_PARSED("解析的 java 类"),
+
+        PARSER_CACHE_HITS("java 类解析命中缓存"),
+
+        FILES_WRITTEN("写入的文件"),
+
+        FILES_SKIPPED("跳过的文件（重复生成或内容没有变化）"),
+
+        FORMATTER_PROCESSES("格式化命令的进程");
+
+        private final String description;
+
+        Counter(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 一个线程中嵌套的阶段分配内存的起点，按照开始时间匹配，没有结束的阶段（例如：发生了异常）在外层阶段结束时丢弃
+     */
+    private static final class AllocationFrames {
+
+        private long[] starts = new long[8];
+
+        private long[] allocatedBytes = new long[8];
+
+        private int size;
+
+        void push(long start, long bytes) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                allocatedBytes = Arrays.copyOf(allocatedBytes, size * 2);
+            }
+            starts[size] = start;
+            allocatedBytes[size] = bytes;
+            size++;
+        }
+
+        /**
+         * @return 开始时间为 start 的阶段开始时已经分配的内存，不存在时返回 -1
+         */
+        long pop(long start) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (starts[i] == start) {
+                    size = i;
+                    return allocatedBytes[i];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 记录耗时最长的主体，同一个主体只保留最长的耗时
+     */
+    private static final class SlowestRecorder {
+
+        private final Map<String, Long> values = new HashMap<>();
+
+        /**
+         * 已记录的最短耗时，记录满时用于快速跳过
+         */
+        private volatile long threshold;
+
+        void record(String subject, long nanos) {
+            if (nanos <= threshold) {
+                return;
+            }
+            synchronized (this) {
+                values.merge(subject, nanos, Math::max);
+                if (values.size() > SLOWEST_SIZE) {
+                    String fastest = Collections.min(values.entrySet(), Map.Entry.comparingByValue()).getKey();
+                    values.remove(fastest);
+                    threshold = Collections.min(values.values());
+                }
+            }
+        }
+
+        synchronized List<Map.Entry<String, Long>> get() {
+            List<Map.Entry<String, Long>> result = new ArrayList<>(values.entrySet().size());
+            values.forEach((key, value) -> result.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+            result.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            return result;
+        }
+    }
+}
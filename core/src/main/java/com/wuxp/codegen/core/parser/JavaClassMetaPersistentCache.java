@@ -0,0 +1,280 @@
+package com.wuxp.codegen.core.parser;
+
+import com.wuxp.codegen.core.CodegenVersion;
+import com.wuxp.codegen.model.languages.java.JavaClassMeta;
+import com.wuxp.codegen.model.languages.java.JavaFieldMeta;
+import com.wuxp.codegen.model.languages.java.JavaMethodMeta;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * {@link JavaClassParser} 解析结果的磁盘缓存
+ * <p>
+ * 反射对象（Method、Field、Parameter等）无法序列化，因此只缓存解析过程中开销较大的部分：
+ * 泛型解析（{@link org.springframework.core.ResolvableType}）得到的类型列表、通过字节码读取的方法参数名称以及类的依赖列表，
+ * 命中缓存时其余的信息通过廉价的反射重新获取
+ * </p>
+ * <p>
+ * 每个类一个缓存文件，以类（包括超类和接口）的字节码 hash 和 codegen 版本号作为缓存的 key，key 不一致时缓存失效
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+final class JavaClassMetaPersistentCache {
+
+    private static final String CACHE_FILE_SUFFIX = ".meta";
+
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /**
+     * 缓存目录
+     */
+    private final Path cacheDirectory;
+
+    /**
+     * 类字节码的 hash，继承链上的类被多个子类共用，只计算一次；没有字节码的类为空字符串
+     */
+    private final Map<Class<?>, String> bytecodeDigests = new ConcurrentReferenceHashMap<>(256);
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    JavaClassMetaPersistentCache(String cacheDirectory) {
+        this.cacheDirectory = Paths.get(cacheDirectory).toAbsolutePath().normalize();
+    }
+
+    /**
+     * @param source     类
+     * @param key        缓存的 key {@link #getCacheKey(Class, boolean)}
+     * @param onlyPublic 是否只解析公共成员
+     * @return 缓存的解析结果，缓存不存在或已经失效返回 null
+     */
+    JavaClassMetaSnapshot get(Class<?> source, String key, boolean onlyPublic) {
+        Path path = getCachePath(source, onlyPublic);
+        if (!Files.exists(path)) {
+            missCount.increment();
+            return null;
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            JavaClassMetaSnapshot snapshot = (JavaClassMetaSnapshot) inputStream.readObject();
+            if (key.equals(snapshot.getKey())) {
+                hitCount.increment();
+                return snapshot;
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException exception) {
+            log.warn("读取类{}的解析缓存失败，message = {}", source.getName(), exception.getMessage());
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * 保存类的解析结果
+     *
+     * @param classMeta  类的解析结果
+     * @param key        缓存的 key {@link #getCacheKey(Class, boolean)}
+     * @param onlyPublic 是否只解析公共成员
+     */
+    void put(JavaClassMeta classMeta, String key, boolean onlyPublic) {
+        Class<?> source = classMeta.getClazz();
+        Path path = getCachePath(source, onlyPublic);
+        try {
+            Files.createDirectories(cacheDirectory);
+            // 先写入临时文件再移动，避免并发生成时读取到不完整的文件
+            Path temp = Files.createTempFile(cacheDirectory, source.getName(), ".tmp");
+            try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                outputStream.writeObject(JavaClassMetaSnapshot.of(key, classMeta));
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            log.warn("保存类{}的解析缓存失败，message = {}", source.getName(), exception.getMessage());
+        }
+    }
+
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    private Path getCachePath(Class<?> source, boolean onlyPublic) {
+        return cacheDirectory.resolve(source.getName() + (onlyPublic ? "-public" : "") + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * 泛型解析结果依赖超类和接口的声明，因此 key 包含整个继承链上的字节码
+     *
+     * @return 缓存的 key，无法读取字节码时（例如 jdk 中的类）返回 null 表示不缓存
+     */
+    String getCacheKey(Class<?> source, boolean onlyPublic) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        collectTypeHierarchy(source, classes);
+        StringBuilder builder = new StringBuilder(CodegenVersion.VERSION).append(onlyPublic);
+        for (Class<?> clazz : classes) {
+            String digest = bytecodeDigests.computeIfAbsent(clazz, JavaClassMetaPersistentCache::getBytecodeDigest);
+            if (digest.isEmpty()) {
+                if (clazz == source) {
+                    return null;
+                }
+                continue;
+            }
+            builder.append(clazz.getName()).append(digest);
+        }
+        return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String getBytecodeDigest(Class<?> clazz) {
+        byte[] bytecode = getBytecode(clazz);
+        return bytecode == null ? "" : DigestUtils.md5DigestAsHex(bytecode);
+    }
+
+    private static void collectTypeHierarchy(Class<?> clazz, Set<Class<?>> classes) {
+        if (clazz == null || Object.class.equals(clazz) || !classes.add(clazz)) {
+            return;
+        }
+        collectTypeHierarchy(clazz.getSuperclass(), classes);
+        Arrays.stream(clazz.getInterfaces()).forEach(type -> collectTypeHierarchy(type, classes));
+    }
+
+    private static byte[] getBytecode(Class<?> clazz) {
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null || clazz.isArray() || clazz.isPrimitive()) {
+            return null;
+        }
+        InputStream inputStream = classLoader.getResourceAsStream(ClassUtils.convertClassNameToResourcePath(clazz.getName()) + CLASS_FILE_SUFFIX);
+        if (inputStream == null) {
+            return null;
+        }
+        try (InputStream stream = inputStream) {
+            return StreamUtils.copyToByteArray(stream);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 方法的签名，用于在命中缓存时匹配方法
+     */
+    static String getMethodSignature(Method method) {
+        // 包含返回值类型，用于区分桥接方法
+        return method.getReturnType().getName() + " " + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    static String[] toClassNames(Class<?>[] classes) {
+        return Arrays.stream(classes).map(Class::getName).toArray(String[]::new);
+    }
+
+    static Class<?>[] toClasses(String[] classNames, ClassLoader classLoader) throws ClassNotFoundException {
+        Class<?>[] classes = new Class<?>[classNames.length];
+        for (int i = 0; i < classNames.length; i++) {
+            classes[i] = ClassUtils.forName(classNames[i], classLoader);
+        }
+        return classes;
+    }
+
+    /**
+     * 类解析结果中可以序列化的部分，类型均以类名保存
+     */
+    @Data
+    static class JavaClassMetaSnapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String key;
+
+        /**
+         * @see JavaClassMeta#getSuperTypeVariables()
+         */
+        private LinkedHashMap<String, String[]> superTypeVariables;
+
+        /**
+         * @key 方法签名 {@link #getMethodSignature(Method)}
+         */
+        private HashMap<String, JavaMethodSnapshot> methods;
+
+        /**
+         * @key 属性名称
+         * @value {@link JavaFieldMeta#getTypes()}
+         */
+        private HashMap<String, String[]> fieldTypes;
+
+        /**
+         * @see JavaClassMeta#getDependencyList()
+         */
+        private String[] dependencies;
+
+        static JavaClassMetaSnapshot of(String key, JavaClassMeta classMeta) {
+            JavaClassMetaSnapshot result = new JavaClassMetaSnapshot();
+            result.setKey(key);
+            LinkedHashMap<String, String[]> superTypeVariables = new LinkedHashMap<>();
+            classMeta.getSuperTypeVariables().forEach((type, variables) -> superTypeVariables.put(type.getName(), toClassNames(variables)));
+            result.setSuperTypeVariables(superTypeVariables);
+            HashMap<String, JavaMethodSnapshot> methods = new HashMap<>();
+            for (JavaMethodMeta methodMeta : classMeta.getMethodMetas()) {
+                methods.put(getMethodSignature(methodMeta.getMethod()), JavaMethodSnapshot.of(methodMeta));
+            }
+            result.setMethods(methods);
+            HashMap<String, String[]> fieldTypes = new HashMap<>();
+            for (JavaFieldMeta fieldMeta : classMeta.getFieldMetas()) {
+                fieldTypes.put(fieldMeta.getName(), toClassNames(fieldMeta.getTypes()));
+            }
+            result.setFieldTypes(fieldTypes);
+            result.setDependencies(toClassNames(classMeta.getDependencyList().toArray(new Class<?>[0])));
+            return result;
+        }
+    }
+
+    @Data
+    static class JavaMethodSnapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @see JavaMethodMeta#getReturnType()
+         */
+        private String[] returnType;
+
+        /**
+         * 参数名称列表，按照参数的顺序
+         */
+        private String[] parameterNames;
+
+        /**
+         * 参数类型，和 {@link #parameterNames} 一一对应
+         *
+         * @see JavaMethodMeta#getParams()
+         */
+        private String[][] parameterTypes;
+
+        static JavaMethodSnapshot of(JavaMethodMeta methodMeta) {
+            JavaMethodSnapshot result = new JavaMethodSnapshot();
+            result.setReturnType(toClassNames(methodMeta.getReturnType()));
+            result.setParameterNames(methodMeta.getParams().keySet().toArray(new String[0]));
+            result.setParameterTypes(methodMeta.getParams().values().stream()
+                    .map(JavaClassMetaPersistentCache::toClassNames)
+                    .toArray(String[][]::new));
+            return result;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.wuxp.codegen.core.parser;
 
 
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
 import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import com.wuxp.codegen.core.util.ReflectUtils;
 import com.wuxp.codegen.model.enums.ClassType;
 import com.wuxp.codegen.model.languages.java.JavaClassMeta;
@@ -9,11 +15,13 @@ import com.wuxp.codegen.model.languages.java.JavaFieldMeta;
 import com.wuxp.codegen.model.languages.java.JavaMethodMeta;
 import com.wuxp.codegen.model.JavaArrayClassTypeMark;
 import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.DefaultParameterNameDiscoverer;
 import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.ResolvableType;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 
@@ -23,6 +31,8 @@ import java.lang.reflect.*;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 
@@ -43,8 +53,30 @@ public final class JavaClassParser {
      */
     private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
 
+    /**
+     * 通过字节码获取参数名称的次数
+     */
+    private static final LongAdder PARAMETER_NAME_DISCOVER_COUNT = new LongAdder();
+
     private static final Map<Class<?>, JavaClassMeta> PARSER_CACHES = new ConcurrentHashMap<>();
 
+    /**
+     * 类的泛型解析结果，同一个类的方法参数共用
+     */
+    private static final Map<Class<?>, ClassGenericResolution> GENERIC_RESOLUTION_CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * 解析结果的磁盘缓存，按照缓存目录区分，通过 {@link CodegenConfig#getParserCacheDirectory()} 启用
+     */
+    private static final Map<String, JavaClassMetaPersistentCache> PERSISTENT_CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * 其他模块中依赖解析结果的缓存，和解析结果一起清除
+     *
+     * @see #registerCacheCleaner(Runnable)
+     */
+    private static final List<Runnable> CACHE_CLEANERS = new CopyOnWriteArrayList<>();
+
     /**
      * 是否只过滤public的方法
      */
@@ -62,36 +94,157 @@ public final class JavaClassParser {
      */
     public static String getParameterName(Parameter parameter) {
         Method method = (Method) parameter.getDeclaringExecutable();
-        int index = Arrays.asList(method.getParameters()).indexOf(parameter);
-        try {
-            return Objects.requireNonNull(PARAMETER_NAME_DISCOVERER.getParameterNames(method))[index];
-        } catch (Exception e) {
-            log.warn("获取方法{}的参数名称列表失败：{}", method, e.getMessage(), e);
+        MethodParameterDescriptor descriptor = getMethodParameterDescriptor(method);
+        int index = descriptor.indexOf(parameter);
+        String parameterName = descriptor.getName(index);
+        if (parameterName != null) {
+            return parameterName;
         }
+        log.warn("获取方法{}的第{}个参数名称失败", method, index);
         return parameter.getName();
     }
 
+    private static ClassGenericResolution getGenericResolution(Class<?> owner) {
+        return GENERIC_RESOLUTION_CACHES.computeIfAbsent(owner, ClassGenericResolution::new);
+    }
+
+    /**
+     * 当前配置中启用的磁盘缓存，用于在多次生成（例如多次执行 maven 插件）之间复用解析结果
+     *
+     * @return 没有启用时返回 null
+     */
+    static JavaClassMetaPersistentCache getPersistentCache() {
+        CodegenConfig config = CodegenConfigHolder.getConfig();
+        String cacheDirectory = config == null ? null : config.getParserCacheDirectory();
+        if (cacheDirectory == null) {
+            return null;
+        }
+        return PERSISTENT_CACHES.computeIfAbsent(cacheDirectory, JavaClassMetaPersistentCache::new);
+    }
+
+    /**
+     * 注册依赖解析结果的缓存（例如：对解析结果的预处理、注解元数据、sources.jar 索引等进程内共享的缓存），在 {@link #clearCaches()} 时一起清除
+     *
+     * @param cleaner 清除缓存
+     */
+    public static void registerCacheCleaner(Runnable cleaner) {
+        CACHE_CLEANERS.add(cleaner);
+    }
+
+    /**
+     * 清除内存中的解析结果（不包括磁盘缓存）以及通过 {@link #registerCacheCleaner(Runnable)} 注册的缓存，之后的解析会重新解析类，
+     * 例如：每次生成开始时清除上一次生成的结果，基准测试中测量首次解析的耗时
+     */
+    public static void clearCaches() {
+        PARSER_CACHES.clear();
+        GENERIC_RESOLUTION_CACHES.clear();
+        PERSISTENT_CACHES.clear();
+        CACHE_CLEANERS.forEach(Runnable::run);
+    }
+
     public JavaClassMeta parse(Class<?> source) {
         if (source == null) {
             return null;
         }
-        return PARSER_CACHES.computeIfAbsent(source, this::parseClass);
+        CodegenMetrics metrics = CodegenMetrics.current();
+        JavaClassMeta result = PARSER_CACHES.get(source);
+        if (result != null) {
+            metrics.increment(CodegenMetrics.Counter.PARSER_CACHE_HITS);
+            return result;
+        }
+        return PARSER_CACHES.computeIfAbsent(source, clazz -> {
+            CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.CLASS_PARSE);
+            long start = metrics.start();
+            JavaClassMeta classMeta = parseClassWithPersistentCache(clazz);
+            metrics.stop(CodegenMetrics.Stage.CLASS_PARSE, start, clazz.getName());
+            recording.className(clazz.getName()).record();
+            metrics.increment(CodegenMetrics.Counter.CLASSES_PARSED);
+            return classMeta;
+        });
+    }
+
+    private JavaClassMeta parseClassWithPersistentCache(Class<?> source) {
+        JavaClassMetaPersistentCache cache = getPersistentCache();
+        if (cache == null) {
+            return parseClass(source);
+        }
+        // 继承链上的字节码 hash 只计算一次，读取和保存共用
+        String key = cache.getCacheKey(source, onlyPublic);
+        if (key == null) {
+            return parseClass(source);
+        }
+        JavaClassMetaPersistentCache.JavaClassMetaSnapshot snapshot = cache.get(source, key, onlyPublic);
+        if (snapshot != null) {
+            try {
+                return parseClass(source, snapshot);
+            } catch (ClassNotFoundException | RuntimeException exception) {
+                log.warn("从缓存中恢复类{}的解析结果失败，重新解析，message = {}", source.getName(), exception.getMessage());
+            }
+        }
+        JavaClassMeta classMeta = parseClass(source);
+        cache.put(classMeta, key, onlyPublic);
+        return classMeta;
     }
 
     private JavaClassMeta parseClass(Class<?> source) {
+        JavaClassMeta classMeta = newJavaClassMeta(source)
+                .setSuperTypeVariables(getSuperTypeVariables(source))
+                .setMethodMetas(this.getMethodMetas(source, onlyPublic))
+                .setFieldMetas(this.getFieldMetas(source, onlyPublic));
+        classMeta.setDependencyList(fetchDependencies(source, classMeta.getFieldMetas(), classMeta.getMethodMetas()));
+        return bindDeclaringClassMeta(classMeta);
+    }
+
+    /**
+     * 使用缓存的解析结果构建 {@link JavaClassMeta}，跳过泛型解析和参数名称的读取
+     */
+    private JavaClassMeta parseClass(Class<?> source, JavaClassMetaPersistentCache.JavaClassMetaSnapshot snapshot) throws ClassNotFoundException {
+        ClassLoader classLoader = source.getClassLoader();
+        Map<Class<?>, Class<?>[]> superTypeVariables = new LinkedHashMap<>();
+        for (Map.Entry<String, String[]> entry : snapshot.getSuperTypeVariables().entrySet()) {
+            superTypeVariables.put(ClassUtils.forName(entry.getKey(), classLoader), JavaClassMetaPersistentCache.toClasses(entry.getValue(), classLoader));
+        }
+        List<JavaMethodMeta> methodMetas = new ArrayList<>();
+        for (Method method : getMethods(source, onlyPublic)) {
+            JavaClassMetaPersistentCache.JavaMethodSnapshot methodSnapshot = snapshot.getMethods().get(JavaClassMetaPersistentCache.getMethodSignature(method));
+            Assert.notNull(methodSnapshot, () -> MessageFormat.format("缓存中不存在方法：{0}", method));
+            Map<String, Class<?>[]> params = new LinkedHashMap<>();
+            String[] parameterNames = methodSnapshot.getParameterNames();
+            for (int i = 0; i < parameterNames.length; i++) {
+                params.put(parameterNames[i], JavaClassMetaPersistentCache.toClasses(methodSnapshot.getParameterTypes()[i], classLoader));
+            }
+            // 使用缓存中的参数名称，不再读取字节码获取参数名称
+            MethodParameterDescriptor descriptor = getGenericResolution(method.getDeclaringClass()).getMethodParameterDescriptor(method, parameterNames);
+            methodMetas.add(getJavaMethodMeta(method, descriptor, JavaClassMetaPersistentCache.toClasses(methodSnapshot.getReturnType(), classLoader), params, parameterNames));
+        }
+        List<JavaFieldMeta> fieldMetas = new ArrayList<>();
+        for (Field field : getFields(source, onlyPublic)) {
+            String[] types = snapshot.getFieldTypes().get(field.getName());
+            Assert.notNull(types, () -> MessageFormat.format("缓存中不存在属性：{0}", field));
+            fieldMetas.add(getJavaFieldMeta(field, JavaClassMetaPersistentCache.toClasses(types, classLoader)));
+        }
+        JavaClassMeta classMeta = newJavaClassMeta(source)
+                .setSuperTypeVariables(superTypeVariables)
+                .setMethodMetas(methodMetas.stream().distinct().toArray(JavaMethodMeta[]::new))
+                .setFieldMetas(fieldMetas.toArray(new JavaFieldMeta[0]))
+                .setDependencyList(new HashSet<>(Arrays.asList(JavaClassMetaPersistentCache.toClasses(snapshot.getDependencies(), classLoader))));
+        return bindDeclaringClassMeta(classMeta);
+    }
+
+    private JavaClassMeta newJavaClassMeta(Class<?> source) {
         JavaClassMeta classMeta = new JavaClassMeta(source.getModifiers());
         classMeta.setClassType(getClassType(source))
                 .setClassName(source.getName())
                 .setClazz(source)
-                .setSuperTypeVariables(getSuperTypeVariables(source))
-                .setMethodMetas(this.getMethodMetas(source, onlyPublic))
-                .setFieldMetas(this.getFieldMetas(source, onlyPublic))
                 .setInterfaces(source.getInterfaces())
-                .setDependencyList(fetchDependencies(source, classMeta.getFieldMetas(), classMeta.getMethodMetas()))
                 .setSuperClass(source.getSuperclass())
                 .setTypeVariables(source.getTypeParameters())
                 .setAnnotations(source.getAnnotations())
                 .setName(source.getSimpleName());
+        return classMeta;
+    }
+
+    private JavaClassMeta bindDeclaringClassMeta(JavaClassMeta classMeta) {
         Arrays.stream(classMeta.getMethodMetas()).forEach(methodMeta -> methodMeta.setDeclaringClassMeta(classMeta));
         Arrays.stream(classMeta.getFieldMetas()).forEach(fieldMeta -> fieldMeta.setDeclaringClassMeta(classMeta));
         return classMeta;
@@ -113,13 +266,18 @@ public final class JavaClassParser {
 
 
     public JavaMethodMeta getJavaMethodMeta(Method method) {
+        MethodParameterDescriptor descriptor = getMethodParameterDescriptor(method);
+        return getJavaMethodMeta(method, descriptor, getGenericsAndClassType(ResolvableType.forMethodReturnType(method)), getParamTypes(descriptor), descriptor.getNames());
+    }
+
+    private JavaMethodMeta getJavaMethodMeta(Method method, MethodParameterDescriptor descriptor, Class<?>[] returnType, Map<String, Class<?>[]> params, String[] parameterNames) {
         JavaMethodMeta methodMeta = new JavaMethodMeta(method.getModifiers());
         methodMeta.setMethod(method)
-                .setReturnType(getGenericsAndClassType(ResolvableType.forMethodReturnType(method)))
-                .setParams(getParamTypes(method))
-                .setParameters(getMethodParameters(method))
+                .setReturnType(returnType)
+                .setParams(params)
+                .setParameters(getMethodParameters(descriptor, parameterNames))
                 .setIsTransient(Modifier.isTransient(method.getModifiers()) || method.isAnnotationPresent(Transient.class))
-                .setParamAnnotations(getParameterAnnotations(method))
+                .setParamAnnotations(getParameterAnnotations(descriptor, parameterNames))
                 .setOwner(method.getDeclaringClass())
                 .setTypeVariables(method.getTypeParameters())
                 .setAnnotations(method.getAnnotations())
@@ -147,7 +305,7 @@ public final class JavaClassParser {
      * @param source 类对象
      * @return 类的超类泛型变量描述
      */
-    private Map<Class<?>, ClassGenericVariableDesc[]> getSuperTypeGenericTypeVariables(Class<?> source) {
+    private static Map<Class<?>, ClassGenericVariableDesc[]> getSuperTypeGenericTypeVariables(Class<?> source) {
         Map<Class<?>, ClassGenericVariableDesc[]> superTypeVariables = new LinkedHashMap<>();
         List<ResolvableType> superTypes = new ArrayList<>();
         superTypes.add(ResolvableType.forClass(source).getSuperType());
@@ -163,7 +321,7 @@ public final class JavaClassParser {
         return superTypeVariables;
     }
 
-    private boolean isValidResolvableType(ResolvableType superType) {
+    private static boolean isValidResolvableType(ResolvableType superType) {
         if (superType == null || ResolvableType.NONE == superType) {
             return false;
         }
@@ -171,7 +329,7 @@ public final class JavaClassParser {
         return !Object.class.equals(superType.getType());
     }
 
-    private ClassGenericVariableDesc[] getClassGenericVariableDescArray(ResolvableType superType) {
+    private static ClassGenericVariableDesc[] getClassGenericVariableDescArray(ResolvableType superType) {
         List<String> genericTypeNames = getTypeVariableNames(superType);
         // 泛型描述
         ResolvableType[] superTypeGenerics = superType.getGenerics();
@@ -181,7 +339,7 @@ public final class JavaClassParser {
                 .toArray(ClassGenericVariableDesc[]::new);
     }
 
-    private ClassGenericVariableDesc converterGenericTypeVariableDesc(String genericTypeName, ResolvableType genericType) {
+    private static ClassGenericVariableDesc converterGenericTypeVariableDesc(String genericTypeName, ResolvableType genericType) {
         ClassGenericVariableDesc genericVariableDesc = new ClassGenericVariableDesc();
         Class<?> rawClass = genericType.getRawClass();
         if (rawClass == null) {
@@ -199,7 +357,7 @@ public final class JavaClassParser {
         return genericVariableDesc;
     }
 
-    private List<String> getTypeVariableNames(ResolvableType type) {
+    private static List<String> getTypeVariableNames(ResolvableType type) {
         // 超类上的泛型变量名称
         Class<?> superTypeRawClass = type.getRawClass();
         if (superTypeRawClass == null) {
@@ -210,32 +368,29 @@ public final class JavaClassParser {
                 .collect(Collectors.toList());
     }
 
-    private Map<String, Class<?>[]> getParamTypes(Method method) {
+    private Map<String, Class<?>[]> getParamTypes(MethodParameterDescriptor descriptor) {
         // 方法参数列表
         Map<String, Class<?>[]> parameterTypes = new LinkedHashMap<>();
-        String[] parameterNames = getParameterNames(method);
-        // 参数列表
-        Parameter[] parameters = method.getParameters();
+        String[] parameterNames = descriptor.getNames();
         for (int i = 0; i < parameterNames.length; i++) {
             String parameterName = parameterNames[i];
-            Class<?>[] paramTypes = getParameterTypes(parameters[i]);
+            Class<?>[] paramTypes = getParameterTypes(descriptor, i);
             if (ObjectUtils.isEmpty(paramTypes)) {
-                paramTypes = new Class<?>[]{method.getParameterTypes()[0]};
+                paramTypes = new Class<?>[]{descriptor.getMethod().getParameterTypes()[0]};
             }
             parameterTypes.put(parameterName, paramTypes);
         }
         return parameterTypes;
     }
 
-    private Class<?>[] getParameterTypes(Parameter parameter) {
-        String typeName = parameter.getParameterizedType().getTypeName();
-        Method method = (Method) parameter.getDeclaringExecutable();
+    private Class<?>[] getParameterTypes(MethodParameterDescriptor descriptor, int index) {
+        String typeName = descriptor.getGenericTypes()[index].getTypeName();
+        Method method = descriptor.getMethod();
         Class<?> owner = method.getDeclaringClass();
-        List<String> ownerTypeParameterNames = getOwnerTypeParameterNames(owner);
-        Map<Class<?>, ClassGenericVariableDesc[]> superTypeVariables = this.getSuperTypeGenericTypeVariables(owner.getSuperclass());
-        if (ownerTypeParameterNames.contains(typeName)) {
+        ClassGenericResolution genericResolution = getGenericResolution(owner);
+        if (genericResolution.getTypeParameterNames().contains(typeName)) {
             // 使用了泛型变量做参数类型
-            ClassGenericVariableDesc[] variableDescList = superTypeVariables.get(owner);
+            ClassGenericVariableDesc[] variableDescList = genericResolution.getSuperTypeVariables().get(owner);
             if (variableDescList == null) {
                 return new Class<?>[0];
             }
@@ -247,22 +402,15 @@ public final class JavaClassParser {
                             owner.getName(), method.getName())));
             return new Class[]{parameterType};
         } else {
-            ResolvableType parameterResolvableType = ResolvableType.forMethodParameter(method, Arrays.asList(method.getParameters()).indexOf(parameter));
+            ResolvableType parameterResolvableType = ResolvableType.forMethodParameter(method, index);
             return this.getGenericsAndClassType(parameterResolvableType);
         }
     }
 
-    private List<String> getOwnerTypeParameterNames(Class<?> owner) {
-        TypeVariable<? extends Class<?>>[] ownerTypeParameters = owner.getTypeParameters();
-        return Arrays.stream(ownerTypeParameters)
-                .map(TypeVariable::getName)
-                .collect(Collectors.toList());
-    }
-
-    private Map<String, Parameter> getMethodParameters(Method method) {
-        String[] parameterNames = getParameterNames(method);
+    private Map<String, Parameter> getMethodParameters(MethodParameterDescriptor descriptor, String[] parameterNames) {
+        Method method = descriptor.getMethod();
         // 参数列表
-        Parameter[] parameters = method.getParameters();
+        Parameter[] parameters = descriptor.getParameters();
         if (parameters.length != parameterNames.length) {
             // 参数个数不匹配
             log.error("获取类 {} 的 {} 方法参数名称列表失败", method.getDeclaringClass().getName(), method.getName());
@@ -282,20 +430,28 @@ public final class JavaClassParser {
         return parameterMap;
     }
 
-    private Map<String, Annotation[]> getParameterAnnotations(Method method) {
+    private Map<String, Annotation[]> getParameterAnnotations(MethodParameterDescriptor descriptor, String[] parameterNames) {
         // 方法参数列表
         Map<String/*参数名称*/, Annotation[]> paramAnnotations = new LinkedHashMap<>();
-        // 参数列表
-        Parameter[] parameters = method.getParameters();
-        String[] parameterNames = getParameterNames(method);
+        // 参数上的注解
+        Annotation[][] annotations = descriptor.getAnnotations();
         for (int i = 0; i < parameterNames.length; i++) {
             // 获取参数上的注解
-            paramAnnotations.put(parameterNames[i], parameters[i].getAnnotations());
+            paramAnnotations.put(parameterNames[i], annotations[i]);
         }
         return paramAnnotations;
     }
 
-    private String[] getParameterNames(Method method) {
+    private static MethodParameterDescriptor getMethodParameterDescriptor(Method method) {
+        return getGenericResolution(method.getDeclaringClass()).getMethodParameterDescriptor(method);
+    }
+
+    static long getParameterNameDiscoverCount() {
+        return PARAMETER_NAME_DISCOVER_COUNT.sum();
+    }
+
+    private static String[] discoverParameterNames(Method method) {
+        PARAMETER_NAME_DISCOVER_COUNT.increment();
         try {
             // 参数名称列表
             String[] parameterNames = PARAMETER_NAME_DISCOVERER.getParameterNames(method);
@@ -309,6 +465,12 @@ public final class JavaClassParser {
     }
 
     private JavaFieldMeta[] getFieldMetas(Class<?> clazz, boolean onlyPublic) {
+        return getFields(clazz, onlyPublic).stream()
+                .map(field -> getJavaFieldMeta(field, getGenericsAndClassType(ResolvableType.forField(field))))
+                .toArray(JavaFieldMeta[]::new);
+    }
+
+    private List<Field> getFields(Class<?> clazz, boolean onlyPublic) {
         return Arrays.stream(getClassFields(clazz, onlyPublic))
                 .filter(field -> {
                     if (clazz.isEnum()) {
@@ -317,8 +479,7 @@ public final class JavaClassParser {
                     }
                     return true;
                 })
-                .map(this::getJavaFieldMeta)
-                .toArray(JavaFieldMeta[]::new);
+                .collect(Collectors.toList());
     }
 
     private Field[] getClassFields(Class<?> clazz, boolean onlyPublic) {
@@ -331,11 +492,11 @@ public final class JavaClassParser {
         }
     }
 
-    private JavaFieldMeta getJavaFieldMeta(Field field) {
+    private JavaFieldMeta getJavaFieldMeta(Field field, Class<?>[] types) {
         String fieldName = field.getName();
         JavaFieldMeta fieldMeta = new JavaFieldMeta(field.getModifiers());
         fieldMeta.setField(field).setIsEnumConstant(field.isEnumConstant());
-        fieldMeta.setTypes(getGenericsAndClassType(ResolvableType.forField(field)));
+        fieldMeta.setTypes(types);
         fieldMeta.setName(fieldName);
         fieldMeta.setAnnotations(field.getAnnotations());
         fieldMeta.setTypeVariables(getFiledTypes(field));
@@ -370,20 +531,23 @@ public final class JavaClassParser {
      * @return 方法列表
      */
     JavaMethodMeta[] getMethodMetas(Class<?> clazz, boolean onlyPublic) {
-        Method[] methods = ReflectUtils.getDeclaredMethodsInOrder(clazz);
-        if (onlyPublic) {
-            //只获取public的方法
-            methods = Arrays.stream(methods).filter(method -> Modifier.isPublic(method.getModifiers())).toArray(Method[]::new);
-        } else {
-            Arrays.asList(methods).forEach(ReflectionUtils::makeAccessible);
-        }
-        return Arrays.stream(methods)
+        return Arrays.stream(getMethods(clazz, onlyPublic))
                 .map(this::getJavaMethodMeta)
                 .distinct()
                 .toArray(JavaMethodMeta[]::new);
 
     }
 
+    private Method[] getMethods(Class<?> clazz, boolean onlyPublic) {
+        Method[] methods = ReflectUtils.getDeclaredMethodsInOrder(clazz);
+        if (onlyPublic) {
+            //只获取public的方法
+            return Arrays.stream(methods).filter(method -> Modifier.isPublic(method.getModifiers())).toArray(Method[]::new);
+        }
+        Arrays.asList(methods).forEach(ReflectionUtils::makeAccessible);
+        return methods;
+    }
+
     /**
      * 获取类类型及其泛型
      */
@@ -461,6 +625,62 @@ public final class JavaClassParser {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * 类的泛型解析结果
+     * <p>
+     * 解析方法参数时需要用到声明类的泛型变量名称、超类上的泛型变量以及方法参数描述，这些信息对同一个类的所有方法参数都是相同的，
+     * 只解析一次，避免每个参数都重新遍历一次类的继承层次
+     * </p>
+     */
+    private static final class ClassGenericResolution {
+
+        private final Class<?> owner;
+
+        /**
+         * 类上的泛型变量名称
+         */
+        @Getter
+        private final List<String> typeParameterNames;
+
+        /**
+         * 超类上的泛型变量描述，只在方法参数使用了泛型变量时才需要，延迟解析
+         */
+        private volatile Map<Class<?>, ClassGenericVariableDesc[]> superTypeVariables;
+
+        /**
+         * 方法的参数描述
+         */
+        private final Map<Method, MethodParameterDescriptor> methodParameterDescriptors = new ConcurrentHashMap<>();
+
+        ClassGenericResolution(Class<?> owner) {
+            this.owner = owner;
+            this.typeParameterNames = Arrays.stream(owner.getTypeParameters())
+                    .map(TypeVariable::getName)
+                    .collect(Collectors.toList());
+        }
+
+        Map<Class<?>, ClassGenericVariableDesc[]> getSuperTypeVariables() {
+            Map<Class<?>, ClassGenericVariableDesc[]> result = superTypeVariables;
+            if (result == null) {
+                // 重复解析的结果相同，不需要加锁
+                result = getSuperTypeGenericTypeVariables(owner.getSuperclass());
+                superTypeVariables = result;
+            }
+            return result;
+        }
+
+        MethodParameterDescriptor getMethodParameterDescriptor(Method method) {
+            return methodParameterDescriptors.computeIfAbsent(method, key -> new MethodParameterDescriptor(key, discoverParameterNames(key)));
+        }
+
+        /**
+         * @param parameterNames 已知的参数名称（例如：磁盘缓存中保存的参数名称），不需要再通过字节码获取
+         */
+        MethodParameterDescriptor getMethodParameterDescriptor(Method method, String[] parameterNames) {
+            return methodParameterDescriptors.computeIfAbsent(method, key -> new MethodParameterDescriptor(key, parameterNames));
+        }
+    }
+
     /**
      * 泛型描述
      */
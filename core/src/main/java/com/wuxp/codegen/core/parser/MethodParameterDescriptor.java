@@ -0,0 +1,78 @@
+package com.wuxp.codegen.core.parser;
+
+import lombok.Getter;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+
+/**
+ * 方法参数描述，按照参数的下标保存参数的名称、泛型类型以及注解
+ * <p>
+ * {@link Method#getParameters()}、{@link Method#getParameterAnnotations()} 每次调用都会复制数组，
+ * 同一个方法只获取一次，之后通过下标访问
+ * </p>
+ *
+ * @author wuxp
+ */
+@Getter
+final class MethodParameterDescriptor {
+
+    private final Method method;
+
+    /**
+     * 参数列表，{@link com.wuxp.codegen.model.languages.java.JavaMethodMeta#getParameters()} 中使用的是同一组对象
+     */
+    private final Parameter[] parameters;
+
+    /**
+     * 参数名称列表，获取失败时为空数组
+     */
+    private final String[] names;
+
+    /**
+     * 参数的泛型类型
+     */
+    private final Type[] genericTypes;
+
+    /**
+     * 参数上的注解
+     */
+    private final Annotation[][] annotations;
+
+    MethodParameterDescriptor(Method method, String[] names) {
+        this.method = method;
+        this.parameters = method.getParameters();
+        this.names = names;
+        this.genericTypes = method.getGenericParameterTypes();
+        this.annotations = method.getParameterAnnotations();
+    }
+
+    /**
+     * @param parameter 方法参数
+     * @return 参数的下标，不是该方法的参数时返回 -1
+     */
+    int indexOf(Parameter parameter) {
+        // 解析过程中传递的都是同一组参数对象，优先按照引用查找
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] == parameter) {
+                return i;
+            }
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].equals(parameter)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index 参数下标
+     * @return 参数名称，获取失败时返回 null
+     */
+    String getName(int index) {
+        return index >= 0 && index < names.length ? names[index] : null;
+    }
+}
@@ -1,12 +1,11 @@
 package com.wuxp.codegen.core.strategy;
 
+import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
 
-import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 
@@ -43,6 +42,12 @@ public abstract class AbstractPackageMapStrategy implements PackageNameConvertSt
      */
     protected Map<String, Object> classNameTransformers;
 
+    /**
+     * 编译后的包名映射，{@link #packageNameMap} 或 {@link #pathMatcher} 被替换后重新编译
+     */
+    @Setter(AccessLevel.NONE)
+    private volatile CompiledPackageNameMapping packageNameMapping;
+
 
     public AbstractPackageMapStrategy(Map<String, String> packageNameMap) {
         this(packageNameMap, null);
@@ -60,67 +65,13 @@ public abstract class AbstractPackageMapStrategy implements PackageNameConvertSt
 
     @Override
     public String convert(Class<?> clazz) {
-        //包名
-        Package aPackage = clazz.getPackage();
-        String packageNames = "";
-        String clazzName = clazz.getName();
-        if (aPackage == null) {
-            log.warn("包名为空的类{}", clazzName);
-        } else {
-            packageNames = aPackage.getName();
-        }
-        Optional<String> packageNamePrefix = this.packageNameMap.keySet()
-                .stream()
-                .map(pattern -> {
-                    if (!this.pathMatcher.isPattern(pattern)) {
-                        return pattern;
-                    }
-                    if (pattern.endsWith("**")) {
-                        return pattern;
-                    }
-                    return MessageFormat.format("{0}**", pattern);
-                }).filter(pattern -> {
-                    if (!this.pathMatcher.isPattern(pattern)) {
-                        return clazzName.startsWith(pattern);
-                    } else {
-                        return this.pathMatcher.match(pattern, clazzName);
-                    }
-
-                })
-                .findFirst();
+        Optional<String> mappedName = this.getPackageNameMapping().map(clazz);
         //没有找到可以替换的前缀
-        if (!packageNamePrefix.isPresent()) {
+        if (!mappedName.isPresent()) {
             // convertClassName
             return this.convertClassName(clazz);
         }
-
-        String key = packageNamePrefix.get();
-        String val = this.packageNameMap.get(key);
-        if (val == null) {
-            val = this.packageNameMap.get(key.substring(0, key.length() - 2));
-        }
-
-        String value;
-        if (this.pathMatcher.isPattern(key)) {
-            //TODO 支持 {0}a{2}模式
-            //转换为正则表达式
-            String[] strings = key.split("\\*\\*");
-            String s = clazzName.replaceAll(strings[0], "");
-            if (strings.length > 1) {
-                s = s.substring(0, s.indexOf(strings[1]));
-            } else {
-                log.warn("包名替换--> {}, {}", s, Arrays.toString(strings));
-            }
-            if (val.contains("{0}")) {
-                // 替换占位符
-                val = MessageFormat.format(val, s + ".");
-            }
-            value = clazzName.replace(packageNames, val);
-        } else {
-
-            value = clazzName.replace(key, val);
-        }
-        String[] strings = value.split("\\.");
+        String[] strings = mappedName.get().split("\\.");
         strings[strings.length - 1] = this.convertClassName(clazz);
         return String.join(".", strings);
     }
@@ -161,6 +112,15 @@ public abstract class AbstractPackageMapStrategy implements PackageNameConvertSt
         return simpleName;
     }
 
+    private CompiledPackageNameMapping getPackageNameMapping() {
+        CompiledPackageNameMapping result = this.packageNameMapping;
+        if (result == null || !result.isCompiledFrom(this.packageNameMap, this.pathMatcher)) {
+            result = new CompiledPackageNameMapping(this.packageNameMap, this.pathMatcher);
+            this.packageNameMapping = result;
+        }
+        return result;
+    }
+
     protected String controllerToService(String simpleName) {
         if (simpleName.endsWith("Controller")) {
             return simpleName.replaceAll("Controller", this.fileNamSuffix);
@@ -0,0 +1,159 @@
+package com.wuxp.codegen.core.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.PathMatcher;
+
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的包名映射规则
+ * <p>
+ * 包名映射配置在创建时编译一次（规范化 ant 表达式、查找映射的值、编译用于截取包名的正则表达式），
+ * 类的映射结果按照类缓存，每个类只需要匹配一次
+ * </p>
+ *
+ * @author wuxp
+ * @see AbstractPackageMapStrategy
+ */
+@Slf4j
+final class CompiledPackageNameMapping {
+
+    private static final String ANY_PATTERN = "**";
+
+    private static final String PLACEHOLDER = "{0}";
+
+    private final Map<String, String> packageNameMap;
+
+    private final PathMatcher pathMatcher;
+
+    private final List<Rule> rules;
+
+    /**
+     * @key 类
+     * @value 映射后的类全名（类名未转换），没有匹配的规则时为 empty
+     */
+    private final ConcurrentMap<Class<?>, Optional<String>> results = new ConcurrentHashMap<>(256);
+
+    CompiledPackageNameMapping(Map<String, String> packageNameMap, PathMatcher pathMatcher) {
+        this.packageNameMap = packageNameMap;
+        this.pathMatcher = pathMatcher;
+        List<Rule> compiledRules = new ArrayList<>(packageNameMap.size());
+        packageNameMap.keySet().forEach(key -> compiledRules.add(compile(key, packageNameMap, pathMatcher)));
+        this.rules = Collections.unmodifiableList(compiledRules);
+    }
+
+    /**
+     * @return 是否由该配置编译
+     */
+    boolean isCompiledFrom(Map<String, String> packageNameMap, PathMatcher pathMatcher) {
+        return this.packageNameMap == packageNameMap && this.pathMatcher == pathMatcher;
+    }
+
+    /**
+     * @param clazz 类
+     * @return 映射后的类全名（类名未转换），没有匹配的规则时返回 empty
+     */
+    Optional<String> map(Class<?> clazz) {
+        Optional<String> result = results.get(clazz);
+        if (result == null) {
+            result = results.computeIfAbsent(clazz, this::doMap);
+        }
+        return result;
+    }
+
+    private Optional<String> doMap(Class<?> clazz) {
+        String clazzName = clazz.getName();
+        if (clazz.getPackage() == null) {
+            log.warn("包名为空的类{}", clazzName);
+        }
+        for (Rule rule : rules) {
+            if (rule.matches(clazzName, pathMatcher)) {
+                return Optional.of(rule.apply(clazz));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Rule compile(String key, Map<String, String> packageNameMap, PathMatcher pathMatcher) {
+        if (!pathMatcher.isPattern(key)) {
+            return new Rule(key, false, packageNameMap.get(key));
+        }
+        String pattern = key.endsWith(ANY_PATTERN) ? key : MessageFormat.format("{0}**", key);
+        String value = packageNameMap.get(pattern);
+        if (value == null) {
+            value = packageNameMap.get(pattern.substring(0, pattern.length() - 2));
+        }
+        return new Rule(pattern, true, value);
+    }
+
+    private static final class Rule {
+
+        /**
+         * 规范化后的匹配表达式，ant 表达式以 ** 结尾
+         */
+        private final String pattern;
+
+        private final boolean antPattern;
+
+        /**
+         * 映射的值，可以包含 {0} 占位符
+         */
+        private final String value;
+
+        private final boolean hasPlaceholder;
+
+        /**
+         * 用于移除类名中 ** 前面的部分
+         */
+        private final Pattern prefixPattern;
+
+        /**
+         * ** 后面的部分
+         */
+        private final String suffix;
+
+        Rule(String pattern, boolean antPattern, String value) {
+            this.pattern = pattern;
+            this.antPattern = antPattern;
+            this.value = value;
+            this.hasPlaceholder = value != null && value.contains(PLACEHOLDER);
+            if (antPattern) {
+                String[] strings = pattern.split("\\*\\*");
+                this.prefixPattern = Pattern.compile(strings[0]);
+                this.suffix = strings.length > 1 ? strings[1] : null;
+            } else {
+                this.prefixPattern = null;
+                this.suffix = null;
+            }
+        }
+
+        boolean matches(String clazzName, PathMatcher pathMatcher) {
+            return antPattern ? pathMatcher.match(pattern, clazzName) : clazzName.startsWith(pattern);
+        }
+
+        String apply(Class<?> clazz) {
+            String clazzName = clazz.getName();
+            if (!antPattern) {
+                return clazzName.replace(pattern, value);
+            }
+            //TODO 支持 {0}a{2}模式
+            String s = prefixPattern.matcher(clazzName).replaceAll("");
+            if (suffix != null) {
+                s = s.substring(0, s.indexOf(suffix));
+            } else {
+                log.warn("包名替换--> {}, {}", s, pattern);
+            }
+            String val = value;
+            if (hasPlaceholder) {
+                // 替换占位符
+                val = MessageFormat.format(val, s + ".");
+            }
+            Package aPackage = clazz.getPackage();
+            return clazzName.replace(aPackage == null ? "" : aPackage.getName(), val);
+        }
+    }
+}
@@ -7,6 +7,12 @@ package com.wuxp.codegen.core.strategy;
  */
 public interface TemplateStrategy<T> {
 
+    /**
+     * 开始一次代码生成，用于重置上一次生成的状态
+     */
+    default void start() {
+        // 默认不做处理
+    }
 
     /**
      * 使用模板构建目标代码
@@ -16,4 +22,11 @@ public interface TemplateStrategy<T> {
      */
     void build(T data) throws Exception;
 
+    /**
+     * 所有的代码构建完成
+     */
+    default void completed() {
+        // 默认不做处理
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.wuxp.codegen.core.jfr;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class CodegenFlightRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        CodegenFlightRecorder.disable();
+    }
+
+    @Test
+    void testDisabled() {
+        CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.CLASS_PARSE);
+        Assertions.assertSame(recording, CodegenFlightRecorder.begin(CodegenEventType.FILE_WRITE));
+        recording.className("test").record();
+    }
+
+    @Test
+    void testRecordClassParse() throws Exception {
+        CodegenFlightRecorder.enable();
+        Assertions.assertTrue(CodegenFlightRecorder.isEnabled());
+        Path output = tempDir.resolve("codegen.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.wuxp.codegen.ClassParse").withThreshold(Duration.ZERO);
+            recording.start();
+            JavaClassParser.clearCaches();
+            new JavaClassParser(false).parse(CodegenFlightRecorderTest.class);
+            recording.stop();
+            recording.dump(output);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(output).stream()
+                .filter(event -> "com.wuxp.codegen.ClassParse".equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(CodegenFlightRecorderTest.class.getName(), events.get(0).getString("className"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.wuxp.codegen.core.metrics;
+
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import com.wuxp.codegen.core.util.JacksonUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+class CodegenMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        CodegenConfigHolder.clear();
+    }
+
+    @Test
+    void testRecordAndReport() throws Exception {
+        CodegenMetrics metrics = new CodegenMetrics("test");
+        for (int i = 0; i < 20; i++) {
+            long start = metrics.start() - i * 1_000_000L;
+            metrics.stop(CodegenMetrics.Stage.RENDER, start, "Class" + i);
+        }
+        metrics.increment(CodegenMetrics.Counter.FILES_WRITTEN);
+        metrics.completed();
+
+        Assertions.assertEquals(20, metrics.getStageCount(CodegenMetrics.Stage.RENDER));
+        Assertions.assertEquals(1, metrics.getCounter(CodegenMetrics.Counter.FILES_WRITTEN));
+        List<Map.Entry<String, Long>> slowest = metrics.getSlowest(CodegenMetrics.Stage.RENDER);
+        Assertions.assertEquals(10, slowest.size());
+        Assertions.assertEquals("Class19", slowest.get(0).getKey());
+
+        Path reportPath = tempDir.resolve("metrics").resolve("test-metrics.json");
+        metrics.report(reportPath.toString());
+        Map<?, ?> report = JacksonUtils.parse(new String(Files.readAllBytes(reportPath), StandardCharsets.UTF_8), Map.class);
+        Assertions.assertEquals("test", report.get("name"));
+        Assertions.assertEquals(1, ((Map<?, ?>) report.get("counters")).get("FILES_WRITTEN"));
+    }
+
+    @Test
+    void testAllocatedBytes() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        CodegenMetrics metrics = new CodegenMetrics("test");
+        long outer = metrics.start();
+        // 没有结束的阶段不影响外层阶段
+        metrics.start();
+        long inner = metrics.start();
+        byte[] bytes = new byte[4 * 1024 * 1024];
+        metrics.stop(CodegenMetrics.Stage.RENDER, inner);
+        metrics.stop(CodegenMetrics.Stage.WRITE, outer);
+
+        Assertions.assertEquals(4 * 1024 * 1024, bytes.length);
+        Assertions.assertTrue(metrics.getStageAllocatedBytes(CodegenMetrics.Stage.RENDER) >= bytes.length);
+        Assertions.assertTrue(metrics.getStageAllocatedBytes(CodegenMetrics.Stage.WRITE) >= metrics.getStageAllocatedBytes(CodegenMetrics.Stage.RENDER));
+        Assertions.assertEquals(0, metrics.getStageAllocatedBytes(CodegenMetrics.Stage.FORMAT));
+        Assertions.assertTrue(metrics.toReport().toString().contains("allocatedBytes"));
+    }
+
+    @Test
+    void testCurrent() {
+        Assertions.assertSame(CodegenMetrics.DISABLED, CodegenMetrics.current());
+        CodegenMetrics.DISABLED.increment(CodegenMetrics.Counter.CLASSES_PARSED);
+        Assertions.assertEquals(0, CodegenMetrics.DISABLED.getCounter(CodegenMetrics.Counter.CLASSES_PARSED));
+
+        CodegenMetrics metrics = new CodegenMetrics("test");
+        CodegenConfigHolder.setConfig(CodegenConfig.builder().metrics(metrics).build());
+        Assertions.assertSame(metrics, CodegenMetrics.current());
+        JavaClassParser.clearCaches();
+        JavaClassParser parser = new JavaClassParser(false);
+        parser.parse(CodegenMetricsTest.class);
+        parser.parse(CodegenMetricsTest.class);
+        Assertions.assertEquals(1, metrics.getCounter(CodegenMetrics.Counter.CLASSES_PARSED));
+        Assertions.assertEquals(1, metrics.getCounter(CodegenMetrics.Counter.PARSER_CACHE_HITS));
+    }
+}
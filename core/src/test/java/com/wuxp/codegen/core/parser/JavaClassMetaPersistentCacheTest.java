@@ -0,0 +1,117 @@
+package com.wuxp.codegen.core.parser;
+
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.model.languages.java.JavaClassMeta;
+import com.wuxp.codegen.model.languages.java.JavaFieldMeta;
+import com.wuxp.codegen.model.languages.java.JavaMethodMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+class JavaClassMetaPersistentCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        CodegenConfigHolder.clear();
+        JavaClassParser.clearCaches();
+    }
+
+    @Test
+    void testPutAndGet() {
+        JavaClassMetaPersistentCache cache = new JavaClassMetaPersistentCache(tempDir.toString());
+        String key = cache.getCacheKey(PersistentCacheExample.class, false);
+        Assertions.assertNotNull(key);
+        Assertions.assertNull(cache.get(PersistentCacheExample.class, key, false));
+
+        JavaClassMeta classMeta = new JavaClassParser(false).parse(PersistentCacheExample.class);
+        cache.put(classMeta, key, false);
+        JavaClassMetaPersistentCache.JavaClassMetaSnapshot snapshot = cache.get(PersistentCacheExample.class, key, false);
+        Assertions.assertNotNull(snapshot);
+        Assertions.assertEquals(classMeta.getMethodMetas().length, snapshot.getMethods().size());
+        Assertions.assertEquals(classMeta.getFieldMetas().length, snapshot.getFieldTypes().size());
+        Assertions.assertArrayEquals(new String[]{List.class.getName(), Long.class.getName()}, snapshot.getFieldTypes().get("ids"));
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+
+        // 只解析公共成员的结果单独缓存
+        Assertions.assertNull(cache.get(PersistentCacheExample.class, cache.getCacheKey(PersistentCacheExample.class, true), true));
+        // jdk 中的类不缓存
+        Assertions.assertNull(cache.getCacheKey(String.class, false));
+    }
+
+    @Test
+    void testRestore() {
+        CodegenConfigHolder.setConfig(CodegenConfig.builder().parserCacheDirectory(tempDir.toString()).build());
+        JavaClassParser.clearCaches();
+        JavaClassMeta expected = new JavaClassParser(false).parse(PersistentCacheExample.class);
+        Assertions.assertEquals(0, JavaClassParser.getPersistentCache().getHitCount());
+
+        // 清除内存中的解析结果，模拟新的进程从磁盘恢复
+        JavaClassParser.clearCaches();
+        long discoverCount = JavaClassParser.getParameterNameDiscoverCount();
+        JavaClassMeta actual = new JavaClassParser(false).parse(PersistentCacheExample.class);
+        Assertions.assertNotSame(expected, actual);
+        Assertions.assertEquals(1, JavaClassParser.getPersistentCache().getHitCount());
+        // 命中缓存时使用缓存中的参数名称，不再读取字节码
+        Assertions.assertEquals(discoverCount, JavaClassParser.getParameterNameDiscoverCount());
+
+        Assertions.assertEquals(toComparable(expected.getSuperTypeVariables()), toComparable(actual.getSuperTypeVariables()));
+        Assertions.assertEquals(expected.getDependencyList(), actual.getDependencyList());
+        Assertions.assertEquals(describeFields(expected), describeFields(actual));
+        Assertions.assertEquals(describeMethods(expected), describeMethods(actual));
+
+        // 未启用时不读取磁盘缓存
+        CodegenConfigHolder.clear();
+        Assertions.assertNull(JavaClassParser.getPersistentCache());
+    }
+
+    private static Map<Class<?>, List<Class<?>>> toComparable(Map<Class<?>, Class<?>[]> values) {
+        Map<Class<?>, List<Class<?>>> result = new LinkedHashMap<>();
+        values.forEach((key, value) -> result.put(key, Arrays.asList(value)));
+        return result;
+    }
+
+    private static Map<String, List<Class<?>>> describeFields(JavaClassMeta classMeta) {
+        Map<String, List<Class<?>>> result = new TreeMap<>();
+        for (JavaFieldMeta fieldMeta : classMeta.getFieldMetas()) {
+            result.put(fieldMeta.getName(), Arrays.asList(fieldMeta.getTypes()));
+        }
+        return result;
+    }
+
+    private static Map<String, String> describeMethods(JavaClassMeta classMeta) {
+        Map<String, String> result = new TreeMap<>();
+        for (JavaMethodMeta methodMeta : classMeta.getMethodMetas()) {
+            StringBuilder builder = new StringBuilder(Arrays.toString(methodMeta.getReturnType()));
+            methodMeta.getParams().forEach((name, types) -> builder.append(' ').append(name).append(Arrays.toString(types)));
+            result.put(JavaClassMetaPersistentCache.getMethodSignature(methodMeta.getMethod()), builder.toString());
+        }
+        return result;
+    }
+
+    static class PersistentCacheBase<T> {
+
+        private T data;
+
+        public T getData() {
+            return data;
+        }
+    }
+
+    static class PersistentCacheExample extends PersistentCacheBase<String> {
+
+        private List<Long> ids;
+
+        public Map<String, Integer> query(String name, List<Long> ids) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.wuxp.codegen.core.strategy;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class AbstractPackageMapStrategyTest {
+
+    @Test
+    void testConvert() {
+        Map<String, String> packageNameMap = new LinkedHashMap<>();
+        packageNameMap.put("com.wuxp.codegen.**.strategy", "{0}clients");
+        packageNameMap.put("com.wuxp.codegen.core", "sdk");
+        PackageNameConvertStrategy strategy = new SimplePackageMapStrategy(packageNameMap);
+
+        Assertions.assertEquals("core.clients.AbstractPackageMapStrategyTest", strategy.convert(AbstractPackageMapStrategyTest.class));
+        Assertions.assertEquals("sdk.ClientProviderType", strategy.convert(com.wuxp.codegen.core.ClientProviderType.class));
+        Assertions.assertEquals("String", strategy.convert(String.class));
+        // 重复转换命中缓存，结果不变
+        Assertions.assertEquals("core.clients.AbstractPackageMapStrategyTest", strategy.convert(AbstractPackageMapStrategyTest.class));
+    }
+
+    @Test
+    void testReplacePackageNameMap() {
+        SimplePackageMapStrategy strategy = new SimplePackageMapStrategy(Collections.singletonMap("com.wuxp.codegen.core", "sdk"));
+        Assertions.assertEquals("sdk.strategy.AbstractPackageMapStrategyTest", strategy.convert(AbstractPackageMapStrategyTest.class));
+        strategy.setPackageNameMap(Collections.singletonMap("com.wuxp.codegen.core", "api"));
+        Assertions.assertEquals("api.strategy.AbstractPackageMapStrategyTest", strategy.convert(AbstractPackageMapStrategyTest.class));
+    }
+
+    private static class SimplePackageMapStrategy extends AbstractPackageMapStrategy {
+
+        SimplePackageMapStrategy(Map<String, String> packageNameMap) {
+            super(packageNameMap);
+        }
+
+        @Override
+        public String genPackagePath(String[] uris) {
+            return String.join(".", uris);
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package test.com.wuxp.codegen.swagger2.core.parser;
 
+import com.wuxp.codegen.core.parser.JavaClassParser;
 import com.wuxp.codegen.model.languages.java.JavaClassMeta;
+import com.wuxp.codegen.model.languages.java.JavaMethodMeta;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
 import java.util.List;
 
 import static com.wuxp.codegen.core.parser.JavaClassParser.JAVA_CLASS_PARSER;
@@ -32,6 +36,21 @@ class JavaClassParserTest {
         Assertions.assertEquals(enumMeta.getSuperClass(), Enum.class);
     }
 
+    @Test
+    void testGetParameterName() throws Exception {
+        JavaClassMeta classMeta = JAVA_CLASS_PARSER.parse(TestJavaClassParserSimple.class);
+        JavaMethodMeta methodMeta = Arrays.stream(classMeta.getMethodMetas())
+                .filter(meta -> "func1".equals(meta.getName()))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+        Parameter parameter = methodMeta.getParameters().get("list");
+        Assertions.assertNotNull(parameter);
+        Assertions.assertEquals("list", JavaClassParser.getParameterName(parameter));
+        // 其他反射获取的参数对象
+        Parameter other = TestJavaClassParserSimple.class.getMethod("func1", List.class).getParameters()[0];
+        Assertions.assertEquals("list", JavaClassParser.getParameterName(other));
+    }
+
 
     @AllArgsConstructor
     @Getter
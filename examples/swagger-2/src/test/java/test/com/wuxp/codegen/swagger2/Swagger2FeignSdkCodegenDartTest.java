@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 @Slf4j
 class Swagger2FeignSdkCodegenDartTest {
@@ -54,5 +55,39 @@ class Swagger2FeignSdkCodegenDartTest {
         Swagger2AssertCodegenResultUtil.assertGenerate(language, clientProviderType);
     }
 
+    @Test
+    void testParallelRenderCodeGenDartApi() throws Exception {
+
+        //要进行生成的源代码包名列表
+        String[] packagePaths = {"com.wuxp.codegen.swagger2.**.controller"};
+
+        Map<Class<?>, List<String>> ignoreFields = new HashMap<>();
+        ignoreFields.put(BaseQueryEvt.class, Collections.singletonList("queryPage"));
+
+        RequestMappingMetaFactory.addAuthenticationTypePaths(AuthenticationType.NONE, new String[]{
+                "/example_cms/get_**"
+        });
+
+        LanguageDescription language = LanguageDescription.DART;
+        ClientProviderType clientProviderType = ClientProviderType.DART_FEIGN;
+
+        Swagger2FeignDartCodegenBuilder.builder()
+                //设置基础数据类型的映射关系
+                .baseTypeMapping(ServiceQueryResponse.class, DartClassMeta.FUTURE)
+                .baseTypeMapping(ServiceResponse.class, DartClassMeta.FUTURE)
+                //自定义的类型映射
+                .customJavaTypeMapping(ServiceQueryResponse.class, new Class<?>[]{ServiceResponse.class, PageInfo.class})
+                .outPath(Swagger2AssertCodegenResultUtil.getOutPath(language, clientProviderType))
+                .scanPackages(packagePaths)
+                .isDeletedOutputDirectory(true)
+                .ignoreFieldNames(ignoreFields)
+                // 并行渲染的结果需要和串行渲染一致
+                .renderExecutor(ForkJoinPool.commonPool())
+                .buildCodeGenerator()
+                .generate();
+
+        Swagger2AssertCodegenResultUtil.assertGenerate(language, clientProviderType);
+    }
+
 
 }
@@ -6,8 +6,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.wuxp.codegen.core.constant.Constants.DEFAULT_CODEGEN_DIR;
 
@@ -24,10 +27,42 @@ class Swagger2LoongSdkCodeGeneratorTest {
         FileUtils.deleteDirectory(new File(getBseOutPath()));
     }
 
-    private String getOutPath() {
+    @Test
+    void testParallelCodegen() throws Exception {
+        String sequentialOutPath = getOutPath("sequential");
+        LoongCodeGenerator sequentialCodeGenerator = new LoongCodeGenerator("com.wuxp.codegen.swagger2.**.controller");
+        sequentialCodeGenerator.setOutputPath(sequentialOutPath);
+        sequentialCodeGenerator.generate();
+
+        String parallelOutPath = getOutPath("parallel");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            LoongCodeGenerator parallelCodeGenerator = new LoongCodeGenerator("com.wuxp.codegen.swagger2.**.controller");
+            parallelCodeGenerator.setOutputPath(parallelOutPath);
+            parallelCodeGenerator.setGenerateExecutor(executor);
+            parallelCodeGenerator.generate();
+        } finally {
+            executor.shutdown();
+        }
+
+        // 并行生成的结果和顺序生成的结果一致
+        Path sequentialPath = Paths.get(sequentialOutPath);
+        Path parallelPath = Paths.get(parallelOutPath);
+        Collection<File> files = FileUtils.listFiles(sequentialPath.toFile(), null, true);
+        Assertions.assertFalse(files.isEmpty());
+        Assertions.assertEquals(files.size(), FileUtils.listFiles(parallelPath.toFile(), null, true).size());
+        for (File file : files) {
+            File parallelFile = parallelPath.resolve(sequentialPath.relativize(file.toPath())).toFile();
+            Assertions.assertTrue(FileUtils.contentEquals(file, parallelFile), parallelFile.getPath());
+        }
+        FileUtils.deleteDirectory(new File(getBseOutPath()));
+    }
+
+    private String getOutPath(String... paths) {
         String[] outPaths = {
                 getBseOutPath(),
-                "loong"
+                "loong",
+                String.join(File.separator, paths)
         };
         return Paths.get(String.join(File.separator, outPaths)).toString();
     }
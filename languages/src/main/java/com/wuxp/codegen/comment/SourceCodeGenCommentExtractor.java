@@ -1,24 +1,14 @@
 package com.wuxp.codegen.comment;
 
-import com.github.javaparser.ast.Node;
-import com.github.javaparser.ast.body.EnumConstantDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.comments.Comment;
-import com.github.javaparser.javadoc.Javadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
-import com.github.javaparser.javadoc.description.JavadocDescriptionElement;
 import com.wuxp.codegen.SourceCodeProvider;
+import com.wuxp.codegen.SourceJavadoc;
 import com.wuxp.codegen.core.CodeGenCommentExtractor;
 import com.wuxp.codegen.core.parser.JavaClassParser;
-import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * 通过source code javadoc增强代码生成的注释
@@ -27,6 +17,11 @@ import java.util.stream.Collectors;
  */
 public class SourceCodeGenCommentExtractor implements CodeGenCommentExtractor {
 
+    static {
+        // sources.jar 可能在两次生成之间发生变化（例如 SNAPSHOT 重新下载），随解析结果一起关闭
+        JavaClassParser.registerCacheCleaner(SourceCodeProvider::clearSourcesJarCaches);
+    }
+
     private final SourceCodeProvider sourceCodeProvider;
 
     public SourceCodeGenCommentExtractor() {
@@ -35,103 +30,35 @@ public class SourceCodeGenCommentExtractor implements CodeGenCommentExtractor {
 
     @Override
     public String toComment(Class<?> clazz) {
-        return sourceCodeProvider.getTypeDeclaration(clazz)
-                .flatMap(Node::getComment)
-                .map(this::getDesc)
+        return sourceCodeProvider.getJavadoc(clazz)
+                .map(SourceJavadoc::getDescription)
                 .orElse(null);
     }
 
     @Override
     public String toComment(Field field) {
-        Optional<Optional<Comment>> optionalComment;
-        if (field.isEnumConstant()) {
-            optionalComment = sourceCodeProvider.getEnumConstantDeclaration(field).map(EnumConstantDeclaration::getComment);
-        } else {
-            optionalComment = sourceCodeProvider.getFieldDeclaration(field).map(FieldDeclaration::getComment);
-        }
-        return optionalComment
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(comment -> {
-                    String result = getCommentByTag(comment, JavadocBlockTag.Type.SERIAL_FIELD);
+        return sourceCodeProvider.getJavadoc(field)
+                .map(javadoc -> {
+                    String result = javadoc.getBlockTag(JavadocBlockTag.Type.SERIAL_FIELD);
                     if (result != null) {
                         return result;
                     }
-                    return getDesc(comment);
+                    return javadoc.getDescription();
                 }).orElse(null);
     }
 
     @Override
     public String toComment(Parameter parameter) {
         String parameterName = JavaClassParser.getParameterName(parameter);
-        return sourceCodeProvider.getMethodDeclaration((Method) parameter.getDeclaringExecutable())
-                .flatMap(declaration -> declaration
-                        .getComment()
-                        .map(comment -> getCommentByTag(comment, JavadocBlockTag.Type.PARAM, parameterName)))
+        return sourceCodeProvider.getJavadoc((Method) parameter.getDeclaringExecutable())
+                .map(javadoc -> javadoc.getBlockTag(JavadocBlockTag.Type.PARAM, parameterName))
                 .orElse(null);
     }
 
     @Override
     public String toComment(Method method) {
-        return sourceCodeProvider.getMethodDeclaration(method)
-                .map(MethodDeclaration::getComment)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(comment -> String.join(MULTILINE_COMMENT_TAG, this.getDesc(comment), this.getCommentByTag(comment, JavadocBlockTag.Type.RETURN)))
+        return sourceCodeProvider.getJavadoc(method)
+                .map(javadoc -> String.join(MULTILINE_COMMENT_TAG, javadoc.getDescription(), javadoc.getBlockTag(JavadocBlockTag.Type.RETURN)))
                 .orElse(null);
     }
-
-    /**
-     * 获取描述注释
-     *
-     * @param comment 注释描述
-     * @return 注释内容
-     */
-    private String getDesc(Comment comment) {
-        if (comment.isJavadocComment()) {
-            Javadoc javadoc = comment.asJavadocComment().parse();
-            return javadoc.getDescription().getElements().stream()
-                    .map(JavadocDescriptionElement::toText).collect(Collectors.joining(""));
-        }
-        return comment.getContent();
-    }
-
-    /**
-     * 通过注解标签 名称获取注释
-     *
-     * @param comment 注释描述
-     * @param tag     标签类型
-     * @return 注释内容
-     */
-    private String getCommentByTag(Comment comment, JavadocBlockTag.Type tag) {
-        return getCommentByTag(comment, tag, null);
-    }
-
-    /**
-     * 通过注解标签 名称获取注释
-     *
-     * @param comment 注释描述
-     * @param tag     标签类型
-     * @param name    名称
-     * @return 注释内容
-     */
-    private String getCommentByTag(Comment comment, JavadocBlockTag.Type tag, String name) {
-        if (comment.isJavadocComment()) {
-            Javadoc javadoc = comment.asJavadocComment().parse();
-            List<JavadocBlockTag> blockTags = javadoc.getBlockTags();
-            return blockTags.stream()
-                    .filter(blockTag -> tag.equals(blockTag.getType()))
-                    .filter(blockTag -> {
-                        if (blockTag.getName().isPresent() && name != null) {
-                            return blockTag.getName().get().equals(name);
-                        }
-                        return true;
-                    })
-                    .filter(blockTag-> StringUtils.hasText(blockTag.getContent().toText()))
-                    .map(JavadocBlockTag::toText)
-                    .findFirst()
-                    .orElse("");
-        }
-        return "";
-    }
 }
@@ -25,6 +25,7 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,6 +38,17 @@ import static com.wuxp.codegen.core.parser.JavaClassParser.JAVA_CLASS_PARSER;
 public abstract class AbstractLanguageTypeDefinitionParser<C extends CommonCodeGenClassMeta> extends DelegateLanguagePublishParser
         implements LanguageTypeDefinitionParser<C> {
 
+    /**
+     * 预处理后的 java 类元数据，{@link JavaClassParser} 的解析结果在多个语言（生成器）之间共享，
+     * 预处理会修改解析结果（并且不是幂等的），因此每个类只预处理一次
+     */
+    private static final Map<Class<?>, JavaClassMeta> PRE_PROCESSED_CLASS_METAS = new ConcurrentHashMap<>(256);
+
+    static {
+        // 预处理的结果和解析结果一一对应，必须一起清除
+        JavaClassParser.registerCacheCleaner(PRE_PROCESSED_CLASS_METAS::clear);
+    }
+
     /**
      * java类的解析器 默认解析所有的属性 方法
      */
@@ -66,8 +78,7 @@ public abstract class AbstractLanguageTypeDefinitionParser<C extends CommonCodeG
         if (source == Enum.class) {
             return null;
         }
-        JavaClassMeta classMeta = javaParser.parse(source);
-        preProcess(classMeta);
+        JavaClassMeta classMeta = PRE_PROCESSED_CLASS_METAS.computeIfAbsent(source, this::parseAndPreProcess);
         C result = newCodeGenClassMetaAndPutCache(source);
         result.setName(this.packageNameConvertStrategy.convertClassName(source));
         result.setPackagePath(this.packageNameConvertStrategy.convert(source));
@@ -91,6 +102,12 @@ public abstract class AbstractLanguageTypeDefinitionParser<C extends CommonCodeG
         return result;
     }
 
+    private JavaClassMeta parseAndPreProcess(Class<?> source) {
+        JavaClassMeta classMeta = javaParser.parse(source);
+        preProcess(classMeta);
+        return classMeta;
+    }
+
     private void preProcess(JavaClassMeta classMeta) {
         // 增加对响应式编程的支持
         ReactorTypeSupport.handle(classMeta);
@@ -1,20 +1,44 @@
 package com.wuxp.codegen.languages;
 
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
 import com.wuxp.codegen.core.parser.LanguageTypeDefinitionParser;
 import com.wuxp.codegen.model.CommonCodeGenClassMeta;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * 带缓存的类型解析，支持在多个线程中并发解析
+ * <p>
+ * 1：每个类只解析一次，其他线程解析同一个类时等待解析完成
+ * 2：当前线程的解析路径中出现环形依赖时（例如自引用的 DTO），返回解析中的结果（占位）
+ * 3：多个线程之间相互等待形成环时（线程 A 解析 X 依赖 Y，线程 B 解析 Y 依赖 X），按照环形依赖处理，避免死锁
+ * </p>
+ *
  * @author wuxp
  */
-public class CacheLanguageTypeDefinitionParser<C extends CommonCodeGenClassMeta> extends DelegateLanguageTypeDefinitionParser<C>{
+public class CacheLanguageTypeDefinitionParser<C extends CommonCodeGenClassMeta> extends DelegateLanguageTypeDefinitionParser<C> {
 
     /**
-     * 处理结果缓存
+     * 处理结果缓存，解析开始时即放入（占位），用于处理环形依赖
      */
-    private final Map<Class<?>, C> resultCaches = new HashMap<>(256);
+    private final Map<Class<?>, C> resultCaches = new ConcurrentHashMap<>(256);
+
+    /**
+     * 解析任务，解析完成的结果为 null 时也会保留，避免重复解析
+     */
+    private final Map<Class<?>, ParseTask<C>> parseTasks = new ConcurrentHashMap<>(256);
+
+    /**
+     * 正在等待其他线程解析完成的线程
+     *
+     * @key 等待的线程
+     * @value 等待解析的类
+     */
+    private final Map<Thread, Class<?>> waitingThreads = new HashMap<>();
 
     private final ClassCircleDependsAnalyser classCircleDependsAnalyser;
 
@@ -25,11 +49,16 @@ public class CacheLanguageTypeDefinitionParser<C extends CommonCodeGenClassMeta>
 
     @Override
     public C parse(Class<?> source) {
-        if (classCircleDependsAnalyser.joinNode(source)) {
-            return getDelegate().parse(source);
+        if (classCircleDependsAnalyser.isCircle(source)) {
+            // 出现环形依赖
+            return getCodeGenClassMeta(source);
+        }
+        ParseTask<C> task = new ParseTask<>();
+        ParseTask<C> existTask = parseTasks.putIfAbsent(source, task);
+        if (existTask == null) {
+            return parseAndComplete(source, task);
         }
-        // 出现环形依赖
-        return getCodeGenClassMeta(source);
+        return awaitParseCompleted(source, existTask);
     }
 
     public C put(C meta) {
@@ -37,7 +66,83 @@ public class CacheLanguageTypeDefinitionParser<C extends CommonCodeGenClassMeta>
         return meta;
     }
 
+    private C parseAndComplete(Class<?> source, ParseTask<C> task) {
+        classCircleDependsAnalyser.joinNode(source);
+        try {
+            C result = getDelegate().parse(source);
+            task.future.complete(result);
+            return result;
+        } catch (RuntimeException exception) {
+            parseTasks.remove(source, task);
+            task.future.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            classCircleDependsAnalyser.removeLastNode(source);
+        }
+    }
+
+    private C awaitParseCompleted(Class<?> source, ParseTask<C> task) {
+        if (task.future.isDone()) {
+            return join(task);
+        }
+        Thread current = Thread.currentThread();
+        synchronized (waitingThreads) {
+            if (isWaitingCircle(source, current)) {
+                // 线程之间相互等待，按照环形依赖处理
+                return getCodeGenClassMeta(source);
+            }
+            waitingThreads.put(current, source);
+        }
+        try {
+            return join(task);
+        } finally {
+            synchronized (waitingThreads) {
+                waitingThreads.remove(current);
+            }
+        }
+    }
+
+    /**
+     * 沿着 "等待的类 -> 解析该类的线程 -> 该线程等待的类" 查找，判断当前线程等待后是否会形成环
+     */
+    private boolean isWaitingCircle(Class<?> source, Thread current) {
+        Class<?> waitingClass = source;
+        while (waitingClass != null) {
+            ParseTask<C> task = parseTasks.get(waitingClass);
+            if (task == null || task.future.isDone()) {
+                return false;
+            }
+            if (task.owner == current) {
+                return true;
+            }
+            waitingClass = waitingThreads.get(task.owner);
+        }
+        return false;
+    }
+
+    private C join(ParseTask<C> task) {
+        try {
+            return task.future.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CodegenRuntimeException(cause);
+        }
+    }
+
     private C getCodeGenClassMeta(Class<?> clazz) {
         return resultCaches.get(clazz);
     }
+
+    private static class ParseTask<C> {
+
+        /**
+         * 执行解析的线程
+         */
+        private final Thread owner = Thread.currentThread();
+
+        private final CompletableFuture<C> future = new CompletableFuture<>();
+    }
 }
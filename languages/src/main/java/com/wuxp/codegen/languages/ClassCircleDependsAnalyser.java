@@ -2,35 +2,76 @@ package com.wuxp.codegen.languages;
 
 import org.springframework.util.Assert;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
+ * 类的环形依赖分析
+ * <p>
+ * 每个线程维护自己的解析路径（深度优先遍历的栈），解析完成后需要调用 {@link #removeLastNode(Class)} 出栈
+ * </p>
+ *
  * @author wuxp
  */
 public class ClassCircleDependsAnalyser {
 
-    private final List<Class<?>> analysisPaths;
+    private final ThreadLocal<AnalysisPath> analysisPaths;
 
     public ClassCircleDependsAnalyser() {
-        this.analysisPaths = new ArrayList<>();
+        this.analysisPaths = ThreadLocal.withInitial(AnalysisPath::new);
     }
 
     public boolean joinNode(Class<?> clazz) {
-        if (isCircle(clazz)) {
+        AnalysisPath path = analysisPaths.get();
+        if (path.contains(clazz)) {
             return false;
         }
-        analysisPaths.add(clazz);
+        path.push(clazz);
         return true;
     }
 
     public void removeLastNode(Class<?> clazz) {
-        Class<?> removeNode = analysisPaths.remove(analysisPaths.size() - 1);
+        AnalysisPath path = analysisPaths.get();
+        Class<?> removeNode = path.pop();
         Assert.isTrue(removeNode == clazz, "移除 lastNode 失败：" + clazz.getName());
+        if (path.isEmpty()) {
+            analysisPaths.remove();
+        }
+    }
+
+    /**
+     * @param clazz 类
+     * @return 类是否在当前线程的解析路径中
+     */
+    public boolean isCircle(Class<?> clazz) {
+        return analysisPaths.get().contains(clazz);
     }
 
+    private static class AnalysisPath {
+
+        private final Deque<Class<?>> stack = new ArrayDeque<>();
+
+        private final Set<Class<?>> nodes = new HashSet<>();
+
+        boolean contains(Class<?> clazz) {
+            return nodes.contains(clazz);
+        }
+
+        void push(Class<?> clazz) {
+            stack.push(clazz);
+            nodes.add(clazz);
+        }
 
-    private boolean isCircle(Class<?> clazz) {
-        return analysisPaths.contains(clazz);
+        Class<?> pop() {
+            Class<?> clazz = stack.pop();
+            nodes.remove(clazz);
+            return clazz;
+        }
+
+        boolean isEmpty() {
+            return stack.isEmpty();
+        }
     }
 }
@@ -3,6 +3,10 @@ package com.wuxp.codegen.languages;
 import com.wuxp.codegen.annotations.DefaultLanguageAnnotationParser;
 import com.wuxp.codegen.core.CodeGenElementMatcher;
 import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import com.wuxp.codegen.core.parser.LanguageAnnotationParser;
 import com.wuxp.codegen.core.parser.LanguageElementDefinitionParser;
 import com.wuxp.codegen.core.parser.LanguageTypeDefinitionParser;
@@ -123,11 +127,16 @@ public class LanguageTypeDefinitionPublishParser<C extends CommonCodeGenClassMet
 
     @SuppressWarnings({"unchecked", "rawtypes"})
     private void postProcess(CommonBaseMeta meta) {
+        CodegenMetrics metrics = CodegenMetrics.current();
+        long start = metrics.start();
         for (LanguageDefinitionPostProcessor processor : postProcessors) {
             if (processor.supports(meta.getClass())) {
+                CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.POST_PROCESS);
                 processor.postProcess(meta);
+                recording.className(meta.getName()).detail(processor.getClass().getSimpleName()).record();
             }
         }
+        metrics.stop(CodegenMetrics.Stage.POST_PROCESS, start);
     }
 
     @SuppressWarnings("unchecked")
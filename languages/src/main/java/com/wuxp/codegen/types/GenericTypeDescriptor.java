@@ -0,0 +1,273 @@
+package com.wuxp.codegen.types;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.wuxp.codegen.model.CommonCodeGenClassMeta.ARRAY_TYPE_GENERIC_DESCRIPTION;
+
+/**
+ * 解析后的泛型描述，不可变的类型树
+ * <p>
+ * 例如：Map<K,PageInfo<T>> 解析为 Map -> [K, PageInfo -> [T]]，其中单个大写字母的类型参数为泛型变量；
+ * 同一个泛型描述只解析一次，合并泛型时按照顺序替换泛型变量，不再使用正则表达式
+ * </p>
+ *
+ * @author wuxp
+ */
+public final class GenericTypeDescriptor {
+
+    private static final char GENERIC_START = '<';
+
+    private static final char GENERIC_END = '>';
+
+    private static final char GENERIC_SEPARATOR = ',';
+
+    /**
+     * 数组类型的名称，参见 {@link com.wuxp.codegen.model.CommonCodeGenClassMeta#ARRAY_TYPE_GENERIC_DESCRIPTION}
+     */
+    private static final String ARRAY_TYPE_NAME = ARRAY_TYPE_GENERIC_DESCRIPTION.substring(0, ARRAY_TYPE_GENERIC_DESCRIPTION.indexOf(GENERIC_START));
+
+    private static final String DART_FULL_TYPE_FORMAT = "FullType(%s)";
+
+    /**
+     * 解析结果缓存
+     *
+     * @key 泛型描述
+     */
+    private static final Map<String, GenericTypeDescriptor> DESCRIPTORS = new ConcurrentHashMap<>(256);
+
+    static {
+        JavaClassParser.registerCacheCleaner(DESCRIPTORS::clear);
+    }
+
+    /**
+     * 类型名称，例如：Map
+     */
+    private final String name;
+
+    /**
+     * 类型参数
+     */
+    private final List<GenericTypeDescriptor> arguments;
+
+    /**
+     * 是否为泛型变量（单个大写字母）
+     */
+    private final boolean typeVariable;
+
+    /**
+     * 类型参数中（包括嵌套的类型参数）泛型变量的数量
+     */
+    private final int typeVariableCount;
+
+    /**
+     * 泛型描述
+     */
+    private volatile String description;
+
+    /**
+     * dart built_value FullType 表达式
+     */
+    private volatile String dartFullType;
+
+    private GenericTypeDescriptor(String name, List<GenericTypeDescriptor> arguments, String description) {
+        this.name = name;
+        this.arguments = arguments;
+        this.typeVariable = arguments.isEmpty() && isTypeVariableName(name);
+        int count = 0;
+        for (GenericTypeDescriptor argument : arguments) {
+            count += argument.typeVariable ? 1 : argument.typeVariableCount;
+        }
+        this.typeVariableCount = count;
+        this.description = description;
+    }
+
+    /**
+     * @param description 泛型描述，例如：Map<K,V>
+     * @return 解析后的泛型描述
+     */
+    public static GenericTypeDescriptor parse(String description) {
+        GenericTypeDescriptor result = DESCRIPTORS.get(description);
+        if (result == null) {
+            result = DESCRIPTORS.computeIfAbsent(description, GenericTypeDescriptor::doParse);
+        }
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<GenericTypeDescriptor> getArguments() {
+        return arguments;
+    }
+
+    /**
+     * @return 类型参数中（包括嵌套的类型参数）泛型变量的数量
+     */
+    public int getTypeVariableCount() {
+        return typeVariableCount;
+    }
+
+    /**
+     * @return 是否存在泛型变量
+     */
+    public boolean hasTypeVariables() {
+        return typeVariableCount > 0;
+    }
+
+    /**
+     * 按照顺序替换泛型变量
+     *
+     * @param values 泛型变量的值，数量和 {@link #getTypeVariableCount()} 相同
+     * @return 替换后的泛型描述
+     */
+    public GenericTypeDescriptor substitute(List<GenericTypeDescriptor> values) {
+        if (values.size() != typeVariableCount) {
+            throw new IllegalArgumentException("type variable size error, expect " + typeVariableCount + ", actual " + values.size());
+        }
+        return substitute(values, new int[]{0});
+    }
+
+    /**
+     * @return dart built_value FullType 表达式，例如：FullType(Map,[FullType(String),FullType(List,[FullType(User)])])
+     */
+    public String toDartFullType() {
+        String result = dartFullType;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder();
+            appendDartFullType(builder);
+            result = builder.toString();
+            dartFullType = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        String result = description;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder();
+            appendDescription(builder);
+            result = builder.toString();
+            description = result;
+        }
+        return result;
+    }
+
+    private GenericTypeDescriptor substitute(List<GenericTypeDescriptor> values, int[] index) {
+        if (typeVariable) {
+            return values.get(index[0]++);
+        }
+        if (typeVariableCount == 0) {
+            return this;
+        }
+        List<GenericTypeDescriptor> newArguments = new ArrayList<>(arguments.size());
+        for (GenericTypeDescriptor argument : arguments) {
+            newArguments.add(argument.substitute(values, index));
+        }
+        return new GenericTypeDescriptor(name, Collections.unmodifiableList(newArguments), null);
+    }
+
+    private void appendDescription(StringBuilder builder) {
+        if (arguments.isEmpty()) {
+            builder.append(name);
+            return;
+        }
+        if (ARRAY_TYPE_NAME.equals(name) && arguments.size() == 1) {
+            // 数组
+            arguments.get(0).appendDescription(builder);
+            builder.append(ARRAY_TYPE_NAME);
+            return;
+        }
+        builder.append(name).append(GENERIC_START);
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                builder.append(GENERIC_SEPARATOR);
+            }
+            arguments.get(i).appendDescription(builder);
+        }
+        builder.append(GENERIC_END);
+    }
+
+    private void appendDartFullType(StringBuilder builder) {
+        if (arguments.isEmpty()) {
+            builder.append(String.format(DART_FULL_TYPE_FORMAT, name));
+            return;
+        }
+        builder.append("FullType(").append(name).append(",[");
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                builder.append(GENERIC_SEPARATOR);
+            }
+            arguments.get(i).appendDartFullType(builder);
+        }
+        builder.append("])");
+    }
+
+    private static GenericTypeDescriptor doParse(String description) {
+        String text = description.trim();
+        int[] position = {0};
+        GenericTypeDescriptor result = parse(text, position);
+        if (result == null || position[0] != text.length()) {
+            // 无法解析的描述（例如：Map<K,V>[]）作为一个整体
+            return new GenericTypeDescriptor(text, Collections.emptyList(), text);
+        }
+        return new GenericTypeDescriptor(result.name, result.arguments, text);
+    }
+
+    /**
+     * 从 position 开始解析一个类型，解析完成后 position 指向类型之后的字符
+     *
+     * @return 格式错误时返回 null
+     */
+    private static GenericTypeDescriptor parse(String text, int[] position) {
+        int start = position[0];
+        int length = text.length();
+        int index = start;
+        while (index < length) {
+            char c = text.charAt(index);
+            if (c == GENERIC_START || c == GENERIC_END || c == GENERIC_SEPARATOR) {
+                break;
+            }
+            index++;
+        }
+        String name = text.substring(start, index).trim();
+        if (index >= length || text.charAt(index) != GENERIC_START) {
+            position[0] = index;
+            return new GenericTypeDescriptor(name, Collections.emptyList(), name);
+        }
+        // 类型参数
+        List<GenericTypeDescriptor> arguments = new ArrayList<>(2);
+        position[0] = index + 1;
+        while (true) {
+            GenericTypeDescriptor argument = parse(text, position);
+            if (argument == null || position[0] >= length) {
+                return null;
+            }
+            arguments.add(argument);
+            char c = text.charAt(position[0]++);
+            if (c == GENERIC_END) {
+                break;
+            }
+            if (c != GENERIC_SEPARATOR) {
+                return null;
+            }
+        }
+        // 跳过空白字符
+        while (position[0] < length && Character.isWhitespace(text.charAt(position[0]))) {
+            position[0]++;
+        }
+        return new GenericTypeDescriptor(name, Collections.unmodifiableList(arguments), text.substring(start, position[0]).trim());
+    }
+
+    private static boolean isTypeVariableName(String name) {
+        // 是单个的大写字母
+        return name.length() == 1 && name.charAt(0) >= 'A' && name.charAt(0) <= 'Z';
+    }
+}
@@ -1,25 +1,21 @@
 package com.wuxp.codegen.types;
 
-import com.wuxp.codegen.core.exception.CodegenRuntimeException;
 import com.wuxp.codegen.core.strategy.CombineTypeDescStrategy;
-import com.wuxp.codegen.helper.GrabGenericVariablesHelper;
 import com.wuxp.codegen.model.CommonCodeGenClassMeta;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Stack;
+import java.util.*;
 import java.util.stream.Collectors;
 
-import static com.wuxp.codegen.model.CommonCodeGenClassMeta.ARRAY_TYPE_GENERIC_DESCRIPTION;
-
 
 /**
  * 简单的类型合并描述
+ * <p>
+ * 泛型描述解析为 {@link GenericTypeDescriptor}（每个描述只解析一次），合并时遍历类型树替换泛型变量
+ * </p>
  *
  * @author wuxp
  */
@@ -87,22 +83,23 @@ public class SimpleCombineTypeDescStrategy implements CombineTypeDescStrategy {
         // ==> List<Map<String,PageInfo<T>>>,User
         // ==> List<Map<String,PageInfo<User>>>
 
-        Stack<String> typeVariableTempStack = new Stack<>();
-        typeVariableTempStack.addAll(names);
-        // 用来保存合并好的或没有泛型的变量名称
-        Stack<String> finallyTypeVariableNameStack = new Stack<>();
+        Deque<GenericTypeDescriptor> typeVariableTempStack = new ArrayDeque<>(names.size());
+        names.forEach(name -> typeVariableTempStack.push(GenericTypeDescriptor.parse(String.valueOf(name))));
+        // 用来保存合并好的或没有泛型的变量
+        Deque<GenericTypeDescriptor> finallyTypeVariableStack = new ArrayDeque<>(names.size());
 
         while (!typeVariableTempStack.isEmpty()) {
-            String typeVariableName = typeVariableTempStack.pop();
-            finallyTypeVariableNameStack.push(typeVariableName);
-            if (GrabGenericVariablesHelper.existGenericDescriptors(typeVariableName)) {
+            GenericTypeDescriptor typeVariable = typeVariableTempStack.pop();
+            if (typeVariable.hasTypeVariables()) {
                 // 存在泛型变量
-                String variableName = this.replaceGenericDescriptor(finallyTypeVariableNameStack);
+                GenericTypeDescriptor variable = this.replaceGenericDescriptor(typeVariable, finallyTypeVariableStack);
                 // 加入临时栈
-                typeVariableTempStack.push(variableName);
+                typeVariableTempStack.push(variable);
                 if (typeVariableTempStack.size() == 1) {
-                    return typeVariableTempStack.pop();
+                    return typeVariableTempStack.pop().toString();
                 }
+            } else {
+                finallyTypeVariableStack.push(typeVariable);
             }
         }
 
@@ -112,44 +109,21 @@ public class SimpleCombineTypeDescStrategy implements CombineTypeDescStrategy {
     /**
      * 替换泛型描述符
      *
-     * @param typeVariableNames 类型变量名称
+     * @param genericDescriptor 泛型描述
+     * @param typeVariables     类型变量
      * @return 泛型描述
      */
-    private String replaceGenericDescriptor(final Stack<String> typeVariableNames) {
-        String typeVariableName = typeVariableNames.pop();
-        List<String> descriptors = GrabGenericVariablesHelper.matchGenericDescriptors(typeVariableName);
-        if (descriptors.isEmpty()) {
-            // 没有有泛型描述变量
-            throw new CodegenRuntimeException("match generic descriptor failure");
-        }
-        if (typeVariableNames.size() < descriptors.size()) {
+    private GenericTypeDescriptor replaceGenericDescriptor(GenericTypeDescriptor genericDescriptor, Deque<GenericTypeDescriptor> typeVariables) {
+        int size = genericDescriptor.getTypeVariableCount();
+        if (typeVariables.size() < size) {
             // 类型变量的长度小于泛型描述符
             log.error("type variable name size error");
-            return "";
+            return GenericTypeDescriptor.parse("");
         }
-        List<String> names = new ArrayList<>();
-        descriptors.forEach(s -> names.add(typeVariableNames.pop()));
-
-        return this.replaceGenericDescCode(typeVariableName, descriptors, names);
-    }
-
-    /**
-     * 替换泛型描述代码
-     *
-     * @param genericDescription 泛型描述，例如： Map<K,V>
-     * @param descriptors        泛型变量列表，例如：[K,V]
-     * @param typeVariables      泛型变量的值，例如：[String,String]
-     * @return 完整的泛型描述，例如：Map<String,String>
-     */
-    private String replaceGenericDescCode(String genericDescription, List<String> descriptors, List<String> typeVariables) {
-
-        if (ARRAY_TYPE_GENERIC_DESCRIPTION.equals(genericDescription)) {
-            // 处理数组的泛型合并
-            return typeVariables.get(0) + "[]";
+        List<GenericTypeDescriptor> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(typeVariables.pop());
         }
-        // 精确匹配<T>
-        return genericDescription.replaceAll("<" + String.join(",", descriptors) + ">", "<" + String.join(",", typeVariables) + ">");
+        return genericDescriptor.substitute(values);
     }
-
-
 }
@@ -0,0 +1,93 @@
+package com.wuxp.codegen.languages;
+
+import com.wuxp.codegen.model.CommonCodeGenClassMeta;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CacheLanguageTypeDefinitionParserTest {
+
+    private final Map<Class<?>, AtomicInteger> parseCounts = new ConcurrentHashMap<>();
+
+    private CacheLanguageTypeDefinitionParser<CommonCodeGenClassMeta> cacheParser;
+
+    private final Map<Class<?>, Class<?>[]> dependencies = new HashMap<>();
+
+    CacheLanguageTypeDefinitionParserTest() {
+        dependencies.put(Node.class, new Class<?>[]{Node.class});
+        dependencies.put(Order.class, new Class<?>[]{User.class});
+        dependencies.put(User.class, new Class<?>[]{Order.class});
+        cacheParser = new CacheLanguageTypeDefinitionParser<>(this::parseInner);
+    }
+
+    private CommonCodeGenClassMeta parseInner(Class<?> source) {
+        parseCounts.computeIfAbsent(source, key -> new AtomicInteger()).incrementAndGet();
+        CommonCodeGenClassMeta result = new CommonCodeGenClassMeta();
+        result.setSource(source);
+        result.setName(source.getSimpleName());
+        cacheParser.put(result);
+        sleep();
+        Map<String, CommonCodeGenClassMeta> metas = new LinkedHashMap<>();
+        for (Class<?> dependency : dependencies.get(source)) {
+            metas.put(dependency.getSimpleName(), cacheParser.parse(dependency));
+        }
+        result.setDependencies(metas);
+        return result;
+    }
+
+    @Test
+    void testSelfReference() {
+        CommonCodeGenClassMeta node = cacheParser.parse(Node.class);
+        Assertions.assertSame(node, node.getDependencies().get("Node"));
+        Assertions.assertSame(node, cacheParser.parse(Node.class));
+        Assertions.assertEquals(1, parseCounts.get(Node.class).get());
+    }
+
+    @Test
+    void testConcurrentParse() {
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            ExecutorService executorService = Executors.newFixedThreadPool(8);
+            CountDownLatch latch = new CountDownLatch(1);
+            List<Future<CommonCodeGenClassMeta>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                Class<?> source = i % 2 == 0 ? Order.class : User.class;
+                futures.add(executorService.submit(() -> {
+                    latch.await();
+                    return cacheParser.parse(source);
+                }));
+            }
+            latch.countDown();
+            Set<CommonCodeGenClassMeta> results = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<CommonCodeGenClassMeta> future : futures) {
+                results.add(future.get());
+            }
+            executorService.shutdown();
+            Assertions.assertEquals(2, results.size());
+            Assertions.assertEquals(1, parseCounts.get(Order.class).get());
+            Assertions.assertEquals(1, parseCounts.get(User.class).get());
+            CommonCodeGenClassMeta order = cacheParser.parse(Order.class);
+            Assertions.assertSame(order, cacheParser.parse(User.class).getDependencies().get("Order"));
+        });
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class Node {
+    }
+
+    static class Order {
+    }
+
+    static class User {
+    }
+}
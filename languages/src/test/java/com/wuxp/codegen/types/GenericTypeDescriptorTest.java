@@ -0,0 +1,34 @@
+package com.wuxp.codegen.types;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+class GenericTypeDescriptorTest {
+
+    @Test
+    void testParse() {
+        GenericTypeDescriptor descriptor = GenericTypeDescriptor.parse("Map<K,PageInfo<T>>");
+        Assertions.assertEquals("Map", descriptor.getName());
+        Assertions.assertEquals(2, descriptor.getTypeVariableCount());
+        Assertions.assertEquals("Map<K,PageInfo<T>>", descriptor.toString());
+        Assertions.assertSame(descriptor, GenericTypeDescriptor.parse("Map<K,PageInfo<T>>"));
+        // 随解析结果一起清除
+        JavaClassParser.clearCaches();
+        Assertions.assertNotSame(descriptor, GenericTypeDescriptor.parse("Map<K,PageInfo<T>>"));
+        Assertions.assertFalse(GenericTypeDescriptor.parse("T").hasTypeVariables());
+        Assertions.assertFalse(GenericTypeDescriptor.parse("Map<K,V>[]").hasTypeVariables());
+    }
+
+    @Test
+    void testSubstitute() {
+        GenericTypeDescriptor descriptor = GenericTypeDescriptor.parse("Map<K,PageInfo<T>>")
+                .substitute(Arrays.asList(GenericTypeDescriptor.parse("String"), GenericTypeDescriptor.parse("List<User>")));
+        Assertions.assertEquals("Map<String,PageInfo<List<User>>>", descriptor.toString());
+        Assertions.assertEquals("FullType(Map,[FullType(String),FullType(PageInfo,[FullType(List,[FullType(User)])])])", descriptor.toDartFullType());
+        Assertions.assertEquals("User[]", GenericTypeDescriptor.parse("[]<T>")
+                .substitute(Arrays.asList(GenericTypeDescriptor.parse("User"))).toString());
+    }
+}
@@ -4,8 +4,12 @@ import com.wuxp.codegen.AbstractLoongCodegenBuilder;
 import com.wuxp.codegen.core.ClientProviderType;
 import com.wuxp.codegen.core.CodeGenerator;
 import com.wuxp.codegen.core.CodegenBuilder;
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.core.parser.JavaClassParser;
 import com.wuxp.codegen.core.util.PathResolveUtils;
 import com.wuxp.codegen.loong.CodegenSdkUploader;
+import com.wuxp.codegen.loong.CombinationCodeGenerator;
 import com.wuxp.codegen.model.LanguageDescription;
 import com.wuxp.codegen.model.languages.java.codegen.JavaCodeGenClassMeta;
 import com.wuxp.codegen.starter.enums.OpenApiType;
@@ -24,6 +28,7 @@ import  org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static com.wuxp.codegen.core.constant.Constants.DEFAULT_CODEGEN_DIR;
 
@@ -66,6 +71,11 @@ public final class LoongCodeGenerator implements CodeGenerator {
     @Setter
     private List<ClientProviderType> clientProviderTypes;
 
+    /**
+     * 用于并行生成多种语言（客户端）的 sdk，为 null 时按照顺序依次生成
+     */
+    @Setter
+    private Executor generateExecutor;
 
     public LoongCodeGenerator() {
         this(OpenApiTypeExplorer.getDefaultOpenApiType(), new String[0]);
@@ -95,19 +105,56 @@ public final class LoongCodeGenerator implements CodeGenerator {
             log.info("sdk codegen args: openApiType={},scanPackages={}", openApiType, scanPackages);
         }
 
+        // 在长期运行的进程中（例如：maven 插件、服务端）多次生成时，不保留上一次生成的解析结果
+        JavaClassParser.clearCaches();
         Collection<CodegenBuilder> codeGeneratorBuilders = getCodeGeneratorBuilders();
         if (log.isInfoEnabled()) {
             log.info("codeGeneratorBuilders：{}", codeGeneratorBuilders);
         }
-        codeGeneratorBuilders.stream().map(AbstractLoongCodegenBuilder.class::cast)
-                .forEach(codegenBuilder -> codegenBuilder
-                        .ignoreClasses(ignoreClasses.toArray(new Class[0]))
-                        .ignorePackages(ignorePackages.toArray(new String[0]))
-                        .buildCodeGenerator().generate());
+        if (generateExecutor == null) {
+            codeGeneratorBuilders.stream().map(AbstractLoongCodegenBuilder.class::cast)
+                    .forEach(codegenBuilder -> codegenBuilder
+                            .ignoreClasses(ignoreClasses.toArray(new Class[0]))
+                            .ignorePackages(ignorePackages.toArray(new String[0]))
+                            .buildCodeGenerator().generate());
+        } else {
+            new CombinationCodeGenerator(buildCodeGenerators(codeGeneratorBuilders), generateExecutor).generate();
+        }
         // 上传sdk生成结果到服务端
         new CodegenSdkUploader(this.getCodegenBaseOutputPath()).upload();
     }
 
+    /**
+     * 在当前线程中依次构建生成器，构建过程中会注册注解处理、扩展类型等全局的配置，因此不能并行
+     * <p>
+     * 每个生成器使用独立的 {@link CodegenConfig}，生成时在执行生成的线程中恢复
+     * </p>
+     */
+    private CodeGenerator[] buildCodeGenerators(Collection<CodegenBuilder> codeGeneratorBuilders) {
+        CodegenConfig template = CodegenConfigHolder.getConfig();
+        try {
+            return codeGeneratorBuilders.stream().map(AbstractLoongCodegenBuilder.class::cast)
+                    .map(codegenBuilder -> {
+                        if (template == null) {
+                            CodegenConfigHolder.clear();
+                        } else {
+                            CodegenConfigHolder.setConfig(template.toBuilder().build());
+                        }
+                        return codegenBuilder
+                                .ignoreClasses(ignoreClasses.toArray(new Class[0]))
+                                .ignorePackages(ignorePackages.toArray(new String[0]))
+                                .buildCodeGenerator();
+                    })
+                    .toArray(CodeGenerator[]::new);
+        } finally {
+            if (template == null) {
+                CodegenConfigHolder.clear();
+            } else {
+                CodegenConfigHolder.setConfig(template);
+            }
+        }
+    }
+
     public Collection<CodegenBuilder> getCodeGeneratorBuilders() {
 
         Collection<ClientProviderType> finallyClientProviderTypes = getFinallyClientProviderTypes();
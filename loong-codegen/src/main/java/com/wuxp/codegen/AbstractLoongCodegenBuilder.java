@@ -7,6 +7,7 @@ import com.wuxp.codegen.core.config.CodegenConfigHolder;
 import com.wuxp.codegen.core.event.CodeGenEventListener;
 import com.wuxp.codegen.core.event.CombineCodeGenEventListener;
 import com.wuxp.codegen.core.extensions.JsonSchemaCodegenTypeLoader;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
 import com.wuxp.codegen.core.macth.JavaClassElementMatcher;
 import com.wuxp.codegen.core.macth.JavaFieldMatcher;
 import com.wuxp.codegen.core.macth.JavaMethodMatcher;
@@ -14,6 +15,7 @@ import com.wuxp.codegen.core.macth.JavaParameterMatcher;
 import com.wuxp.codegen.core.parser.LanguageElementDefinitionParser;
 import com.wuxp.codegen.core.parser.LanguageTypeDefinitionParser;
 import com.wuxp.codegen.core.parser.enhance.LanguageDefinitionPostProcessor;
+import com.wuxp.codegen.core.strategy.FileNameGenerateStrategy;
 import com.wuxp.codegen.core.strategy.PackageNameConvertStrategy;
 import com.wuxp.codegen.core.strategy.TemplateStrategy;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
@@ -40,12 +42,16 @@ import org.springframework.core.OrderComparator;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.FileSystemUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static org.springframework.core.io.support.ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX;
 import static org.springframework.util.ResourceUtils.FILE_URL_PREFIX;
@@ -65,6 +71,25 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
 
     private static final String CODEGEN_TEMP_EXTENSIONS_DIR = String.join(File.separator, System.getProperty("user.dir"), "codegen", "extensions");
 
+    /**
+     * 增量生成清单文件的保存目录
+     */
+    private static final String INCREMENTAL_MANIFEST_DIR = String.join(File.separator, System.getProperty("user.dir"), "target", "codegen");
+
+    private static final String INCREMENTAL_MANIFEST_SUFFIX = ".loong-manifest";
+
+    /**
+     * java 类解析结果的磁盘缓存目录
+     */
+    private static final String PARSER_CACHE_DIR = String.join(File.separator, INCREMENTAL_MANIFEST_DIR, "parser-cache");
+
+    /**
+     * 生成统计报告的输出目录
+     */
+    private static final String METRICS_REPORT_DIR = String.join(File.separator, INCREMENTAL_MANIFEST_DIR, "metrics");
+
+    private static final String METRICS_REPORT_SUFFIX = "-metrics.json";
+
     static {
         AbstractAnnotationMetaFactory.registerAnnotationProvider(ClientProviderType.RETROFIT, new Retrofit2AnnotationProvider());
     }
@@ -199,6 +224,27 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
 
     protected List<CodeGenEventListener> codeGenEventListeners = new ArrayList<>();
 
+    /**
+     * 用于并行渲染模板的 Executor，默认为 null 使用串行渲染
+     * 例如：{@link java.util.concurrent.ForkJoinPool#commonPool()} 或 jdk 21 的 Executors.newVirtualThreadPerTaskExecutor()
+     */
+    protected Executor renderExecutor;
+
+    /**
+     * 是否启用增量生成，启用后只写入内容发生变化的文件并删除不再生成的文件，清单保存在 target/codegen 目录下
+     */
+    protected boolean incrementalGenerate = false;
+
+    /**
+     * 是否启用 java 类解析结果的磁盘缓存，缓存保存在 target/codegen/parser-cache 目录下，类的字节码没有变化时跳过重新解析
+     */
+    protected boolean persistentParserCache = false;
+
+    /**
+     * 是否发送 Java Flight Recorder 事件（类解析、模板渲染、写入文件、格式化等），用于通过 jfr 录制分析生成的耗时
+     */
+    protected boolean flightRecorder = false;
+
     protected AbstractLoongCodegenBuilder() {
     }
 
@@ -336,9 +382,29 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
         return this;
     }
 
+    public AbstractLoongCodegenBuilder renderExecutor(Executor renderExecutor) {
+        this.renderExecutor = renderExecutor;
+        return this;
+    }
+
+    public AbstractLoongCodegenBuilder incrementalGenerate(boolean incrementalGenerate) {
+        this.incrementalGenerate = incrementalGenerate;
+        return this;
+    }
+
+    public AbstractLoongCodegenBuilder persistentParserCache(boolean persistentParserCache) {
+        this.persistentParserCache = persistentParserCache;
+        return this;
+    }
+
+    public AbstractLoongCodegenBuilder flightRecorder(boolean flightRecorder) {
+        this.flightRecorder = flightRecorder;
+        return this;
+    }
+
     public FreemarkerTemplateLoader getTemplateLoader() {
-        // 实例化模板加载器
-        return new FreemarkerTemplateLoader(this.clientProviderType, this.templateFileVersion, this.getSharedVariables());
+        // 实例化模板加载器，模板在进程内共享，构建时预加载
+        return new FreemarkerTemplateLoader(this.clientProviderType, this.templateFileVersion, this.getSharedVariables()).warmUp();
     }
 
     protected void initCodegenConfig(LanguageDescription languageDescription, ClientProviderType clientProviderType) {
@@ -399,7 +465,34 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
                 this.getOutPath(),
                 this.getLanguageDescription().getSuffixName(),
                 this.getIsDeletedOutputDirectory(),
-                this.getCodeFormatter());
+                FileNameGenerateStrategy.DEFAULT,
+                this.getCodeFormatter(),
+                this.getIncrementalManifestPath());
+    }
+
+    /**
+     * @return 增量生成的清单文件路径，未启用增量生成时返回 null
+     */
+    protected String getIncrementalManifestPath() {
+        if (!incrementalGenerate) {
+            return null;
+        }
+        String name = MessageFormat.format("{0}-{1}{2}",
+                clientProviderType.name().toLowerCase(),
+                DigestUtils.md5DigestAsHex(outPath.getBytes(StandardCharsets.UTF_8)).substring(0, 8),
+                INCREMENTAL_MANIFEST_SUFFIX);
+        return String.join(File.separator, INCREMENTAL_MANIFEST_DIR, name);
+    }
+
+    /**
+     * @return 生成统计报告（各阶段耗时、计数）的 json 文件路径
+     */
+    protected String getMetricsReportPath() {
+        String name = MessageFormat.format("{0}-{1}{2}",
+                clientProviderType.name().toLowerCase(),
+                DigestUtils.md5DigestAsHex(String.valueOf(outPath).getBytes(StandardCharsets.UTF_8)).substring(0, 8),
+                METRICS_REPORT_SUFFIX);
+        return String.join(File.separator, METRICS_REPORT_DIR, name);
     }
 
     protected void configureElementParsers(List<LanguageElementDefinitionParser<? extends CommonBaseMeta, ? extends Object>> elementDefinitionParsers) {
@@ -426,6 +519,14 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
     protected abstract List<LanguageElementDefinitionParser<? extends CommonBaseMeta, ? extends Object>> getElementDefinitionParsers(LanguageTypeDefinitionPublishParser<? extends CommonCodeGenClassMeta> publishParser);
 
     protected LoongClassCodeGenerator createCodeGenerator() {
+        CodegenConfig codegenConfig = CodegenConfigHolder.getConfig();
+        if (persistentParserCache && codegenConfig != null) {
+            // 只在该生成器的配置中启用
+            codegenConfig.setParserCacheDirectory(PARSER_CACHE_DIR);
+        }
+        if (flightRecorder) {
+            CodegenFlightRecorder.enable();
+        }
         CombineCodeGenerateAsyncTaskFuture.getInstance().addFuture(new LanguageCodeFormatter());
         LanguageTypeDefinitionPublishParser<? extends CommonCodeGenClassMeta> typeDefinitionParser = getTypeDefinitionParser();
         LoongClassCodeGenerator codeGenerator = new LoongClassCodeGenerator(getScanPackages(), typeDefinitionParser, getTemplateStrategy(), getUnifiedResponseExplorer(typeDefinitionParser.getMappingTypeDefinitionParser()));
@@ -434,6 +535,8 @@ public abstract class AbstractLoongCodegenBuilder implements CodegenBuilder {
         codeGenerator.setIgnorePackages(ignorePackages);
         codeGenerator.setEnableFieldUnderlineStyle(enableFieldUnderlineStyle);
         codeGenerator.setCodeGenEventListener(new CombineCodeGenEventListener(codeGenEventListeners));
+        codeGenerator.setRenderExecutor(renderExecutor);
+        codeGenerator.setMetricsReportPath(getMetricsReportPath());
         return codeGenerator;
     }
 
@@ -1,13 +1,19 @@
 package com.wuxp.codegen.loong;
 
 import com.wuxp.codegen.core.ClassCodeGenerator;
+import com.wuxp.codegen.core.ClientProviderType;
 import com.wuxp.codegen.core.CodeGenerateAsyncTaskFuture;
 import com.wuxp.codegen.core.UnifiedResponseExplorer;
+import com.wuxp.codegen.core.config.CodegenConfig;
 import com.wuxp.codegen.core.config.CodegenConfigHolder;
 import com.wuxp.codegen.core.event.CodeGenEvent;
 import com.wuxp.codegen.core.event.CodeGenEventListener;
 import com.wuxp.codegen.core.event.CodeGenEventPublisher;
 import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import com.wuxp.codegen.core.parser.LanguageTypeDefinitionParser;
 import com.wuxp.codegen.core.strategy.TemplateStrategy;
 import com.wuxp.codegen.meta.util.JavaMethodNameUtils;
@@ -18,17 +24,18 @@ import com.wuxp.codegen.model.enums.ClassType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
-import org.springframework.core.type.filter.AnnotationTypeFilter;
-import org.springframework.stereotype.Controller;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
-import org.springframework.web.bind.annotation.ControllerAdvice;
-import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import static com.wuxp.codegen.core.event.CodeGenEventListener.EVENT_CODEGEN_META_TAG_NAME;
@@ -44,7 +51,7 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
     /**
      * spring 的包扫描组件
      */
-    private final ClassPathScanningCandidateComponentProvider classPathScanningCandidateComponentProvider;
+    private final CodegenComponentProvider classPathScanningCandidateComponentProvider;
 
     /**
      * 要进行生成的源代码包名列表，支持 ant path
@@ -65,6 +72,11 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
 
     private final CodeGenerateAsyncTaskFuture codeGenerateAsyncTaskFuture;
 
+    /**
+     * 创建时（构建阶段）线程中的配置，生成时使用，保证在其他线程中执行生成时配置一致
+     */
+    private final CodegenConfig codegenConfig;
+
     private CodeGenEvent.CodeGenEventStatus codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.SCAN_CODEGEN;
 
     protected AbstractLoongClassCodeGenerator(String[] scanPackages,
@@ -76,16 +88,13 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
         this.templateStrategy = templateStrategy;
         this.unifiedResponseExplorer = unifiedResponseExplorer;
         this.codeGenerateAsyncTaskFuture = CombineCodeGenerateAsyncTaskFuture.getInstance();
+        this.codegenConfig = CodegenConfigHolder.getConfig();
         this.classPathScanningCandidateComponentProvider = initComponentProvider();
 
     }
 
-    private ClassPathScanningCandidateComponentProvider initComponentProvider() {
-        ClassPathScanningCandidateComponentProvider result = new ClassPathScanningCandidateComponentProvider(false);
-        result.addIncludeFilter(new AnnotationTypeFilter(Controller.class));
-        result.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
-        result.addExcludeFilter(new AnnotationTypeFilter(ControllerAdvice.class));
-        result.addExcludeFilter(new AnnotationTypeFilter(RestControllerAdvice.class));
+    private CodegenComponentProvider initComponentProvider() {
+        CodegenComponentProvider result = new CodegenComponentProvider();
         configureComponentProvider(result);
         return result;
     }
@@ -101,15 +110,42 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
 
     protected abstract CodeGenEventListener getCodeGenEventListener();
 
+    /**
+     * 用于并行渲染模板的 Executor，例如：{@link java.util.concurrent.ForkJoinPool#commonPool()}
+     * 或 jdk 21 的 Executors.newVirtualThreadPerTaskExecutor()
+     *
+     * @return 返回 null 时使用串行渲染
+     */
+    protected abstract Executor getRenderExecutor();
+
+    /**
+     * @return 生成统计报告（json）的输出路径，返回 null 时只输出到日志
+     */
+    protected abstract String getMetricsReportPath();
+
     @Override
     public void generate() {
-        generate(this.scanPackages());
+        CodegenMetrics metrics = startMetrics();
+        long start = metrics.start();
+        Set<Class<?>> classes = this.scanPackages();
+        metrics.stop(CodegenMetrics.Stage.SCAN, start);
+        metrics.add(CodegenMetrics.Counter.CLASSES_SCANNED, classes.size());
+        generate(classes, metrics);
     }
 
     @Override
     public void generate(Collection<Class<?>> classes) {
+        generate(classes, startMetrics());
+    }
+
+    private void generate(Collection<Class<?>> classes, CodegenMetrics metrics) {
+        if (codegenConfig != null) {
+            CodegenConfigHolder.setConfig(codegenConfig);
+        }
         try {
             this.loopGenerate(classes).get();
+            metrics.completed();
+            metrics.report(getMetricsReportPath());
         } catch (InterruptedException exception) {
             log.error("线程被中断，message={}", exception.getMessage(), exception);
             Thread.currentThread().interrupt();
@@ -120,6 +156,19 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
         CodegenConfigHolder.clear();
     }
 
+    /**
+     * 创建本次生成的统计，通过配置传递到生成的各个阶段
+     */
+    private CodegenMetrics startMetrics() {
+        if (codegenConfig == null) {
+            return CodegenMetrics.DISABLED;
+        }
+        ClientProviderType providerType = codegenConfig.getProviderType();
+        CodegenMetrics result = new CodegenMetrics(providerType == null ? "codegen" : providerType.name().toLowerCase());
+        codegenConfig.setMetrics(result);
+        return result;
+    }
+
     @Override
     public void publishEvent(Object event) {
         CodeGenEventListener eventListener = getCodeGenEventListener();
@@ -142,9 +191,8 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
      */
     protected Set<Class<?>> scanPackages() {
         Set<Class<?>> result = Arrays.stream(scanPackages)
-                .map(classPathScanningCandidateComponentProvider::findCandidateComponents)
+                .map(this::findCandidateClassNames)
                 .flatMap(Collection::stream)
-                .map(BeanDefinition::getBeanClassName)
                 .map(this::loadClass)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
@@ -154,6 +202,20 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
         return result;
     }
 
+    private List<String> findCandidateClassNames(String basePackage) {
+        CodegenComponentProvider componentProvider = this.classPathScanningCandidateComponentProvider;
+        if (componentProvider.hasAdditionalIncludeFilters()) {
+            // 扫描的范围超出了索引，需要重新扫描
+            return componentProvider.findCandidateComponents(basePackage).stream()
+                    .map(BeanDefinition::getBeanClassName)
+                    .collect(Collectors.toList());
+        }
+        return ControllerClassScanIndex.getCandidates(ClassUtils.getDefaultClassLoader(), basePackage).stream()
+                .filter(candidate -> !componentProvider.isExcluded(candidate))
+                .map(candidate -> candidate.getClassMetadata().getClassName())
+                .collect(Collectors.toList());
+    }
+
     private Class<?> loadClass(String className) {
         try {
             return Thread.currentThread().getContextClassLoader().loadClass(className);
@@ -169,9 +231,29 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
      * @param classes 需要生成的类列表
      */
     private CompletableFuture<Void> loopGenerate(Collection<Class<?>> classes) {
+        this.templateStrategy.start();
         unifiedResponseExplorer.probe(classes);
         Set<CommonCodeGenClassMeta> genClassMetas = parseCodegenMetas(classes);
         genClassMetas.addAll(getIncludeClassMetas());
+        Executor renderExecutor = getRenderExecutor();
+        if (renderExecutor == null) {
+            sequentialGenerate(genClassMetas);
+        } else {
+            parallelGenerate(genClassMetas, renderExecutor);
+        }
+        // 广播生成完成事件
+        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.SCAN_CODEGEN_DONE;
+        publishEvent(new CodeGenEvent(new CommonCodeGenClassMeta(), codeGenEventStatus));
+        // 生成完成后尝试生成通过事件聚合 Metas
+        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.EVENT_CODEGEN;
+        Set<CommonCodeGenClassMeta> completedEventMetas = getCompletedEventMetas();
+        generateAndReturnMetas(completedEventMetas);
+        this.templateStrategy.completed();
+        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.COMPLETED;
+        return codeGenerateAsyncTaskFuture.future();
+    }
+
+    private void sequentialGenerate(Set<CommonCodeGenClassMeta> genClassMetas) {
         int generateCount = 0;
         while (true) {
             if (log.isInfoEnabled()) {
@@ -183,15 +265,84 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
             }
             generateCount++;
         }
-        // 广播生成完成事件
-        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.SCAN_CODEGEN_DONE;
-        publishEvent(new CodeGenEvent(new CommonCodeGenClassMeta(), codeGenEventStatus));
-        // 生成完成后尝试生成通过事件聚合 Metas
-        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.EVENT_CODEGEN;
-        Set<CommonCodeGenClassMeta> completedEventMetas = getCompletedEventMetas();
-        generateAndReturnMetas(completedEventMetas);
-        this.codeGenEventStatus = CodeGenEvent.CodeGenEventStatus.COMPLETED;
-        return codeGenerateAsyncTaskFuture.future();
+    }
+
+    /**
+     * 并行生成
+     * <p>
+     * 1：在当前线程中一次性解析出依赖图，并按照与串行生成相同的层级顺序对每个 meta 做生成前的处理（过滤字段、依赖等）
+     * 2：将模板渲染、写文件、格式化交给 renderExecutor 并行执行，渲染阶段只读取 meta
+     * 3：全部渲染完成后，在当前线程中按照层级顺序广播 {@link CodeGenEvent}，保证事件监听者的顺序语义与串行生成一致
+     * </p>
+     *
+     * @param genClassMetas  需要生成的类
+     * @param renderExecutor 用于渲染的 Executor
+     */
+    private void parallelGenerate(Set<CommonCodeGenClassMeta> genClassMetas, Executor renderExecutor) {
+        List<CommonCodeGenClassMeta> renderMetas = resolveRenderMetas(genClassMetas);
+        if (log.isInfoEnabled()) {
+            log.info("并行生成，共{}个类", renderMetas.size());
+        }
+        CodegenConfig codegenConfig = CodegenConfigHolder.getConfig();
+        CompletableFuture<?>[] futures = renderMetas.stream()
+                .map(meta -> CompletableFuture.runAsync(() -> buildTemplate(meta, codegenConfig), renderExecutor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof CodegenRuntimeException) {
+                throw (CodegenRuntimeException) cause;
+            }
+            throw new CodegenRuntimeException(cause);
+        }
+        renderMetas.forEach(meta -> publishEvent(new CodeGenEvent(meta, this.codeGenEventStatus)));
+    }
+
+    /**
+     * 按照层级（与串行生成的循环次数一致）遍历依赖图，每个 meta 只会被处理一次
+     *
+     * @param genClassMetas 需要生成的类
+     * @return 按照层级顺序排列的需要渲染的 meta
+     */
+    private List<CommonCodeGenClassMeta> resolveRenderMetas(Set<CommonCodeGenClassMeta> genClassMetas) {
+        Set<CommonCodeGenClassMeta> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CommonCodeGenClassMeta> result = new ArrayList<>();
+        int generateCount = 0;
+        while (!genClassMetas.isEmpty() && generateCount <= MAX_CODEGEN_LOOP_COUNT + 1) {
+            Set<CommonCodeGenClassMeta> dependencies = new HashSet<>();
+            genClassMetas.stream()
+                    .filter(Objects::nonNull)
+                    .filter(CommonCodeGenClassMeta::getNeedGenerate)
+                    .filter(this::canCodegen)
+                    .filter(visited::add)
+                    .forEach(meta -> {
+                        dependencies.addAll(prepareTemplate(meta));
+                        result.add(meta);
+                    });
+            genClassMetas = dependencies;
+            generateCount++;
+        }
+        return result;
+    }
+
+    private void buildTemplate(CommonCodeGenClassMeta meta, CodegenConfig codegenConfig) {
+        // keep config
+        CodegenConfig previousConfig = CodegenConfigHolder.getConfig();
+        CodegenConfigHolder.setConfig(codegenConfig);
+        try {
+            this.templateStrategy.build(meta);
+        } catch (CodegenRuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new CodegenRuntimeException(exception);
+        } finally {
+            if (previousConfig == null) {
+                CodegenConfigHolder.clear();
+            } else {
+                CodegenConfigHolder.setConfig(previousConfig);
+            }
+        }
     }
 
     private Set<CommonCodeGenClassMeta> getCompletedEventMetas() {
@@ -213,11 +364,7 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
     }
 
     private Collection<? extends CommonCodeGenClassMeta> renderTemplate(CommonCodeGenClassMeta meta) {
-        filedNameUnderlineStyle(meta);
-        filterDuplicateFields(meta);
-        Collection<? extends CommonCodeGenClassMeta> result = meta.getDependencies().values();
-        filterInvalidDependencies(meta);
-        filterNoneImportDependencies(meta);
+        Collection<? extends CommonCodeGenClassMeta> result = prepareTemplate(meta);
         try {
             this.templateStrategy.build(meta);
         } catch (Exception exception) {
@@ -227,6 +374,21 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
         return result;
     }
 
+    /**
+     * 渲染模板前的处理
+     *
+     * @param meta 用于生成代码的类描述对象
+     * @return 处理前的依赖列表
+     */
+    private Collection<? extends CommonCodeGenClassMeta> prepareTemplate(CommonCodeGenClassMeta meta) {
+        filedNameUnderlineStyle(meta);
+        filterDuplicateFields(meta);
+        Collection<? extends CommonCodeGenClassMeta> result = meta.getDependencies().values();
+        filterInvalidDependencies(meta);
+        filterNoneImportDependencies(meta);
+        return result;
+    }
+
     private void filterNoneImportDependencies(CommonCodeGenClassMeta meta) {
         Map<String, CommonCodeGenClassMeta> needImportDependencies = new LinkedHashMap<>();
         meta.getDependencies().forEach((key, val) -> {
@@ -336,8 +498,16 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
     }
 
     private Set<CommonCodeGenClassMeta> parseCodegenMetas(Collection<Class<?>> classes) {
+        CodegenMetrics metrics = CodegenMetrics.current();
         return classes.stream()
-                .map(this.languageTypeDefinitionParser::parse)
+                .map(clazz -> {
+                    CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.TYPE_PARSE);
+                    long start = metrics.start();
+                    CommonCodeGenClassMeta result = this.languageTypeDefinitionParser.parse(clazz);
+                    metrics.stop(CodegenMetrics.Stage.LANGUAGE_PARSE, start, clazz.getName());
+                    recording.className(clazz.getName()).record();
+                    return result;
+                })
                 .filter(Objects::nonNull)
                 .filter(this::canCodegen)
                 .collect(Collectors.toSet());
@@ -387,4 +557,50 @@ public abstract class AbstractLoongClassCodeGenerator implements ClassCodeGenera
     }
 
 
+
+    /**
+     * 记录通过 {@link #configureComponentProvider(ClassPathScanningCandidateComponentProvider)} 添加的过滤器，
+     * 只添加了排除规则时使用 {@link ControllerClassScanIndex} 中的扫描结果进行过滤
+     */
+    private static final class CodegenComponentProvider extends ClassPathScanningCandidateComponentProvider {
+
+        private final List<TypeFilter> additionalIncludeFilters = new ArrayList<>();
+
+        private final List<TypeFilter> additionalExcludeFilters = new ArrayList<>();
+
+        CodegenComponentProvider() {
+            super(false);
+            ControllerClassScanIndex.INCLUDE_FILTERS.forEach(super::addIncludeFilter);
+            ControllerClassScanIndex.EXCLUDE_FILTERS.forEach(super::addExcludeFilter);
+        }
+
+        @Override
+        public void addIncludeFilter(TypeFilter includeFilter) {
+            super.addIncludeFilter(includeFilter);
+            additionalIncludeFilters.add(includeFilter);
+        }
+
+        @Override
+        public void addExcludeFilter(TypeFilter excludeFilter) {
+            super.addExcludeFilter(excludeFilter);
+            additionalExcludeFilters.add(excludeFilter);
+        }
+
+        boolean hasAdditionalIncludeFilters() {
+            return !additionalIncludeFilters.isEmpty();
+        }
+
+        boolean isExcluded(MetadataReader metadataReader) {
+            try {
+                for (TypeFilter excludeFilter : additionalExcludeFilters) {
+                    if (excludeFilter.match(metadataReader, getMetadataReaderFactory())) {
+                        return true;
+                    }
+                }
+            } catch (IOException exception) {
+                throw new CodegenRuntimeException("匹配类：" + metadataReader.getClassMetadata().getClassName() + " 的排除规则失败", exception);
+            }
+            return false;
+        }
+    }
 }
@@ -2,12 +2,19 @@ package com.wuxp.codegen.loong;
 
 
 import com.wuxp.codegen.core.CodeGenerator;
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * 组合生成模式
+ * <p>
+ * 指定了 {@link Executor} 时，多个生成器并行生成，否则按照顺序依次生成
+ * </p>
  *
  * @author wuxp
  */
@@ -16,12 +23,34 @@ public class CombinationCodeGenerator implements CodeGenerator {
 
     private final CodeGenerator[] codeGenerators;
 
+    private final Executor executor;
+
     public CombinationCodeGenerator(CodeGenerator[] codeGenerators) {
+        this(codeGenerators, null);
+    }
+
+    public CombinationCodeGenerator(CodeGenerator[] codeGenerators, Executor executor) {
         this.codeGenerators = codeGenerators;
+        this.executor = executor;
     }
 
     @Override
     public void generate() {
-        Arrays.stream(codeGenerators).forEach(CodeGenerator::generate);
+        if (executor == null) {
+            Arrays.stream(codeGenerators).forEach(CodeGenerator::generate);
+            return;
+        }
+        CompletableFuture<?>[] futures = Arrays.stream(codeGenerators)
+                .map(codeGenerator -> CompletableFuture.runAsync(codeGenerator::generate, executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new CodegenRuntimeException(cause);
+        }
     }
 }
@@ -3,9 +3,9 @@ package com.wuxp.codegen.loong;
 import com.wuxp.codegen.core.CodeGenerateAsyncTaskFuture;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -17,7 +17,7 @@ public class CombineCodeGenerateAsyncTaskFuture implements CodeGenerateAsyncTask
     private final List<CodeGenerateAsyncTaskFuture> taskFutures;
 
     public CombineCodeGenerateAsyncTaskFuture() {
-        this.taskFutures = new ArrayList<>();
+        this.taskFutures = new CopyOnWriteArrayList<>();
     }
 
     public static CombineCodeGenerateAsyncTaskFuture getInstance() {
@@ -0,0 +1,128 @@
+package com.wuxp.codegen.loong;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.TypeFilter;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 控制器类的包扫描索引
+ * <p>
+ * 多个语言（生成器）扫描的包通常是相同的，同一个 {@link ClassLoader} 下每个包只扫描（通过 asm 读取 class 文件）一次，
+ * 扫描结果（类的元数据）在生成器之间共享，生成器再按照各自的排除规则进行过滤
+ * </p>
+ * <p>
+ * 索引不会随着 {@link ClassLoader} 的回收自动释放，需要通过 {@link JavaClassParser#clearCaches()} 和类的解析结果一起清除，
+ * 每次生成开始时重新扫描；索引使用软引用保存，内存不足时也会被释放
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+final class ControllerClassScanIndex {
+
+    static final List<TypeFilter> INCLUDE_FILTERS = Collections.unmodifiableList(Arrays.asList(
+            new AnnotationTypeFilter(Controller.class),
+            new AnnotationTypeFilter(RestController.class)
+    ));
+
+    static final List<TypeFilter> EXCLUDE_FILTERS = Collections.unmodifiableList(Arrays.asList(
+            new AnnotationTypeFilter(ControllerAdvice.class),
+            new AnnotationTypeFilter(RestControllerAdvice.class)
+    ));
+
+    /**
+     * 扫描到的控制器（资源）引用了 ClassLoader，使用 WeakHashMap 时 key 永远不会被回收
+     *
+     * @key ClassLoader
+     * @value 扫描的包 -> 扫描到的控制器
+     */
+    private static final Map<ClassLoader, Map<String, List<MetadataReader>>> INDEXES = new ConcurrentReferenceHashMap<>(4, ConcurrentReferenceHashMap.ReferenceType.SOFT);
+
+    static {
+        JavaClassParser.registerCacheCleaner(ControllerClassScanIndex::clear);
+    }
+
+    private ControllerClassScanIndex() {
+    }
+
+    /**
+     * @param classLoader 用于加载 class 文件的 ClassLoader
+     * @param basePackage 扫描的包，支持 ant 风格的表达式
+     * @return 包下所有的控制器
+     */
+    static List<MetadataReader> getCandidates(ClassLoader classLoader, String basePackage) {
+        Map<String, List<MetadataReader>> index = INDEXES.computeIfAbsent(classLoader, key -> new ConcurrentHashMap<>());
+        return index.computeIfAbsent(basePackage, key -> scan(classLoader, key));
+    }
+
+    /**
+     * 清除扫描索引，class 文件发生变化（例如重新编译）后需要清除
+     */
+    static void clear() {
+        INDEXES.clear();
+    }
+
+    private static List<MetadataReader> scan(ClassLoader classLoader, String basePackage) {
+        ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(false);
+        componentProvider.setResourceLoader(new PathMatchingResourcePatternResolver(classLoader));
+        INCLUDE_FILTERS.forEach(componentProvider::addIncludeFilter);
+        EXCLUDE_FILTERS.forEach(componentProvider::addExcludeFilter);
+        Set<BeanDefinition> candidates = componentProvider.findCandidateComponents(basePackage);
+        if (log.isDebugEnabled()) {
+            log.debug("扫描包{}，共扫描到{}个控制器", basePackage, candidates.size());
+        }
+        return Collections.unmodifiableList(candidates.stream()
+                .map(AnnotatedBeanDefinition.class::cast)
+                .map(IndexedMetadataReader::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 使用扫描时读取的元数据，过滤时不需要再次读取 class 文件
+     */
+    private static final class IndexedMetadataReader implements MetadataReader {
+
+        private final Resource resource;
+
+        private final AnnotationMetadata annotationMetadata;
+
+        IndexedMetadataReader(AnnotatedBeanDefinition beanDefinition) {
+            this.resource = beanDefinition instanceof AbstractBeanDefinition ? ((AbstractBeanDefinition) beanDefinition).getResource() : null;
+            this.annotationMetadata = beanDefinition.getMetadata();
+        }
+
+        @Override
+        public Resource getResource() {
+            return resource;
+        }
+
+        @Override
+        public ClassMetadata getClassMetadata() {
+            return annotationMetadata;
+        }
+
+        @Override
+        public AnnotationMetadata getAnnotationMetadata() {
+            return annotationMetadata;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.wuxp.codegen.loong;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一次代码生成过程中已经输出的文件登记表
+ * <p>
+ * 以规范化后的文件路径和文件内容的 hash 作为标识，用于打断递归和循环生成，判断过程不访问文件系统，支持在多个线程中并发使用
+ * 1：路径没有登记过，登记并返回 true（需要输出）
+ * 2：路径已经登记过且内容相同，返回 false（重复生成，跳过）
+ * 3：路径已经登记过但内容不同，以先登记的为准，返回 false（冲突，跳过）
+ * 生成前可以先通过 {@link #skipIfEmitted(String)} 判断，已经输出过的路径不需要再渲染模板和计算 hash
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public class EmittedFileRegistry {
+
+    /**
+     * @key 规范化后的文件路径
+     * @value 文件内容的 hash
+     */
+    private final Map<String, String> emittedFiles = new ConcurrentHashMap<>(256);
+
+    /**
+     * 重复生成（跳过）的次数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 首次生成（输出）的次数
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 同一路径内容不同的次数
+     */
+    private final LongAdder conflictCount = new LongAdder();
+
+    /**
+     * 登记要输出的文件
+     *
+     * @param filepath 文件路径
+     * @param content  文件内容
+     * @return <code>true</code> 首次登记，需要输出文件
+     */
+    public boolean register(String filepath, String content) {
+        return registerContentHash(filepath, hash(content));
+    }
+
+    /**
+     * 登记要输出的文件
+     *
+     * @param filepath 文件路径
+     * @param hash     文件内容的 hash {@link #hash(String)}
+     * @return <code>true</code> 首次登记，需要输出文件
+     */
+    public boolean registerContentHash(String filepath, String hash) {
+        String emittedHash = emittedFiles.putIfAbsent(normalize(filepath), hash);
+        if (emittedHash == null) {
+            missCount.increment();
+            return true;
+        }
+        hitCount.increment();
+        if (!emittedHash.equals(hash)) {
+            conflictCount.increment();
+            log.warn("文件{}在本次生成中已经由其他类输出，且内容不同，跳过生成", filepath);
+        }
+        return false;
+    }
+
+    /**
+     * @param filepath 文件路径
+     * @return 文件在本次生成过程中是否已经输出
+     */
+    public boolean isEmitted(String filepath) {
+        return emittedFiles.containsKey(normalize(filepath));
+    }
+
+    /**
+     * 在渲染模板之前判断文件是否已经输出，已经输出的记为一次重复生成
+     *
+     * @param filepath 文件路径
+     * @return <code>true</code> 已经输出过，跳过生成
+     */
+    public boolean skipIfEmitted(String filepath) {
+        if (isEmitted(filepath)) {
+            hitCount.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 清除登记的文件和计数，开始新的一次生成
+     */
+    public void clear() {
+        emittedFiles.clear();
+        hitCount.reset();
+        missCount.reset();
+        conflictCount.reset();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getConflictCount() {
+        return conflictCount.sum();
+    }
+
+    public int size() {
+        return emittedFiles.size();
+    }
+
+    /**
+     * @param content 文件内容
+     * @return 文件内容的 hash
+     */
+    public static String hash(String content) {
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String normalize(String filepath) {
+        return Paths.get(filepath).toAbsolutePath().normalize().toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.wuxp.codegen.loong;
+
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量生成的清单文件
+ * <p>
+ * 记录上一次生成时每个输出文件（相对输出目录的路径）渲染结果的 hash，用于：
+ * 1：渲染结果和上次相同且文件存在时，跳过写入文件和格式化
+ * 2：生成完成后，删除上次生成了但本次没有生成的文件
+ * </p>
+ * <p>
+ * 文件格式为每行一条记录：{hash} {relativePath}，按照路径排序
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public class IncrementalCodegenManifest {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String SEPARATOR = " ";
+
+    /**
+     * 清单文件路径
+     */
+    private final Path manifestPath;
+
+    /**
+     * 输出的根目录
+     */
+    private final Path outputPath;
+
+    /**
+     * 上一次生成的记录
+     */
+    private final Map<String, String> previousHashes;
+
+    /**
+     * 本次生成的记录
+     */
+    private final Map<String, String> currentHashes = new ConcurrentHashMap<>(256);
+
+    public IncrementalCodegenManifest(String manifestPath, String outputPath) {
+        this.manifestPath = Paths.get(manifestPath).toAbsolutePath().normalize();
+        this.outputPath = Paths.get(outputPath).toAbsolutePath().normalize();
+        this.previousHashes = Collections.unmodifiableMap(load(this.manifestPath));
+    }
+
+    /**
+     * 记录本次生成的文件，并判断文件是否和上次生成的一致
+     *
+     * @param filepath 文件路径
+     * @param hash     渲染结果的 hash
+     * @return <code>true</code> 渲染结果和上次相同且文件存在，不需要重新写入
+     */
+    public boolean recordAndCheckUnchanged(String filepath, String hash) {
+        String key = relativize(filepath);
+        currentHashes.put(key, hash);
+        return hash.equals(previousHashes.get(key)) && new File(filepath).exists();
+    }
+
+    /**
+     * 删除上次生成了但本次没有生成的文件，并保存本次的清单
+     */
+    public void completed() {
+        deleteStaleFiles();
+        save();
+    }
+
+    private void deleteStaleFiles() {
+        previousHashes.keySet().stream()
+                .filter(key -> !currentHashes.containsKey(key))
+                .map(outputPath::resolve)
+                .forEach(path -> {
+                    try {
+                        if (Files.deleteIfExists(path) && log.isInfoEnabled()) {
+                            log.info("删除已经不再生成的文件：{}", path);
+                        }
+                    } catch (IOException exception) {
+                        log.warn("删除文件失败：{}，message = {}", path, exception.getMessage());
+                    }
+                });
+    }
+
+    private void save() {
+        List<String> lines = new ArrayList<>(currentHashes.size() + 1);
+        lines.add(COMMENT_PREFIX + " loong codegen manifest, output = " + outputPath);
+        new TreeMap<>(currentHashes).forEach((key, hash) -> lines.add(hash + SEPARATOR + key));
+        try {
+            Files.createDirectories(manifestPath.getParent());
+            Files.write(manifestPath, lines, StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new CodegenRuntimeException(exception);
+        }
+    }
+
+    private String relativize(String filepath) {
+        Path path = Paths.get(filepath).toAbsolutePath().normalize();
+        return outputPath.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private static Map<String, String> load(Path manifestPath) {
+        Map<String, String> result = new HashMap<>(256);
+        if (!Files.exists(manifestPath)) {
+            return result;
+        }
+        try {
+            for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+                int index = line.indexOf(SEPARATOR);
+                if (line.startsWith(COMMENT_PREFIX) || index < 0) {
+                    continue;
+                }
+                result.put(line.substring(index + 1), line.substring(0, index));
+            }
+        } catch (IOException exception) {
+            log.warn("读取增量生成清单失败：{}，message = {}", manifestPath, exception.getMessage());
+        }
+        return result;
+    }
+}
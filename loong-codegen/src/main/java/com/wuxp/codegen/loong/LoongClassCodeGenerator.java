@@ -17,6 +17,7 @@ import org.springframework.util.StringUtils;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Setter
@@ -49,6 +50,16 @@ public class LoongClassCodeGenerator extends AbstractLoongClassCodeGenerator {
 
     private CodeGenEventListener codeGenEventListener;
 
+    /**
+     * 用于并行渲染模板的 Executor，为 null 时串行渲染
+     */
+    private Executor renderExecutor;
+
+    /**
+     * 生成统计报告（json）的输出路径，为 null 时只输出到日志
+     */
+    private String metricsReportPath;
+
     public LoongClassCodeGenerator(String[] scanPackages,
                                    LanguageTypeDefinitionParser<? extends CommonCodeGenClassMeta> languageTypeDefinitionParser,
                                    TemplateStrategy<CommonCodeGenClassMeta> templateStrategy,
@@ -62,6 +73,16 @@ public class LoongClassCodeGenerator extends AbstractLoongClassCodeGenerator {
         return codeGenEventListener;
     }
 
+    @Override
+    protected Executor getRenderExecutor() {
+        return renderExecutor;
+    }
+
+    @Override
+    protected String getMetricsReportPath() {
+        return metricsReportPath;
+    }
+
     @Override
     protected void configureComponentProvider(ClassPathScanningCandidateComponentProvider componentProvider) {
         if (ignorePackages != null) {
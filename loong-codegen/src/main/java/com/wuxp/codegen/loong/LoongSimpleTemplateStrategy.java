@@ -3,6 +3,10 @@ package com.wuxp.codegen.loong;
 import com.wuxp.codegen.core.CodeFormatter;
 import com.wuxp.codegen.core.constant.FeignApiSdkTemplateName;
 import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
+import com.wuxp.codegen.core.metrics.CodegenMetrics;
 import com.wuxp.codegen.core.strategy.FileNameGenerateStrategy;
 import com.wuxp.codegen.core.strategy.TemplateStrategy;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
@@ -11,19 +15,24 @@ import com.wuxp.codegen.format.LanguageCodeFormatter;
 import com.wuxp.codegen.model.CommonCodeGenClassMeta;
 import com.wuxp.codegen.model.CommonCodeGenMethodMeta;
 import com.wuxp.codegen.model.enums.ClassType;
+import com.wuxp.codegen.templates.FreemarkerTemplateLoader;
+import com.wuxp.codegen.templates.FreemarkerTemplateRegistry;
 import com.wuxp.codegen.templates.TemplateLoader;
 import freemarker.template.Template;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.StringBuilderWriter;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.Arrays;
 
 import static com.wuxp.codegen.core.event.CodeGenEventListener.TEMPLATE_PATH_TAG_NAME;
 
@@ -40,17 +49,14 @@ import static com.wuxp.codegen.core.event.CodeGenEventListener.TEMPLATE_PATH_TAG
 public class LoongSimpleTemplateStrategy implements TemplateStrategy<CommonCodeGenClassMeta> {
 
     /**
-     * 在LAST_MODIFIED_MINUTE分钟内生成的文件不在生成，为了打断递归和循环
-     *
-     * @see #ONE_MINUTE_MILLIS
+     * 渲染缓冲区的最大保留容量，超过时不再复用，避免个别大文件长期占用内存
      */
-    public static final float LAST_MODIFIED_MINUTE = 0.1f;
+    private static final int MAX_REUSABLE_RENDER_BUFFER_CAPACITY = 1024 * 1024;
 
     /**
-     * 1分钟的毫秒数据
+     * 模板渲染的缓冲区，支持在多个线程中并行渲染
      */
-    private static final int ONE_MINUTE_MILLIS = 60 * 1000;
-
+    private static final ThreadLocal<StringBuilderWriter> RENDER_BUFFERS = ThreadLocal.withInitial(() -> new StringBuilderWriter(8 * 1024));
 
     /**
      * 模板加载器
@@ -77,19 +83,44 @@ public class LoongSimpleTemplateStrategy implements TemplateStrategy<CommonCodeG
      */
     private final CodeFormatter codeFormatter;
 
+    /**
+     * 本次生成已经输出的文件，用于打断递归和循环
+     */
+    private final EmittedFileRegistry emittedFileRegistry = new EmittedFileRegistry();
+
+    /**
+     * 增量生成的清单，为 null 表示不启用增量生成
+     */
+    private final IncrementalCodegenManifest incrementalManifest;
+
     public LoongSimpleTemplateStrategy(TemplateLoader<Template> templateLoader,
                                        String outputPath,
                                        String extName,
                                        boolean isDeletedOutputDirectory,
                                        FileNameGenerateStrategy fileNameGenerateStrategy,
                                        CodeFormatter codeFormatter) {
+        this(templateLoader, outputPath, extName, isDeletedOutputDirectory, fileNameGenerateStrategy, codeFormatter, null);
+    }
+
+    /**
+     * @param incrementalManifestPath 增量生成的清单文件路径，不为 null 时启用增量生成：只写入渲染结果发生变化的文件，
+     *                                删除不再生成的文件，此时不会删除原本的输出目录
+     */
+    public LoongSimpleTemplateStrategy(TemplateLoader<Template> templateLoader,
+                                       String outputPath,
+                                       String extName,
+                                       boolean isDeletedOutputDirectory,
+                                       FileNameGenerateStrategy fileNameGenerateStrategy,
+                                       CodeFormatter codeFormatter,
+                                       String incrementalManifestPath) {
         this.templateLoader = templateLoader;
         // 计算路径中的相对路径
         this.outputPath = PathResolveUtils.relative(outputPath.endsWith(File.separator) ? outputPath : outputPath + File.separator, ".") + File.separator;
         this.extName = extName;
         this.fileNameGenerateStrategy = fileNameGenerateStrategy;
+        this.incrementalManifest = incrementalManifestPath == null ? null : new IncrementalCodegenManifest(incrementalManifestPath, this.outputPath);
 
-        if (isDeletedOutputDirectory) {
+        if (isDeletedOutputDirectory && incrementalManifest == null) {
             //删除原本的目录
             CodegenFileUtils.deleteDirectory(this.outputPath);
             if (log.isInfoEnabled()) {
@@ -109,6 +140,12 @@ public class LoongSimpleTemplateStrategy implements TemplateStrategy<CommonCodeG
         this(templateLoader, outputPath, extName, isDeletedOutputDirectory, FileNameGenerateStrategy.DEFAULT, codeFormatter);
     }
 
+    @Override
+    public void start() {
+        // 生成器（策略）可能被复用，每次生成重新登记
+        emittedFileRegistry.clear();
+    }
+
     @Override
     public void build(CommonCodeGenClassMeta data) throws Exception {
         // 根据是否为接口类型的元数据还是dto的类型的元数据加载不同的模板
@@ -122,21 +159,96 @@ public class LoongSimpleTemplateStrategy implements TemplateStrategy<CommonCodeG
             throw new CodegenRuntimeException("类：" + data.getName() + "，的生成输入路径有误： " + filepath);
         }
 
-        if (fileIsCodegen(filepath)) {
-            log.warn("文件{}在{}分钟内已经生成过，跳过生成", filepath, LAST_MODIFIED_MINUTE);
+        CodegenMetrics metrics = CodegenMetrics.current();
+        // 多轮生成时同一个类会被重复处理，已经输出的文件不再渲染
+        if (emittedFileRegistry.skipIfEmitted(filepath)) {
+            if (log.isDebugEnabled()) {
+                log.debug("文件{}在本次生成中已经生成过，跳过生成", filepath);
+            }
+            metrics.increment(CodegenMetrics.Counter.FILES_SKIPPED);
+            return;
+        }
+        CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.TEMPLATE_RENDER);
+        long start = metrics.start();
+        String content = render(template, data);
+        metrics.stop(CodegenMetrics.Stage.RENDER, start, data.getName());
+        recording.className(data.getName()).detail(templatePath).bytes(content.length()).record();
+        String contentHash = EmittedFileRegistry.hash(content);
+        if (!emittedFileRegistry.registerContentHash(filepath, contentHash)) {
+            if (log.isDebugEnabled()) {
+                log.debug("文件{}在本次生成中已经生成过，跳过生成", filepath);
+            }
+            metrics.increment(CodegenMetrics.Counter.FILES_SKIPPED);
+            return;
+        }
+        if (incrementalManifest != null && incrementalManifest.recordAndCheckUnchanged(filepath, contentHash)) {
+            if (log.isDebugEnabled()) {
+                log.debug("文件{}的内容没有发生变化，跳过写入和格式化", filepath);
+            }
+            metrics.increment(CodegenMetrics.Counter.FILES_SKIPPED);
             return;
         }
         CodegenFileUtils.createDirectoryRecursively(filepath.substring(0, filepath.lastIndexOf(File.separator)));
         if (log.isInfoEnabled()) {
             log.info("生成类 {} 的文件，输出到 {} 目录", data.getName(), filepath);
         }
-        //输出
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(filepath), StandardCharsets.UTF_8)) {
-            // 添加自定义方法
-            template.process(data, writer);
+        if (codeFormatter.isSupportFormatInMemory()) {
+            // 在内存中格式化后只写入一次
+            start = metrics.start();
+            content = codeFormatter.format(content, StandardCharsets.UTF_8);
+            metrics.stop(CodegenMetrics.Stage.FORMAT, start, data.getName());
+            write(filepath, content, data, metrics, true);
+        } else {
+            // 通过命令行格式化，需要先写入文件，格式化的耗时由格式化器记录
+            // 磁盘上的文件是格式化后的内容，不会与未格式化的内容相同，不需要读取比较
+            write(filepath, content, data, metrics, false);
+            codeFormatter.format(filepath);
+        }
+    }
+
+    private String render(Template template, CommonCodeGenClassMeta data) throws Exception {
+        StringBuilderWriter writer = RENDER_BUFFERS.get();
+        StringBuilder buffer = writer.getBuilder();
+        buffer.setLength(0);
+        try {
+            if (templateLoader instanceof FreemarkerTemplateLoader) {
+                // 使用共享的模板，生成器自己的共享变量由模板加载器提供
+                ((FreemarkerTemplateLoader) templateLoader).process(template, data, writer);
+            } else {
+                template.process(data, writer);
+            }
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_REUSABLE_RENDER_BUFFER_CAPACITY) {
+                RENDER_BUFFERS.remove();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * 写入文件
+     *
+     * @param skipUnchanged 是否比较已存在文件的内容，内容没有变化时跳过写入
+     */
+    private static void write(String filepath, String content, CommonCodeGenClassMeta data, CodegenMetrics metrics, boolean skipUnchanged) throws IOException {
+        CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.FILE_WRITE);
+        long start = metrics.start();
+        Path path = Paths.get(filepath);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (skipUnchanged && Files.isRegularFile(path) && Files.size(path) == bytes.length && Arrays.equals(Files.readAllBytes(path), bytes)) {
+            if (log.isDebugEnabled()) {
+                log.debug("文件{}的内容没有发生变化，跳过写入", filepath);
+            }
+            metrics.stop(CodegenMetrics.Stage.WRITE, start);
+            metrics.increment(CodegenMetrics.Counter.FILES_SKIPPED);
+            return;
         }
-        // 格式化代码
-        codeFormatter.format(filepath);
+        Files.write(path, bytes);
+        metrics.stop(CodegenMetrics.Stage.WRITE, start);
+        recording.className(data.getName()).detail(filepath).bytes(bytes.length).record();
+        metrics.increment(CodegenMetrics.Counter.FILES_WRITTEN);
     }
 
     private String getFileOutputPath(CommonCodeGenClassMeta data, String packagePath) {
@@ -148,13 +260,21 @@ public class LoongSimpleTemplateStrategy implements TemplateStrategy<CommonCodeG
         }
     }
 
-    private boolean fileIsCodegen(String output) {
-        File file = new File(output);
-        if (file.exists()) {
-            // 文件是否还有效
-            return System.currentTimeMillis() - file.lastModified() <= LAST_MODIFIED_MINUTE * ONE_MINUTE_MILLIS;
+    @Override
+    public void completed() {
+        if (incrementalManifest != null) {
+            incrementalManifest.completed();
+        }
+        if (log.isInfoEnabled()) {
+            log.info("输出目录 {} 共生成{}个文件，跳过重复生成{}次", outputPath, emittedFileRegistry.getMissCount(), emittedFileRegistry.getHitCount());
         }
-        return false;
+        if (log.isDebugEnabled()) {
+            log.debug("共享模板共解析{}次，命中{}次", FreemarkerTemplateRegistry.getCompileCount(), FreemarkerTemplateRegistry.getHitCount());
+        }
+    }
+
+    public EmittedFileRegistry getEmittedFileRegistry() {
+        return emittedFileRegistry;
     }
 
     protected String getTemplatePath(CommonCodeGenClassMeta data) {
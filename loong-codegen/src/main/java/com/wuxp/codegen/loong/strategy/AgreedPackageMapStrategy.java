@@ -1,16 +1,17 @@
 package com.wuxp.codegen.loong.strategy;
 
 import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.config.CodegenConfig;
 import com.wuxp.codegen.core.config.CodegenConfigHolder;
 import com.wuxp.codegen.core.strategy.PackageNameConvertStrategy;
 import com.wuxp.codegen.loong.path.PathResolve;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
+import com.wuxp.codegen.model.LanguageDescription;
+import lombok.EqualsAndHashCode;
 
 import java.text.MessageFormat;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 基于约定的包名映射策略
@@ -26,28 +27,34 @@ import java.util.Map;
  */
 public class AgreedPackageMapStrategy implements PackageNameConvertStrategy {
 
-    private static final List<String> IGNORE_NAMES = Arrays.asList(
+    private static final Set<String> IGNORE_NAMES = new HashSet<>(Arrays.asList(
             "controller",
             "services",
             "action",
             "enums",
             "dto",
             "model"
-    );
+    ));
 
-    private final Map<Class<?>, String> convertCache = new HashMap<>();
+    /**
+     * 转换结果依赖于当前线程的代码生成配置（语言、client provider type、基础包名），按照配置分别缓存
+     *
+     * @key 配置的缓存 key
+     * @value 类 -> 转换结果
+     */
+    private final Map<CacheKey, Map<Class<?>, String>> convertCaches = new ConcurrentHashMap<>(4);
 
-    private final Map<Class<?>, String> convertClassnameCache = new HashMap<>();
+    private final Map<CacheKey, Map<Class<?>, String>> convertClassnameCaches = new ConcurrentHashMap<>(4);
 
     @Override
     public String convert(Class<?> clazz) {
-        return convertCache.computeIfAbsent(clazz, key -> innerConvert(clazz));
+        return getCache(convertCaches).computeIfAbsent(clazz, this::innerConvert);
     }
 
 
     @Override
     public String convertClassName(Class<?> clazz) {
-        return convertClassnameCache.computeIfAbsent(clazz, key -> {
+        return getCache(convertClassnameCaches).computeIfAbsent(clazz, key -> {
             boolean isServerClass = CodegenConfigHolder.getConfig().isServerClass(clazz);
             String simpleName = clazz.getSimpleName();
             if (isServerClass) {
@@ -57,6 +64,17 @@ public class AgreedPackageMapStrategy implements PackageNameConvertStrategy {
         });
     }
 
+    private Map<Class<?>, String> getCache(Map<CacheKey, Map<Class<?>, String>> caches) {
+        CodegenConfig config = CodegenConfigHolder.getConfig();
+        CacheKey cacheKey = new CacheKey(config.getLanguageDescription(), config.getProviderType(), config.getBasePackages());
+        Map<Class<?>, String> result = caches.get(cacheKey);
+        if (result == null) {
+            // 放入缓存的 key 复制基础包名，避免配置中的列表被修改后影响缓存
+            result = caches.computeIfAbsent(cacheKey.copy(), key -> new ConcurrentHashMap<>(256));
+        }
+        return result;
+    }
+
     @Override
     public String genPackagePath(String[] uris) {
         boolean isJava = CodegenConfigHolder.getConfig().isJava();
@@ -153,4 +171,24 @@ public class AgreedPackageMapStrategy implements PackageNameConvertStrategy {
         }
 
     }
+
+    @EqualsAndHashCode
+    private static final class CacheKey {
+
+        private final LanguageDescription languageDescription;
+
+        private final ClientProviderType providerType;
+
+        private final List<String> basePackages;
+
+        CacheKey(LanguageDescription languageDescription, ClientProviderType providerType, List<String> basePackages) {
+            this.languageDescription = languageDescription;
+            this.providerType = providerType;
+            this.basePackages = basePackages;
+        }
+
+        CacheKey copy() {
+            return new CacheKey(languageDescription, providerType, new ArrayList<>(basePackages));
+        }
+    }
 }
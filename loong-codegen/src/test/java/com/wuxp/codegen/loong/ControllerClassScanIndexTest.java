@@ -0,0 +1,49 @@
+package com.wuxp.codegen.loong;
+
+import com.wuxp.codegen.core.parser.JavaClassParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+class ControllerClassScanIndexTest {
+
+    @Test
+    void testGetCandidates() {
+        String basePackage = ControllerClassScanIndexTest.class.getPackage().getName();
+        List<MetadataReader> candidates = ControllerClassScanIndex.getCandidates(ClassUtils.getDefaultClassLoader(), basePackage);
+        Set<String> classNames = candidates.stream()
+                .map(candidate -> candidate.getClassMetadata().getClassName())
+                .collect(Collectors.toSet());
+        Assertions.assertTrue(classNames.contains(UserController.class.getName()));
+        Assertions.assertTrue(classNames.contains(OrderController.class.getName()));
+        Assertions.assertFalse(classNames.contains(ExceptionAdvice.class.getName()));
+        // 同一个包只扫描一次
+        Assertions.assertSame(candidates, ControllerClassScanIndex.getCandidates(ClassUtils.getDefaultClassLoader(), basePackage));
+        // 和解析结果一起清除后重新扫描
+        JavaClassParser.clearCaches();
+        Assertions.assertNotSame(candidates, ControllerClassScanIndex.getCandidates(ClassUtils.getDefaultClassLoader(), basePackage));
+    }
+
+    @RestController
+    static class UserController {
+
+    }
+
+    @Controller
+    static class OrderController {
+
+    }
+
+    @RestControllerAdvice
+    static class ExceptionAdvice {
+
+    }
+}
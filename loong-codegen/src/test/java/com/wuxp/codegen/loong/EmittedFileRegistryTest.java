@@ -0,0 +1,63 @@
+package com.wuxp.codegen.loong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class EmittedFileRegistryTest {
+
+    @Test
+    void testRegister() {
+        EmittedFileRegistry registry = new EmittedFileRegistry();
+        String filepath = String.join(File.separator, "codegen", "api", "services", "UserService.ts");
+        Assertions.assertTrue(registry.register(filepath, "export default {}"));
+        Assertions.assertFalse(registry.register(String.join(File.separator, "codegen", "api", "..", "api", "services", "UserService.ts"), "export default {}"));
+        Assertions.assertFalse(registry.register(filepath, "export default {a:1}"));
+        Assertions.assertTrue(registry.isEmitted(filepath));
+        Assertions.assertEquals(1, registry.getMissCount());
+        Assertions.assertEquals(2, registry.getHitCount());
+        Assertions.assertEquals(1, registry.getConflictCount());
+    }
+
+    @Test
+    void testSkipIfEmitted() {
+        EmittedFileRegistry registry = new EmittedFileRegistry();
+        String filepath = String.join(File.separator, "codegen", "api", "services", "UserService.ts");
+        Assertions.assertFalse(registry.skipIfEmitted(filepath));
+        Assertions.assertTrue(registry.register(filepath, "export default {}"));
+        Assertions.assertTrue(registry.skipIfEmitted(filepath));
+        Assertions.assertEquals(1, registry.getMissCount());
+        Assertions.assertEquals(1, registry.getHitCount());
+        Assertions.assertEquals(0, registry.getConflictCount());
+    }
+
+    @Test
+    void testClear() {
+        EmittedFileRegistry registry = new EmittedFileRegistry();
+        Assertions.assertTrue(registry.register("codegen/api/UserService.ts", "export default {}"));
+        Assertions.assertFalse(registry.register("codegen/api/UserService.ts", "export default {}"));
+        registry.clear();
+        Assertions.assertFalse(registry.isEmitted("codegen/api/UserService.ts"));
+        Assertions.assertEquals(0, registry.getHitCount());
+        Assertions.assertTrue(registry.register("codegen/api/UserService.ts", "export default {}"));
+    }
+
+    @Test
+    void testConcurrentRegister() {
+        EmittedFileRegistry registry = new EmittedFileRegistry();
+        AtomicInteger emitted = new AtomicInteger();
+        IntStream.range(0, 1000)
+                .parallel()
+                .forEach(i -> {
+                    if (registry.register("codegen/api/" + (i % 10) + ".ts", "content")) {
+                        emitted.incrementAndGet();
+                    }
+                });
+        Assertions.assertEquals(10, emitted.get());
+        Assertions.assertEquals(10, registry.getMissCount());
+        Assertions.assertEquals(990, registry.getHitCount());
+    }
+}
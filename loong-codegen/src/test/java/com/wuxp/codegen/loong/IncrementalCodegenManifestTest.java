@@ -0,0 +1,47 @@
+package com.wuxp.codegen.loong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+class IncrementalCodegenManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testIncrementalGenerate() throws IOException {
+        String manifestPath = tempDir.resolve("target").resolve("codegen").resolve("test.loong-manifest").toString();
+        Path outputPath = tempDir.resolve("src");
+        Path userFile = write(outputPath.resolve("domain").resolve("User.ts"), "export interface User {}");
+        Path orderFile = write(outputPath.resolve("domain").resolve("Order.ts"), "export interface Order {}");
+
+        IncrementalCodegenManifest manifest = new IncrementalCodegenManifest(manifestPath, outputPath.toString());
+        Assertions.assertFalse(manifest.recordAndCheckUnchanged(userFile.toString(), EmittedFileRegistry.hash("export interface User {}")));
+        Assertions.assertFalse(manifest.recordAndCheckUnchanged(orderFile.toString(), EmittedFileRegistry.hash("export interface Order {}")));
+        manifest.completed();
+        Assertions.assertTrue(Files.exists(Paths.get(manifestPath)));
+
+        // 第二次生成，User 没有变化，Order 不再生成
+        manifest = new IncrementalCodegenManifest(manifestPath, outputPath.toString());
+        Assertions.assertTrue(manifest.recordAndCheckUnchanged(userFile.toString(), EmittedFileRegistry.hash("export interface User {}")));
+        manifest.completed();
+        Assertions.assertTrue(Files.exists(userFile));
+        Assertions.assertFalse(Files.exists(orderFile));
+
+        // 第三次生成，User 发生变化
+        manifest = new IncrementalCodegenManifest(manifestPath, outputPath.toString());
+        Assertions.assertFalse(manifest.recordAndCheckUnchanged(userFile.toString(), EmittedFileRegistry.hash("export interface User {id: number}")));
+    }
+
+    private static Path write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
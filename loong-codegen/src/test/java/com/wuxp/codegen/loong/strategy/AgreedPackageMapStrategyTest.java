@@ -0,0 +1,45 @@
+package com.wuxp.codegen.loong.strategy;
+
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.config.CodegenConfig;
+import com.wuxp.codegen.core.config.CodegenConfigHolder;
+import com.wuxp.codegen.model.LanguageDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+
+class AgreedPackageMapStrategyTest {
+
+    @AfterEach
+    void clear() {
+        CodegenConfigHolder.clear();
+    }
+
+    @Test
+    void testConvertByLanguage() {
+        AgreedPackageMapStrategy strategy = new AgreedPackageMapStrategy();
+        String basePackage = "com.wuxp.codegen.loong";
+
+        CodegenConfigHolder.setConfig(CodegenConfig.builder()
+                .languageDescription(LanguageDescription.TYPESCRIPT)
+                .providerType(ClientProviderType.TYPESCRIPT_FEIGN)
+                .basePackages(Collections.singletonList(basePackage))
+                .build());
+        Assertions.assertTrue(strategy.convert(ExampleController.class).endsWith("/clients/ExampleFeignClient"));
+
+        CodegenConfigHolder.setConfig(CodegenConfig.builder()
+                .languageDescription(LanguageDescription.JAVA_ANDROID)
+                .providerType(ClientProviderType.RETROFIT)
+                .basePackages(Collections.singletonList(basePackage))
+                .build());
+        Assertions.assertEquals(basePackage + ".clients.ExampleRetrofitClient", strategy.convert(ExampleController.class));
+    }
+
+    @RestController
+    static class ExampleController {
+
+    }
+}
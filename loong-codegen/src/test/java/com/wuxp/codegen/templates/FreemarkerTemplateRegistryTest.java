@@ -0,0 +1,26 @@
+package com.wuxp.codegen.templates;
+
+import com.wuxp.codegen.core.ClientProviderType;
+import freemarker.template.Template;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+class FreemarkerTemplateRegistryTest {
+
+    @Test
+    void testSharedTemplate() {
+        FreemarkerTemplateLoader loader = new FreemarkerTemplateLoader(ClientProviderType.TYPESCRIPT_FEIGN, Collections.singletonMap("umiModel", "a")).warmUp();
+        long compileCount = FreemarkerTemplateRegistry.getCompileCount();
+        Assertions.assertTrue(compileCount > 0);
+
+        Template template = loader.load("api_service");
+        Assertions.assertNotNull(template);
+        // 不同的共享变量使用同一个模板，不会重新解析
+        FreemarkerTemplateLoader otherLoader = new FreemarkerTemplateLoader(ClientProviderType.TYPESCRIPT_FEIGN, Collections.singletonMap("umiModel", "b"));
+        Assertions.assertSame(template, otherLoader.load("api_service"));
+        Assertions.assertEquals(compileCount, FreemarkerTemplateRegistry.getCompileCount());
+        Assertions.assertTrue(FreemarkerTemplateRegistry.getHitCount() >= 2);
+    }
+}
@@ -11,6 +11,7 @@ import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -84,6 +85,12 @@ public abstract class AbstractSdkCodegenMojo extends AbstractMojo {
     @Parameter(property = "only.execution.root", defaultValue = "true")
     private boolean onlyExecutionRoot = true;
 
+    /**
+     * 插件仅在配置了该插件的模块中执行，用于在一次多模块构建（-pl -am）中直接调用插件目标时跳过其他的模块
+     */
+    @Parameter(property = "only.configured.project", defaultValue = "false")
+    private boolean onlyConfiguredProject;
+
     /**
      * 生成 sdk 的client lib type，如果为null或空，生成所有的
      */
@@ -146,6 +153,12 @@ public abstract class AbstractSdkCodegenMojo extends AbstractMojo {
     @Parameter(defaultValue = "${session}", readonly = true, required = true)
     protected MavenSession session;
 
+    /**
+     * 当前插件的描述
+     */
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor pluginDescriptor;
+
     /**
      * 开启和项目的依赖
      */
@@ -191,6 +204,10 @@ public abstract class AbstractSdkCodegenMojo extends AbstractMojo {
             getLog().warn(" 插件仅仅在命令启动的模块中[" + new File("").getAbsolutePath() + "]启用 ，可以配置插件参数[onlyExecutionRoot = false]禁用.");
             return;
         }
+        if (onlyConfiguredProject && !isConfiguredProject()) {
+            getLog().info("模块[" + mavenProject.getArtifactId() + "]未配置插件，skip");
+            return;
+        }
         try {
             this.pluginProjectClassLoader = getProjectClassLoader();
         } catch (MalformedURLException | DependencyResolutionRequiredException e) {
@@ -300,6 +317,18 @@ public abstract class AbstractSdkCodegenMojo extends AbstractMojo {
         }
     }
 
+    /**
+     * @return 当前模块的 build plugins 中是否配置了该插件
+     */
+    private boolean isConfiguredProject() {
+        if (pluginDescriptor == null) {
+            return true;
+        }
+        return mavenProject.getBuildPlugins()
+                .stream()
+                .anyMatch(plugin -> pluginDescriptor.getPluginLookupKey().equals(plugin.getKey()));
+    }
+
     /**
      * 获取项目的依赖，交由插件的{@link ClassLoader}使用
      *
@@ -0,0 +1,244 @@
+package com.wuxp.codegen.server.codegen;
+
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.CodegenVersion;
+import com.wuxp.codegen.core.util.CodegenFileUtils;
+import com.wuxp.codegen.server.plugins.CodegenPluginExecuteStrategy;
+import com.wuxp.codegen.server.task.CodegenTaskException;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import lombok.extern.slf4j.Slf4j;
+import net.lingala.zip4j.ZipFile;
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.UUID;
+
+import static com.wuxp.codegen.core.constant.Constants.DEFAULT_CODEGEN_DIR;
+
+/**
+ * 按照提交保存生成的 sdk，同一个提交只生成一次
+ * <p>
+ * key 为 (仓库, 项目, 提交, 模块, OpenApiType, ClientProviderType, 代码生成版本)，
+ * 目录结构：{basedir}/{codegenVersion}/{repository}/{project}/{commit}/{module}/{openApiType}/{type}.zip
+ * </p>
+ * <p>
+ * 每个 sdk 先压缩到临时文件，完成后重命名为目标文件，目标文件存在即表示该 (模块, OpenApiType, ClientProviderType) 的 sdk 已经生成完成，
+ * 已经存在的 sdk 不再重复保存
+ * </p>
+ * <p>
+ * 一次构建的所有 sdk 保存完成后按照构建的范围（模块、ClientProviderType，为空表示全部）写入完成标记，
+ * 没有生成任何 sdk 时不写入标记
+ * </p>
+ * <p>
+ * 复用本地仓库时模块的输出目录会被保留，执行代码生成插件之前需要调用 {@link #deleteSdkOutputs(String)}，
+ * 避免保存上一次生成的（本次没有生成的）sdk
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public class CommitSdkArtifactStore {
+
+    /**
+     * 插件在输出目录（outputPath）中输出 sdk 的目录，其下为 OpenApiType 目录（例如：swagger_2），再下为 ClientProviderType 目录
+     */
+    private static final String SDK_OUTPUT_DIR = String.join(File.separator, DEFAULT_CODEGEN_DIR, "loong");
+
+    private static final String ARTIFACT_SUFFIX = ".zip";
+
+    private static final String STAGING_PREFIX = ".staging-";
+
+    private static final String COMPLETED_PREFIX = ".completed-";
+
+    /**
+     * 构建范围为全部模块或全部 ClientProviderType
+     */
+    private static final String ALL_SCOPE = "all";
+
+    private final Path basedir;
+
+    private final CodegenPluginExecuteStrategy codegenPluginExecuteStrategy;
+
+    public CommitSdkArtifactStore(String basedir, CodegenPluginExecuteStrategy codegenPluginExecuteStrategy) {
+        Assert.hasText(basedir, "sdk 存储目录不能为空");
+        this.basedir = Paths.get(basedir, CodegenVersion.VERSION).toAbsolutePath();
+        this.codegenPluginExecuteStrategy = codegenPluginExecuteStrategy;
+    }
+
+    /**
+     * @param moduleName 构建的模块，为空表示全部模块
+     * @param type       构建的 ClientProviderType，为空表示全部
+     * @return <code>true</code> 该提交在此范围（或包含此范围）的构建已经保存完成
+     */
+    public boolean isCompleted(String repository, String projectName, String commitId, String moduleName, ClientProviderType type) {
+        if (!StringUtils.hasText(commitId)) {
+            return false;
+        }
+        Path commitDirectory = getCommitDirectory(repository, projectName, commitId);
+        for (String module : Arrays.asList(moduleName, null)) {
+            for (ClientProviderType clientProviderType : Arrays.asList(type, null)) {
+                if (Files.isRegularFile(commitDirectory.resolve(getCompletedMarkerName(module, clientProviderType)))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param moduleName  模块名称，为空时项目中只能有一个生成 sdk 的模块
+     * @param openApiType OpenApiType，为空时按照名称顺序取第一个存在的
+     * @return 该提交生成的 sdk 文件，不存在时返回 null
+     */
+    public File get(String repository, String projectName, String commitId, String moduleName, OpenApiType openApiType, ClientProviderType type) {
+        if (!StringUtils.hasText(commitId)) {
+            return null;
+        }
+        Path commitDirectory = getCommitDirectory(repository, projectName, commitId);
+        Path moduleDirectory = StringUtils.hasText(moduleName) ? commitDirectory.resolve(moduleName) : findSingleModule(commitDirectory);
+        if (moduleDirectory == null) {
+            return null;
+        }
+        String artifactName = getArtifactName(type);
+        if (openApiType != null) {
+            Path artifact = moduleDirectory.resolve(openApiType.name().toLowerCase()).resolve(artifactName);
+            return Files.isRegularFile(artifact) ? artifact.toFile() : null;
+        }
+        File[] openApiDirectories = moduleDirectory.toFile().listFiles(File::isDirectory);
+        if (openApiDirectories == null) {
+            return null;
+        }
+        return Arrays.stream(openApiDirectories)
+                .sorted(Comparator.comparing(File::getName))
+                .map(openApiDirectory -> new File(openApiDirectory, artifactName))
+                .filter(File::isFile)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 保存项目中各个模块生成的 sdk
+     *
+     * @param projectFilepath 已经执行过代码生成插件的项目目录
+     * @param moduleName      执行代码生成插件的模块，为空表示全部模块
+     * @param type            执行代码生成插件的 ClientProviderType，为空表示全部
+     */
+    public void publish(String repository, String projectName, String commitId, String projectFilepath, String moduleName, ClientProviderType type) {
+        if (!StringUtils.hasText(commitId) || isCompleted(repository, projectName, commitId, moduleName, type)) {
+            return;
+        }
+        Path commitDirectory = getCommitDirectory(repository, projectName, commitId);
+        try {
+            int artifactTotal = 0;
+            for (String moduleFile : codegenPluginExecuteStrategy.findModuleFiles(projectFilepath, moduleName)) {
+                artifactTotal += publishModule(moduleFile, commitDirectory);
+            }
+            if (artifactTotal == 0) {
+                log.warn("项目：{}，提交：{}没有生成任何 sdk，不保存", projectName, commitId);
+                return;
+            }
+            try {
+                Files.createFile(commitDirectory.resolve(getCompletedMarkerName(moduleName, type)));
+            } catch (FileAlreadyExistsException exception) {
+                // 其他任务已经保存了相同范围的 sdk
+            }
+            if (log.isInfoEnabled()) {
+                log.info("保存项目：{}，提交：{}的 sdk 到：{}", projectName, commitId, commitDirectory);
+            }
+        } catch (IOException exception) {
+            throw new CodegenTaskException(exception);
+        }
+    }
+
+    /**
+     * 删除项目中各个模块已经生成的 sdk
+     *
+     * @param projectFilepath 即将执行代码生成插件的项目目录
+     */
+    public void deleteSdkOutputs(String projectFilepath) {
+        for (String moduleFile : codegenPluginExecuteStrategy.findModuleFiles(projectFilepath, null)) {
+            deleteQuietly(getSdkOutputDirectory(moduleFile).toPath());
+        }
+    }
+
+    /**
+     * @return 保存的 sdk 数量
+     */
+    private int publishModule(String moduleFile, Path commitDirectory) throws IOException {
+        Path target = commitDirectory.resolve(codegenPluginExecuteStrategy.getModuleName(moduleFile));
+        File[] openApiDirectories = getSdkOutputDirectory(moduleFile).listFiles(File::isDirectory);
+        if (openApiDirectories == null) {
+            return 0;
+        }
+        int result = 0;
+        for (File openApiDirectory : openApiDirectories) {
+            File[] sdkDirectories = openApiDirectory.listFiles(File::isDirectory);
+            if (sdkDirectories == null) {
+                continue;
+            }
+            Path openApiTarget = target.resolve(openApiDirectory.getName());
+            for (File sdkDirectory : sdkDirectories) {
+                CodegenFileUtils.createDirectoryRecursively(openApiTarget.toString());
+                publishArtifact(sdkDirectory, openApiTarget.resolve(sdkDirectory.getName() + ARTIFACT_SUFFIX));
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 先压缩到临时文件，再重命名为目标文件，目标文件已经存在时不再保存
+     */
+    private static void publishArtifact(File sdkDirectory, Path artifact) throws IOException {
+        if (Files.exists(artifact)) {
+            return;
+        }
+        Path stagingFile = artifact.resolveSibling(STAGING_PREFIX + UUID.randomUUID() + ARTIFACT_SUFFIX);
+        try {
+            ZipFile zipFile = new ZipFile(stagingFile.toFile());
+            zipFile.addFolder(sdkDirectory);
+            Files.move(stagingFile, artifact, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException exception) {
+            // 其他任务已经保存了相同的 sdk
+        } finally {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+
+    private File getSdkOutputDirectory(String moduleFile) {
+        return new File(codegenPluginExecuteStrategy.getOutputPath(moduleFile), SDK_OUTPUT_DIR);
+    }
+
+    private static Path findSingleModule(Path commitDirectory) {
+        File[] modules = commitDirectory.toFile().listFiles(File::isDirectory);
+        return modules != null && modules.length == 1 ? modules[0].toPath() : null;
+    }
+
+    private static String getArtifactName(ClientProviderType type) {
+        return type.name().toLowerCase() + ARTIFACT_SUFFIX;
+    }
+
+    private static String getCompletedMarkerName(String moduleName, ClientProviderType type) {
+        String module = StringUtils.hasText(moduleName) ? moduleName : ALL_SCOPE;
+        String clientProviderType = type == null ? ALL_SCOPE : type.name().toLowerCase();
+        return COMPLETED_PREFIX + module + "-" + clientProviderType;
+    }
+
+    private Path getCommitDirectory(String repository, String projectName, String commitId) {
+        return basedir.resolve(repository).resolve(projectName).resolve(commitId);
+    }
+
+    private static void deleteQuietly(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException exception) {
+            log.warn("删除目录{}失败，message：{}", directory, exception.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.wuxp.codegen.server.codegen;
 
 import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.starter.enums.OpenApiType;
 
 
 /**
@@ -33,5 +34,25 @@ public interface SdkCodeDescriptor {
      */
     ClientProviderType getType();
 
+    /**
+     * 代码的提交，用于从按照提交保存的 sdk 中获取
+     * 默认值：null，使用分支最新的提交
+     *
+     * @see CommitSdkArtifactStore
+     */
+    default String getCommitId() {
+        return null;
+    }
+
+    /**
+     * 生成 sdk 使用的 open api 类型，用于从按照提交保存的 sdk 中获取
+     * 默认值：null，按照名称顺序取第一个存在的
+     *
+     * @see CommitSdkArtifactStore
+     */
+    default OpenApiType getOpenApiType() {
+        return null;
+    }
+
 
 }
@@ -1,8 +1,11 @@
 package com.wuxp.codegen.server.codegen;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wuxp.codegen.core.ClientProviderType;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
 import com.wuxp.codegen.server.plugins.CodegenPluginExecuteStrategy;
+import com.wuxp.codegen.server.scope.CodegenTaskContextHolder;
 import com.wuxp.codegen.server.task.CodegenTaskException;
 import com.wuxp.codegen.server.vcs.SourcecodeRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +20,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static com.wuxp.codegen.core.constant.Constants.DEFAULT_CODEGEN_DIR;
@@ -37,9 +41,31 @@ public class TemporaryFileSdkCodeManager implements SdkCodeManager {
 
     private final String uploadTempDir;
 
+    /**
+     * 按照提交保存的 sdk，可以为 null
+     */
+    private final CommitSdkArtifactStore sdkArtifactStore;
+
+    /**
+     * 分支最新的提交，短时间内的多次下载共用一次远程查询
+     *
+     * @key {repository}/{project}/{branch}
+     * @value 提交
+     */
+    private final Cache<String, String> remoteRevisionCaches = Caffeine.newBuilder()
+            .expireAfterWrite(30, TimeUnit.SECONDS)
+            .maximumSize(256)
+            .build();
+
     public TemporaryFileSdkCodeManager(SourcecodeRepository sourcecodeRepository, CodegenPluginExecuteStrategy codegenPluginExecuteStrategy, String uploadTempDir) {
+        this(sourcecodeRepository, codegenPluginExecuteStrategy, uploadTempDir, null);
+    }
+
+    public TemporaryFileSdkCodeManager(SourcecodeRepository sourcecodeRepository, CodegenPluginExecuteStrategy codegenPluginExecuteStrategy,
+                                       String uploadTempDir, CommitSdkArtifactStore sdkArtifactStore) {
         this.sourcecodeRepository = sourcecodeRepository;
         this.codegenPluginExecuteStrategy = codegenPluginExecuteStrategy;
+        this.sdkArtifactStore = sdkArtifactStore;
         if (!StringUtils.hasText(uploadTempDir)) {
             uploadTempDir = System.getProperty("java.io.tmpdir");
         }
@@ -78,11 +104,30 @@ public class TemporaryFileSdkCodeManager implements SdkCodeManager {
         if (tempSdkFile.exists()) {
             return tempSdkFile;
         }
+        // 该提交已经生成过sdk
+        File artifact = getSdkCodeByArtifactStore(descriptor);
+        if (artifact != null) {
+            return artifact;
+        }
         // 不存在，尝试从本地仓库中获取
         File sdkFile = getSdkCodeByLocalRepository(descriptor);
         return zipSdkFile(descriptor.getType(), sdkFile);
     }
 
+    private File getSdkCodeByArtifactStore(SdkCodeDescriptor descriptor) {
+        if (sdkArtifactStore == null) {
+            return null;
+        }
+        String repository = CodegenTaskContextHolder.getSourceCodeRepositoryName();
+        String commitId = descriptor.getCommitId();
+        if (!StringUtils.hasText(commitId)) {
+            String key = String.format("%s/%s/%s", repository, descriptor.getProjectName(), descriptor.getBranch());
+            commitId = remoteRevisionCaches.get(key, k -> sourcecodeRepository.getRemoteRevision(descriptor.getProjectName(), descriptor.getBranch()));
+        }
+        return sdkArtifactStore.get(repository, descriptor.getProjectName(), commitId,
+                descriptor.getModuleName(), descriptor.getOpenApiType(), descriptor.getType());
+    }
+
     private File getSdkCodeByLocalRepository(SdkCodeDescriptor descriptor) {
         try {
             return findSdkCodeByLocalRepository(descriptor);
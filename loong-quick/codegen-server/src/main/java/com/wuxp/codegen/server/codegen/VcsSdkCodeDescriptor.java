@@ -27,6 +27,12 @@ public class VcsSdkCodeDescriptor implements SdkCodeDescriptor {
 
     private final String moduleName;
 
+    private final String commitId;
+
+    public VcsSdkCodeDescriptor(String projectName, ClientProviderType type, String branch, String moduleName) {
+        this(projectName, type, branch, moduleName, null);
+    }
+
     @Override
     public String getModuleName() {
         if (StringUtils.hasText(moduleName)) {
@@ -2,11 +2,13 @@ package com.wuxp.codegen.server.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.wuxp.codegen.server.CodegenJpaAuditorAware;
+import com.wuxp.codegen.server.codegen.CommitSdkArtifactStore;
 import com.wuxp.codegen.server.codegen.SdkCodeManager;
 import com.wuxp.codegen.server.codegen.TemporaryFileSdkCodeManager;
 import com.wuxp.codegen.server.enums.SourcecodeRepositoryType;
 import com.wuxp.codegen.server.plugins.CodegenPluginExecuteStrategy;
 import com.wuxp.codegen.server.plugins.MavenCodegenPluginExecuteStrategy;
+import com.wuxp.codegen.server.plugins.ReactorMavenCodegenPluginExecuteStrategy;
 import com.wuxp.codegen.server.repositories.CodeVersionControlConfigRepository;
 import com.wuxp.codegen.server.scope.CodegenTaskContextHolder;
 import com.wuxp.codegen.server.task.CodegenTaskException;
@@ -126,20 +128,32 @@ public class LoongCodegenConfig implements DisposableBean {
     @Bean
     public CodegenTaskService codegenTaskService(SourcecodeRepository sourcecodeRepository,
                                                  CodegenPluginExecuteStrategy codegenPluginExecuteStrategy,
-                                                 @Qualifier(value = CODEGEN_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor) {
-        return new SourceCodeManagerTaskService(sourcecodeRepository, codegenPluginExecuteStrategy, taskExecutor);
+                                                 @Qualifier(value = CODEGEN_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor,
+                                                 CommitSdkArtifactStore commitSdkArtifactStore) {
+        return new SourceCodeManagerTaskService(sourcecodeRepository, codegenPluginExecuteStrategy, taskExecutor, commitSdkArtifactStore);
     }
 
     @Bean
-    public CodegenPluginExecuteStrategy codegenPluginExecuteStrategy() {
+    public CommitSdkArtifactStore commitSdkArtifactStore(CodegenPluginExecuteStrategy codegenPluginExecuteStrategy,
+                                                         @Value("${loong.codegen.sdk.store-dir:${user.home}/.loong-codegen/sdk}") String basedir) {
+        return new CommitSdkArtifactStore(basedir, codegenPluginExecuteStrategy);
+    }
+
+    @Bean
+    public CodegenPluginExecuteStrategy codegenPluginExecuteStrategy(@Value("${loong.codegen.maven.reactor-build:true}") boolean reactorBuild,
+                                                                     @Value("${loong.codegen.maven.threads:1C}") String threads) {
+        if (reactorBuild) {
+            return new ReactorMavenCodegenPluginExecuteStrategy(null, threads);
+        }
         return new MavenCodegenPluginExecuteStrategy();
     }
 
     @Bean
     public SdkCodeManager zipCodegenFileManageStrategy(SourcecodeRepository sourcecodeRepository,
                                                        CodegenPluginExecuteStrategy codegenPluginExecuteStrategy,
-                                                       @Value("${loong.codegen.sdk.tempdir:${java.io.tmpdir}codegen/sdk/temp}") String uploadTempDir) {
-        return new TemporaryFileSdkCodeManager(sourcecodeRepository, codegenPluginExecuteStrategy, uploadTempDir);
+                                                       @Value("${loong.codegen.sdk.tempdir:${java.io.tmpdir}codegen/sdk/temp}") String uploadTempDir,
+                                                       CommitSdkArtifactStore commitSdkArtifactStore) {
+        return new TemporaryFileSdkCodeManager(sourcecodeRepository, codegenPluginExecuteStrategy, uploadTempDir, commitSdkArtifactStore);
     }
 
     @Bean
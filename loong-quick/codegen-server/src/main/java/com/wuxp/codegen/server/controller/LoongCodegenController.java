@@ -88,7 +88,8 @@ public class LoongCodegenController {
     public HttpEntity<InputStreamResource> downloadSdkCodeByTask(@PathVariable(value = "taskId") String taskId,
                                                                  @RequestParam("type") ClientProviderType type) throws IOException {
         CodegenTaskInfo taskInfo = codegenTaskService.getTask(taskId);
-        return downloadSdkCode(taskInfo.getProjectName(), taskInfo.getBranch(), null, type);
+        SdkCodeDescriptor descriptor = new VcsSdkCodeDescriptor(taskInfo.getProjectName(), type, taskInfo.getBranch(), null, taskInfo.getCommitId());
+        return writeSdkCode(sdkCodeManager.get(descriptor));
     }
 
     @Operation(description = "下载生成的sdk,1：通过代码任务id和ClientProviderType下载代码生成结果，2：通过项目和分支名称下载")
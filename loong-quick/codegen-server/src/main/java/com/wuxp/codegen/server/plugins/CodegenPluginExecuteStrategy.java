@@ -4,6 +4,7 @@ import com.wuxp.codegen.core.ClientProviderType;
 import org.springframework.util.Assert;
 
 import javax.validation.constraints.NotNull;
+import java.io.File;
 import java.util.List;
 
 /**
@@ -32,6 +33,22 @@ public interface CodegenPluginExecuteStrategy {
      */
     List<String> findModuleFiles(@NotNull String projectBaseDir, String modelName);
 
+    /**
+     * @param moduleFile {@link #findModuleFiles(String, String)} 返回的模块文件路径
+     * @return 模块名称，默认为模块所在的目录名称
+     */
+    default String getModuleName(@NotNull String moduleFile) {
+        return new File(moduleFile).getParentFile().getName();
+    }
+
+    /**
+     * @param moduleFile {@link #findModuleFiles(String, String)} 返回的模块文件路径
+     * @return 模块中代码生成插件的输出目录（插件参数 outputPath），默认为模块的 target 目录
+     */
+    default String getOutputPath(@NotNull String moduleFile) {
+        return new File(new File(moduleFile).getAbsoluteFile().getParentFile(), "target").getPath();
+    }
+
     /**
      * @param projectBaseDir
      * @param modelName
@@ -11,7 +11,10 @@ import org.apache.commons.io.filefilter.NameFileFilter;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
@@ -38,9 +41,27 @@ public class MavenCodegenPluginExecuteStrategy implements CodegenPluginExecuteSt
      */
     private static final String CODEGEN_MAVEN_PLUGIN_ARTIFACT_ID = "wuxp-codegen-loong-maven-plugin";
 
-    private static final String MODULE_FILE_NAME = "pom.xml";
+    /**
+     * 代码生成插件的目标
+     */
+    protected static final String CODEGEN_PLUGIN_GOAL = String.format("com.wuxp.codegen:%s:%s:api-sdk-codegen", CODEGEN_MAVEN_PLUGIN_ARTIFACT_ID, CodegenVersion.VERSION);
+
+    protected static final String MODULE_FILE_NAME = "pom.xml";
+
+    /**
+     * 代码生成插件输出目录的参数名称以及对应的属性，参见 AbstractSdkCodegenMojo#outputPath
+     */
+    private static final String OUTPUT_PATH_PARAMETER = "outputPath";
+
+    private static final String OUTPUT_PATH_PROPERTY = "output.path";
+
+    private static final String DEFAULT_BUILD_DIRECTORY = "target";
+
+    private static final String PROJECT_BUILD_DIRECTORY_EXPRESSION = "${project.build.directory}";
+
+    private static final String[] PROJECT_BASEDIR_EXPRESSIONS = {"${project.basedir}", "${basedir}"};
 
-    private final String profiles;
+    protected final String profiles;
 
     private final IOFileFilter pomFileFilter;
 
@@ -91,6 +112,84 @@ public class MavenCodegenPluginExecuteStrategy implements CodegenPluginExecuteSt
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getModuleName(String moduleFile) {
+        return parsePom(new File(moduleFile)).getArtifactId();
+    }
+
+    /**
+     * 读取模块 pom 中代码生成插件的 outputPath 配置（或者 output.path 属性），相对路径相对于模块目录，
+     * 没有配置或者包含无法解析的表达式时使用模块的构建目录
+     */
+    @Override
+    public String getOutputPath(String moduleFile) {
+        File pom = new File(moduleFile).getAbsoluteFile();
+        File moduleDirectory = pom.getParentFile();
+        Model model = this.parsePom(pom);
+        Build build = model.getBuild();
+        String buildDirectory = build == null || !StringUtils.hasText(build.getDirectory()) ? DEFAULT_BUILD_DIRECTORY : build.getDirectory();
+        buildDirectory = resolvePath(moduleDirectory, buildDirectory, null);
+        String outputPath = findCodegenPluginParameter(model, OUTPUT_PATH_PARAMETER);
+        if (!StringUtils.hasText(outputPath)) {
+            outputPath = model.getProperties().getProperty(OUTPUT_PATH_PROPERTY);
+        }
+        if (!StringUtils.hasText(outputPath)) {
+            return buildDirectory;
+        }
+        String result = resolvePath(moduleDirectory, outputPath.trim(), buildDirectory);
+        if (result.contains("${")) {
+            log.warn("无法解析模块：{}的代码生成输出目录：{}，使用构建目录：{}", moduleFile, outputPath, buildDirectory);
+            return buildDirectory;
+        }
+        return result;
+    }
+
+    private static String findCodegenPluginParameter(Model model, String name) {
+        Build build = model.getBuild();
+        if (build == null) {
+            return null;
+        }
+        for (Plugin plugin : build.getPlugins()) {
+            if (!CODEGEN_MAVEN_PLUGIN_ARTIFACT_ID.equals(plugin.getArtifactId())) {
+                continue;
+            }
+            String result = getConfigurationValue(plugin.getConfiguration(), name);
+            if (result != null) {
+                return result;
+            }
+            for (PluginExecution execution : plugin.getExecutions()) {
+                result = getConfigurationValue(execution.getConfiguration(), name);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String getConfigurationValue(Object configuration, String name) {
+        if (!(configuration instanceof Xpp3Dom)) {
+            return null;
+        }
+        Xpp3Dom child = ((Xpp3Dom) configuration).getChild(name);
+        return child == null ? null : child.getValue();
+    }
+
+    private static String resolvePath(File moduleDirectory, String path, String buildDirectory) {
+        String result = path;
+        for (String expression : PROJECT_BASEDIR_EXPRESSIONS) {
+            result = result.replace(expression, moduleDirectory.getPath());
+        }
+        if (buildDirectory != null) {
+            result = result.replace(PROJECT_BUILD_DIRECTORY_EXPRESSION, buildDirectory);
+        }
+        File file = new File(result);
+        if (!file.isAbsolute()) {
+            file = new File(moduleDirectory, result);
+        }
+        return file.toPath().normalize().toString();
+    }
+
     private boolean findCodegenPlugin(Model model) {
         Build build = model.getBuild();
         if (build == null) {
@@ -101,7 +200,7 @@ public class MavenCodegenPluginExecuteStrategy implements CodegenPluginExecuteSt
                 .anyMatch(plugin -> CODEGEN_MAVEN_PLUGIN_ARTIFACT_ID.equals(plugin.getArtifactId()));
     }
 
-    private Model parsePom(File pom) {
+    protected Model parsePom(File pom) {
         //pom 为 pom.xml 路径
         try {
             try (InputStream inputStream = new FileInputStream(pom)) {
@@ -132,14 +231,14 @@ public class MavenCodegenPluginExecuteStrategy implements CodegenPluginExecuteSt
      *
      * @param pom pom 文件路径
      */
-    private void invokeCodegenPlugin(String pom) {
+    protected void invokeCodegenPlugin(String pom) {
         if (log.isInfoEnabled()) {
             log.info("执行codegen插件，pom：{}", pom);
         }
         // 编译测试目录  -Dmaven.test.skip=true
         MavenCommandInvokeUtils.execute("compile test-compile", pom, profiles);
         // 执行代码生插件
-        MavenCommandInvokeUtils.execute(String.format("com.wuxp.codegen:wuxp-codegen-loong-maven-plugin:%s:api-sdk-codegen", CodegenVersion.VERSION), pom, profiles);
+        MavenCommandInvokeUtils.execute(CODEGEN_PLUGIN_GOAL, pom, profiles);
     }
 
     /**
@@ -147,7 +246,7 @@ public class MavenCodegenPluginExecuteStrategy implements CodegenPluginExecuteSt
      *
      * @param pom pom 文件路径
      */
-    private void invokeClean(String pom) {
+    protected void invokeClean(String pom) {
         if (log.isInfoEnabled()) {
             log.info("执行maven clean命令，pom：{}", pom);
         }
@@ -0,0 +1,154 @@
+package com.wuxp.codegen.server.plugins;
+
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.server.util.MavenCommandInvokeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 在一次 maven 构建（reactor）中执行所有模块的 sdk 代码生成插件
+ * <p>
+ * 通过 -pl 选择配置了代码生成插件的模块，-am 同时构建其依赖的模块，-T 并行构建，在同一个 maven 进程中依次执行 test-compile 和代码生成插件，
+ * 避免每个模块多次启动 maven。依赖的模块通过 only.configured.project 跳过代码生成
+ * </p>
+ * <p>
+ * 不在根 pom 的 modules 中的模块，仍然单独执行
+ * </p>
+ *
+ * @author wuxp
+ * @see MavenCodegenPluginExecuteStrategy
+ */
+@Slf4j
+public class ReactorMavenCodegenPluginExecuteStrategy extends MavenCodegenPluginExecuteStrategy {
+
+    private static final String CURRENT_PROJECT = ".";
+
+    /**
+     * 并行构建的线程数，如：1C 表示每个 cpu 核心一个线程，为空时串行构建
+     */
+    private final String threads;
+
+    public ReactorMavenCodegenPluginExecuteStrategy() {
+        this(null, "1C");
+    }
+
+    /**
+     * @param profiles maven命令执行的 profiles 如果有多个使用","分隔
+     * @param threads  并行构建的线程数（-T）
+     */
+    public ReactorMavenCodegenPluginExecuteStrategy(String profiles, String threads) {
+        super(profiles);
+        this.threads = threads;
+    }
+
+    @Override
+    public void executeCodegenPlugin(String projectBaseDir, String modelName, ClientProviderType type) {
+        Assert.hasText(projectBaseDir, "projectBaseDir must has text");
+        Path basePath = new File(projectBaseDir).toPath().toAbsolutePath().normalize();
+        String rootPom = basePath.resolve(MODULE_FILE_NAME).toString();
+        Set<Path> reactorModules = findReactorModules(basePath);
+        List<String> projects = new ArrayList<>();
+        List<String> standaloneModuleFiles = new ArrayList<>();
+        for (String moduleFile : this.findModuleFiles(projectBaseDir, modelName)) {
+            Path modulePath = new File(moduleFile).toPath().toAbsolutePath().normalize().getParent();
+            if (reactorModules.contains(modulePath)) {
+                String project = basePath.relativize(modulePath).toString();
+                projects.add(project.isEmpty() ? CURRENT_PROJECT : project);
+            } else {
+                standaloneModuleFiles.add(moduleFile);
+            }
+        }
+        try {
+            if (!projects.isEmpty()) {
+                this.invokeReactorBuild(rootPom, projects);
+            }
+            standaloneModuleFiles.forEach(this::invokeCodegenPlugin);
+        } catch (Exception exception) {
+            log.error("执行maven命令异常：{}", exception.getMessage(), exception);
+            this.invokeClean(rootPom);
+            throw new CodegenRuntimeException(exception);
+        }
+    }
+
+    /**
+     * 执行一次 maven 构建，编译模块以及依赖的模块后执行代码生成插件
+     *
+     * @param rootPom  根 pom 文件路径
+     * @param projects 配置了代码生成插件的模块，相对根目录的路径
+     */
+    private void invokeReactorBuild(String rootPom, List<String> projects) {
+        if (log.isInfoEnabled()) {
+            log.info("执行maven构建，pom：{}，modules：{}，threads：{}", rootPom, projects, threads);
+        }
+        // test-compile 包含 compile
+        List<String> goals = Arrays.asList("test-compile", CODEGEN_PLUGIN_GOAL);
+        int exitCode = MavenCommandInvokeUtils.execute(goals, rootPom, profiles, request -> {
+            request.setProjects(projects);
+            request.setAlsoMake(true);
+            request.setBatchMode(true);
+            if (StringUtils.hasText(threads)) {
+                request.setThreads(threads);
+            }
+            Properties properties = new Properties();
+            // 在根目录启动构建，需要在各个模块中执行插件
+            properties.setProperty("only.execution.root", Boolean.FALSE.toString());
+            properties.setProperty("only.configured.project", Boolean.TRUE.toString());
+            request.setProperties(properties);
+        });
+        if (exitCode != 0) {
+            throw new CodegenRuntimeException(String.format("执行maven构建失败，pom：%s，exitCode：%d", rootPom, exitCode));
+        }
+    }
+
+    /**
+     * @param basePath 项目根目录
+     * @return 根 pom 以及通过 modules（包括激活的 profile 中的 modules）递归声明的所有模块目录
+     */
+    Set<Path> findReactorModules(Path basePath) {
+        Set<String> activeProfiles = StringUtils.commaDelimitedListToSet(StringUtils.trimAllWhitespace(profiles));
+        Set<Path> result = new HashSet<>();
+        Deque<Path> modules = new ArrayDeque<>();
+        modules.push(basePath);
+        while (!modules.isEmpty()) {
+            Path modulePath = modules.pop();
+            File pom = modulePath.resolve(MODULE_FILE_NAME).toFile();
+            if (!pom.isFile() || !result.add(modulePath)) {
+                continue;
+            }
+            Model model = this.parsePom(pom);
+            for (String module : getModules(model, activeProfiles)) {
+                Path path = modulePath.resolve(module).normalize();
+                // module 可以直接指向 pom 文件
+                modules.push(path.toFile().isFile() ? path.getParent() : path);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param activeProfiles 执行构建时指定的 profiles
+     * @return pom 中声明的 modules 以及激活的 profile 中声明的 modules，没有指定该 pom 中的 profile 时默认激活的 profile 生效
+     */
+    private static List<String> getModules(Model model, Set<String> activeProfiles) {
+        List<String> result = new ArrayList<>(model.getModules());
+        List<Profile> profiles = model.getProfiles().stream()
+                .filter(profile -> activeProfiles.contains(profile.getId()))
+                .collect(Collectors.toList());
+        if (profiles.isEmpty()) {
+            profiles = model.getProfiles().stream()
+                    .filter(profile -> profile.getActivation() != null && profile.getActivation().isActiveByDefault())
+                    .collect(Collectors.toList());
+        }
+        profiles.forEach(profile -> result.addAll(profile.getModules()));
+        return result;
+    }
+}
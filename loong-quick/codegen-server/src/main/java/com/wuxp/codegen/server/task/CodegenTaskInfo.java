@@ -5,6 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.beans.Transient;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -38,6 +41,11 @@ public class CodegenTaskInfo implements Serializable {
      */
     private final String repositoryCode;
 
+    /**
+     * 生成 sdk 的代码提交，获取到分支最新的提交或者插件执行成功后设置
+     */
+    private String commitId;
+
     /**
      * 任务状态
      */
@@ -58,6 +66,11 @@ public class CodegenTaskInfo implements Serializable {
      */
     private final AtomicInteger taskReferenceCount;
 
+    /**
+     * 代码生成的统计报告（各阶段耗时、计数），每种客户端类型一个，插件执行成功后读取
+     */
+    private transient List<Map<String, Object>> metricsReports = Collections.emptyList();
+
     public CodegenTaskInfo(String taskId, String projectName, String branch, String repositoryCode) {
         this.taskId = taskId;
         this.projectName = projectName;
@@ -4,6 +4,8 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
+import com.wuxp.codegen.core.util.JacksonUtils;
+import com.wuxp.codegen.server.codegen.CommitSdkArtifactStore;
 import com.wuxp.codegen.server.plugins.CodegenPluginExecuteStrategy;
 import com.wuxp.codegen.server.scope.CodegenTaskContextHolder;
 import com.wuxp.codegen.server.vcs.SourcecodeRepository;
@@ -12,7 +14,18 @@ import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 /**
@@ -26,6 +39,18 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
      */
     private static final int MAX_RETRIES = 5;
 
+    /**
+     * 代码生成统计报告的目录，见 AbstractLoongCodegenBuilder#getMetricsReportPath
+     */
+    private static final Path METRICS_REPORT_DIR = Paths.get("target", "codegen", "metrics");
+
+    private static final String METRICS_REPORT_SUFFIX = "-metrics.json";
+
+    /**
+     * 查找统计报告时遍历项目目录的最大深度
+     */
+    private static final int METRICS_REPORT_MAX_DEPTH = 8;
+
     private final Cache<String, CodegenTaskInfo> taskProgressCaches;
 
     private final SourcecodeRepository sourcecodeRepository;
@@ -34,8 +59,19 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
 
     private final AsyncTaskExecutor taskExecutor;
 
+    /**
+     * 按照提交保存的 sdk，可以为 null
+     */
+    private final CommitSdkArtifactStore sdkArtifactStore;
+
     public SourceCodeManagerTaskService(SourcecodeRepository sourcecodeRepository,
                                         CodegenPluginExecuteStrategy codegenPluginExecuteStrategy, AsyncTaskExecutor taskExecutor) {
+        this(sourcecodeRepository, codegenPluginExecuteStrategy, taskExecutor, null);
+    }
+
+    public SourceCodeManagerTaskService(SourcecodeRepository sourcecodeRepository, CodegenPluginExecuteStrategy codegenPluginExecuteStrategy,
+                                        AsyncTaskExecutor taskExecutor, CommitSdkArtifactStore sdkArtifactStore) {
+        this.sdkArtifactStore = sdkArtifactStore;
         this.sourcecodeRepository = sourcecodeRepository;
         this.codegenPluginExecuteStrategy = codegenPluginExecuteStrategy;
         this.taskProgressCaches = Caffeine.newBuilder()
@@ -82,6 +118,18 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
 
     private CodegenTaskInfo createCodegenTask(String projectName, String branch, String repositoryCode, String taskId) {
         CodegenTaskInfo taskProgressInfo = new CodegenTaskInfo(taskId, projectName, branch, repositoryCode);
+        if (sdkArtifactStore != null) {
+            String commitId = sourcecodeRepository.getRemoteRevision(projectName, branch);
+            if (sdkArtifactStore.isCompleted(repositoryCode, projectName, commitId, null, null)) {
+                // 该提交已经生成过 sdk，不需要 checkout 和执行插件
+                if (log.isInfoEnabled()) {
+                    log.info("项目：{}，分支：{}，提交：{}已经生成过 sdk", projectName, branch, commitId);
+                }
+                taskProgressInfo.setCommitId(commitId);
+                taskProgressInfo.setStatus(CodegenTaskStatus.SUCCESS);
+                return taskProgressInfo;
+            }
+        }
         this.submitTask(projectName, branch, taskProgressInfo);
         return taskProgressInfo;
     }
@@ -142,7 +190,14 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
     private CodegenTaskStatus executeCodegenPlugin(CodegenTaskInfo taskProgressInfo, String projectFilepath) {
         if (CodegenTaskStatus.CODEGEN_PROCESSING.equals(taskProgressInfo.getStatus())) {
             try {
+                // 复用本地仓库时 target 目录会被保留，删除上一次生成的统计报告和 sdk
+                deleteMetricsReports(projectFilepath);
+                if (sdkArtifactStore != null) {
+                    sdkArtifactStore.deleteSdkOutputs(projectFilepath);
+                }
                 codegenPluginExecuteStrategy.executeCodegenPlugin(projectFilepath, null, null);
+                taskProgressInfo.setMetricsReports(loadMetricsReports(projectFilepath));
+                publishSdkArtifacts(taskProgressInfo, projectFilepath);
                 return CodegenTaskStatus.SUCCESS;
             } catch (Exception exception) {
                 taskProgressInfo.setLastException(exception);
@@ -153,6 +208,74 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
         return taskProgressInfo.getStatus();
     }
 
+    /**
+     * 按照本地仓库当前的提交保存生成的 sdk，保存失败不影响任务结果
+     *
+     * @param taskProgressInfo 任务信息
+     * @param projectFilepath  项目目录
+     */
+    private void publishSdkArtifacts(CodegenTaskInfo taskProgressInfo, String projectFilepath) {
+        String commitId = sourcecodeRepository.getLocalRevision(taskProgressInfo.getProjectName(), taskProgressInfo.getBranch());
+        taskProgressInfo.setCommitId(commitId);
+        if (sdkArtifactStore == null) {
+            return;
+        }
+        try {
+            sdkArtifactStore.publish(taskProgressInfo.getRepositoryCode(), taskProgressInfo.getProjectName(), commitId, projectFilepath, null, null);
+        } catch (Exception exception) {
+            log.warn("保存项目：{}，提交：{}的 sdk 失败，message：{}", taskProgressInfo.getProjectName(), commitId, exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * 读取插件在项目中输出的代码生成统计报告
+     *
+     * @param projectFilepath 项目目录
+     * @return 统计报告
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> loadMetricsReports(String projectFilepath) {
+        List<Path> paths = findMetricsReports(projectFilepath);
+        List<Map<String, Object>> result = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            try {
+                result.add(JacksonUtils.parse(new String(Files.readAllBytes(path), StandardCharsets.UTF_8), Map.class));
+            } catch (IOException | RuntimeException exception) {
+                log.warn("读取代码生成统计报告失败，path = {}，message = {}", path, exception.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 删除项目中已经存在的代码生成统计报告
+     *
+     * @param projectFilepath 项目目录
+     */
+    private static void deleteMetricsReports(String projectFilepath) {
+        for (Path path : findMetricsReports(projectFilepath)) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException exception) {
+                log.warn("删除代码生成统计报告失败，path = {}，message = {}", path, exception.getMessage());
+            }
+        }
+    }
+
+    private static List<Path> findMetricsReports(String projectFilepath) {
+        Path root = Paths.get(projectFilepath);
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> stream = Files.find(root, METRICS_REPORT_MAX_DEPTH, (path, attributes) -> attributes.isRegularFile()
+                && path.getFileName().toString().endsWith(METRICS_REPORT_SUFFIX)
+                && path.getParent().endsWith(METRICS_REPORT_DIR))) {
+            return stream.sorted().collect(Collectors.toList());
+        } catch (IOException exception) {
+            log.warn("查找代码生成统计报告失败，project = {}，message = {}", projectFilepath, exception.getMessage());
+            return Collections.emptyList();
+        }
+    }
 
     /**
      * 尝试删除本地仓库
@@ -160,6 +283,10 @@ public class SourceCodeManagerTaskService implements CodegenTaskService {
      * @param info 任务信息
      */
     private void tryDeleteLocalRepository(CodegenTaskInfo info) {
+        if (sourcecodeRepository.isReuseLocalRepository()) {
+            // 本地仓库在任务之间复用，保留构建结果
+            return;
+        }
         log.info("try delete local repository task = {}", info);
         String localDirectory = sourcecodeRepository.getLocalDirectory(info.getProjectName(), info.getBranch());
         CodegenFileUtils.deleteDirectory(localDirectory);
@@ -8,6 +8,8 @@ import org.springframework.util.StringUtils;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 调用maven命令
@@ -58,6 +60,24 @@ public final class MavenCommandInvokeUtils {
      * @param profiles    profiles
      */
     public static void execute(String command, String mavenHome, String pomFilepath, String profiles) {
+        execute(Collections.singletonList(command), mavenHome, pomFilepath, profiles, request -> {
+        });
+    }
+
+    /**
+     * 在一次 maven 构建中按顺序执行多个目标
+     *
+     * @param goals             maven 目标，如：compile、test-compile
+     * @param pomFilepath       要操控的pom文件的系统路径
+     * @param profiles          profiles
+     * @param requestCustomizer 用于设置参与构建的模块（-pl）、并行线程数（-T）等参数
+     * @return maven 进程的退出码，调用失败时返回 -1
+     */
+    public static int execute(List<String> goals, String pomFilepath, String profiles, Consumer<InvocationRequest> requestCustomizer) {
+        return execute(goals, MAVEN_HOME, pomFilepath, profiles, requestCustomizer);
+    }
+
+    private static int execute(List<String> goals, String mavenHome, String pomFilepath, String profiles, Consumer<InvocationRequest> requestCustomizer) {
         InvocationRequest request = new DefaultInvocationRequest();
         //想要操控的pom文件的位置
         if (pomFilepath != null) {
@@ -67,20 +87,22 @@ public final class MavenCommandInvokeUtils {
             request.setJavaHome(new File(JAVA_HOME));
         }
         //操控的maven命令
-        request.setGoals(Collections.singletonList(command));
+        request.setGoals(goals);
         if (profiles != null) {
             request.setProfiles(Arrays.asList(profiles.split(",")));
         }
+        requestCustomizer.accept(request);
         Invoker invoker = new DefaultInvoker();
         if (mavenHome != null) {
             invoker.setMavenHome(new File(mavenHome));
         }
         invoker.setLogger(new SystemOutLogger());
         try {
-            invoker.execute(request);
+            return invoker.execute(request).getExitCode();
         } catch (MavenInvocationException exception) {
             log.error("调用maven命令失败：{}", exception.getMessage(), exception);
         }
+        return -1;
     }
 
     private static String getSystemEnv(String... names) {
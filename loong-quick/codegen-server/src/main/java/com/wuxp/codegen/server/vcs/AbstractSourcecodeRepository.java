@@ -1,5 +1,8 @@
 package com.wuxp.codegen.server.vcs;
 
+import com.wuxp.codegen.core.jfr.CodegenEventType;
+import com.wuxp.codegen.core.jfr.CodegenFlightRecorder;
+import com.wuxp.codegen.core.jfr.CodegenRecording;
 import com.wuxp.codegen.core.util.CodegenFileUtils;
 import com.wuxp.codegen.server.config.SourcecodeRepositoryProperties;
 import com.wuxp.codegen.server.vcs.support.AbstractScmAccessor;
@@ -23,27 +26,56 @@ public abstract class AbstractSourcecodeRepository extends AbstractScmAccessor i
     @Override
     public String checkout(String projectName, String branch) {
         File workingDirectory = this.getWorkingDirectory(projectName, branch);
-        synchronized (this) {
-            if (workingDirectory.exists()) {
-                // TODO 做更新？
-                CodegenFileUtils.deleteDirectory(workingDirectory.getAbsolutePath());
-            }
-            boolean mkdir = workingDirectory.mkdir();
-            if (mkdir) {
-                log.info("创建本地仓库目录：{}", workingDirectory.getAbsolutePath());
-            }
-        }
-
+        CodegenRecording recording = CodegenFlightRecorder.begin(CodegenEventType.VCS_CHECKOUT);
         try {
+            if (isReuseLocalRepository() && isLocalRepository(workingDirectory) && tryUpdateProject(projectName, branch, workingDirectory)) {
+                return workingDirectory.getAbsolutePath();
+            }
+            resetWorkingDirectory(workingDirectory);
             this.clone(projectName, branch, workingDirectory);
         } catch (Exception exception) {
             workingDirectory.deleteOnExit();
             log.error("从源代码平台{}拉取代码失败，项目名称：{}，分支：{}，message：{}", getUri(), projectName, branch, exception.getMessage(), exception);
             throw new VcsException(exception);
+        } finally {
+            recording.className(projectName).detail(branch).record();
         }
         return workingDirectory.getAbsolutePath();
     }
 
+    private boolean tryUpdateProject(String projectName, String branch, File workingDirectory) {
+        try {
+            this.updateProject(projectName, branch, workingDirectory);
+            if (log.isInfoEnabled()) {
+                log.info("更新本地仓库：{}，项目名称：{}，分支：{}", workingDirectory.getAbsolutePath(), projectName, branch);
+            }
+            return true;
+        } catch (Exception exception) {
+            log.warn("更新本地仓库失败，重新拉取代码，项目名称：{}，分支：{}，message：{}", projectName, branch, exception.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void resetWorkingDirectory(File workingDirectory) {
+        if (workingDirectory.exists()) {
+            CodegenFileUtils.deleteDirectory(workingDirectory.getAbsolutePath());
+        }
+        boolean mkdir = workingDirectory.mkdirs();
+        if (mkdir) {
+            log.info("创建本地仓库目录：{}", workingDirectory.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 用于判断本地仓库是否可以通过 {@link #updateProject(String, String, File)} 增量更新
+     *
+     * @param workingDirectory 本地仓库目录
+     * @return <code>true</code> 是一个有效的本地仓库
+     */
+    protected boolean isLocalRepository(File workingDirectory) {
+        return false;
+    }
+
     @Override
     public void deleteLocalRepository(String projectName, String branch) {
         deleteLocalRepository(getWorkingDirectory(projectName, branch));
@@ -95,6 +127,10 @@ public abstract class AbstractSourcecodeRepository extends AbstractScmAccessor i
     }
 
     private void deleteLocalRepository(File file) {
+        if (isReuseLocalRepository()) {
+            // 本地仓库在任务之间复用
+            return;
+        }
         if (log.isInfoEnabled()) {
             log.info("delete local repository,filepath={}", file.getAbsolutePath());
         }
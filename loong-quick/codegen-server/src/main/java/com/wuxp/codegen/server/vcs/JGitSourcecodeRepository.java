@@ -1,40 +1,61 @@
 package com.wuxp.codegen.server.vcs;
 
-import com.wuxp.codegen.server.config.SourcecodeRepositoryProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jgit.api.CloneCommand;
-import org.eclipse.jgit.api.FetchCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.eclipse.jgit.api.errors.TransportException;
-import org.eclipse.jgit.lib.ProgressMonitor;
-import org.eclipse.jgit.lib.Ref;
-import org.eclipse.jgit.lib.TextProgressMonitor;
+import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.RefSpec;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.util.FS;
+import org.springframework.util.FileSystemUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * 从git拉取代码
+ * <p>
+ * 每个项目在本地保存一个裸仓库（镜像），通过增量 fetch 更新；每个分支的工作目录通过 objects/info/alternates 共享镜像中的对象，
+ * 不需要复制对象，更新时只切换到镜像中分支的最新提交。工作目录在任务之间复用，target 等未跟踪的文件会被保留
+ * </p>
  *
  * @author wuxp
  */
 @Slf4j
 public class JGitSourcecodeRepository extends AbstractSourcecodeRepository {
 
-    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+    private static final String BRANCH_REF_PREFIX = Constants.R_HEADS;
+
+    /**
+     * 镜像仓库的目录名称，位于 basedir 下
+     */
+    private static final String MIRRORS_DIRECTORY_NAME = ".mirrors";
+
+    private static final RefSpec MIRROR_REF_SPEC = new RefSpec("+refs/heads/*:refs/heads/*");
 
     private final JGitFactory gitFactory;
 
     private final ProgressMonitor progressMonitor;
 
+    /**
+     * 每个项目镜像的锁，同一个项目的不同分支同时 checkout 时串行更新镜像
+     */
+    private final Map<String, Object> mirrorLocks = new ConcurrentHashMap<>();
+
     public JGitSourcecodeRepository(SourceCodeRepositoryAccessProperties properties) {
         super(properties);
         gitFactory = new JGitFactory(false);
@@ -47,10 +68,12 @@ public class JGitSourcecodeRepository extends AbstractSourcecodeRepository {
         try {
             Collection<Ref> refs = Git.lsRemoteRepository()
                     .setRemote(remoteRepositoryUrl)
+                    .setHeads(true)
+                    .setCredentialsProvider(credentialsProvider())
                     .call();
             return refs.stream().map(Ref::getName)
                     .filter(name -> name.startsWith(BRANCH_REF_PREFIX))
-                    .map(name -> name.replace(BRANCH_REF_PREFIX, ""))
+                    .map(name -> name.substring(BRANCH_REF_PREFIX.length()))
                     .collect(Collectors.toList());
         } catch (GitAPIException exception) {
             log.error("获取git仓库{}的分支列表失败，项目名称：{}，message：{}", getUri(), projectName, exception.getMessage(), exception);
@@ -60,46 +83,195 @@ public class JGitSourcecodeRepository extends AbstractSourcecodeRepository {
 
     @Override
     public boolean exist(String projectName, String branch) {
+        // 优先使用本地镜像判断，避免访问远程仓库
+        File mirrorDirectory = getMirrorDirectory(projectName);
+        if (isGitRepository(mirrorDirectory)) {
+            try (Repository repository = gitFactory.getGitByOpen(mirrorDirectory).getRepository()) {
+                if (repository.exactRef(BRANCH_REF_PREFIX + branch) != null) {
+                    return true;
+                }
+            } catch (IOException exception) {
+                log.warn("读取本地镜像{}失败，message：{}", mirrorDirectory.getAbsolutePath(), exception.getMessage());
+            }
+        }
+        return getBranchList(projectName).contains(branch);
+    }
 
+    @Override
+    public String getRemoteRevision(String projectName, String branch) {
         String remoteRepositoryUrl = this.getRemoteRepositoryUrl(projectName);
         try {
-            Collection<Ref> refCollection = Git.lsRemoteRepository().setRemote(remoteRepositoryUrl).call();
-            return !refCollection.isEmpty();
+            Map<String, Ref> refs = Git.lsRemoteRepository()
+                    .setRemote(remoteRepositoryUrl)
+                    .setHeads(true)
+                    .setCredentialsProvider(credentialsProvider())
+                    .callAsMap();
+            Ref ref = refs.get(BRANCH_REF_PREFIX + branch);
+            return ref == null || ref.getObjectId() == null ? null : ref.getObjectId().name();
         } catch (GitAPIException exception) {
-            log.error("git仓库{}不存在，项目名称：{}，分支：{}的代码，message：{}", getUri(), projectName, branch, exception.getMessage(), exception);
+            log.warn("获取项目：{}，分支：{}的最新提交失败，message：{}", projectName, branch, exception.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public String getLocalRevision(String projectName, String branch) {
+        File workingDirectory = getWorkingDirectory(projectName, branch);
+        if (!isLocalRepository(workingDirectory)) {
+            return null;
+        }
+        try (Git git = openGitRepository(projectName, branch)) {
+            ObjectId head = git.getRepository().resolve(Constants.HEAD);
+            return head == null ? null : head.name();
+        } catch (IOException exception) {
+            log.warn("读取本地仓库{}失败，message：{}", workingDirectory.getAbsolutePath(), exception.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    @Override
+    public boolean isReuseLocalRepository() {
+        return true;
+    }
+
+    @Override
+    protected boolean isLocalRepository(File workingDirectory) {
+        return isGitRepository(new File(workingDirectory, Constants.DOT_GIT));
     }
 
     @Override
     protected void clone(String projectName, String branch, File workingDirectory) throws GitAPIException {
-        String remoteRepositoryUrl = this.getRemoteRepositoryUrl(projectName);
+        ObjectId commitId = updateMirror(projectName, branch);
         if (log.isDebugEnabled()) {
-            log.debug("Checking out {} to: {}", remoteRepositoryUrl, workingDirectory.getAbsolutePath());
+            log.debug("Checking out {} to: {}", commitId.name(), workingDirectory.getAbsolutePath());
+        }
+        try {
+            Git.init().setDirectory(workingDirectory).call().close();
+            linkMirrorObjects(new File(workingDirectory, Constants.DOT_GIT), getMirrorDirectory(projectName));
+            try (Git git = gitFactory.getGitByOpen(workingDirectory)) {
+                checkoutCommit(git, branch, commitId);
+            }
+        } catch (IOException exception) {
+            throw new TransportException("创建本地仓库失败", exception);
         }
-        CloneCommand cloneCommand = gitFactory.getCloneCommandByCloneRepository();
-        cloneCommand.setURI(remoteRepositoryUrl)
-                .setBranch(branch)
-                .setDirectory(workingDirectory)
-                .setCredentialsProvider(credentialsProvider())
-                .setProgressMonitor(progressMonitor)
-                .call();
     }
 
     @Override
     protected void updateProject(String projectName, String branch, File workingDirectory) throws GitAPIException {
-        FetchCommand fetchCommand = null;
-        try {
-            fetchCommand = openGitRepository(projectName, branch).fetch();
+        ObjectId commitId = updateMirror(projectName, branch);
+        try (Git git = openGitRepository(projectName, branch)) {
+            checkoutCommit(git, branch, commitId);
         } catch (IOException exception) {
             throw new TransportException("打开本地仓库失败", exception);
         }
-        fetchCommand
-                .setForceUpdate(true)
-                .setProgressMonitor(progressMonitor)
+    }
+
+    /**
+     * 创建或增量更新项目的镜像
+     *
+     * @return 分支最新的提交
+     */
+    private ObjectId updateMirror(String projectName, String branch) throws GitAPIException {
+        File mirrorDirectory = getMirrorDirectory(projectName);
+        synchronized (mirrorLocks.computeIfAbsent(projectName, key -> new Object())) {
+            if (isGitRepository(mirrorDirectory)) {
+                fetchMirror(mirrorDirectory);
+            } else {
+                cloneMirror(projectName, mirrorDirectory);
+            }
+            try (Git git = gitFactory.getGitByOpen(mirrorDirectory)) {
+                Ref ref = git.getRepository().exactRef(BRANCH_REF_PREFIX + branch);
+                if (ref == null) {
+                    throw new RefNotFoundException(String.format("项目：%s 不存在分支：%s", projectName, branch));
+                }
+                return ref.getObjectId();
+            } catch (IOException exception) {
+                throw new TransportException("打开本地镜像失败", exception);
+            }
+        }
+    }
+
+    private void fetchMirror(File mirrorDirectory) throws GitAPIException {
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching mirror: {}", mirrorDirectory.getAbsolutePath());
+        }
+        try (Git git = gitFactory.getGitByOpen(mirrorDirectory)) {
+            git.fetch()
+                    .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                    .setRefSpecs(MIRROR_REF_SPEC)
+                    .setRemoveDeletedRefs(true)
+                    .setCredentialsProvider(credentialsProvider())
+                    .setProgressMonitor(progressMonitor)
+                    .call();
+        } catch (IOException exception) {
+            throw new TransportException("打开本地镜像失败", exception);
+        }
+    }
+
+    private void cloneMirror(String projectName, File mirrorDirectory) throws GitAPIException {
+        String remoteRepositoryUrl = this.getRemoteRepositoryUrl(projectName);
+        if (log.isInfoEnabled()) {
+            log.info("Cloning mirror {} to: {}", remoteRepositoryUrl, mirrorDirectory.getAbsolutePath());
+        }
+        deleteQuietly(mirrorDirectory);
+        CloneCommand cloneCommand = gitFactory.getCloneCommandByCloneRepository();
+        try {
+            cloneCommand.setURI(remoteRepositoryUrl)
+                    .setBare(true)
+                    .setCloneAllBranches(true)
+                    .setDirectory(mirrorDirectory)
+                    .setCredentialsProvider(credentialsProvider())
+                    .setProgressMonitor(progressMonitor)
+                    .call()
+                    .close();
+        } catch (GitAPIException | RuntimeException exception) {
+            // 避免留下不完整的镜像
+            deleteQuietly(mirrorDirectory);
+            throw exception;
+        }
+    }
+
+    /**
+     * 工作目录通过 alternates 共享镜像中的对象
+     */
+    private static void linkMirrorObjects(File gitDirectory, File mirrorDirectory) throws IOException {
+        File alternates = new File(gitDirectory, String.join(File.separator, Constants.OBJECTS, Constants.INFO_ALTERNATES));
+        Files.createDirectories(alternates.getParentFile().toPath());
+        String objects = new File(mirrorDirectory, Constants.OBJECTS).getAbsolutePath();
+        Files.write(alternates.toPath(), (objects + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将分支切换到指定的提交，只更新发生变化的文件，保留未跟踪的文件
+     */
+    private static void checkoutCommit(Git git, String branch, ObjectId commitId) throws GitAPIException, IOException {
+        RefUpdate refUpdate = git.getRepository().updateRef(Constants.HEAD);
+        RefUpdate.Result result = refUpdate.link(BRANCH_REF_PREFIX + branch);
+        if (result == RefUpdate.Result.LOCK_FAILURE || result == RefUpdate.Result.IO_FAILURE) {
+            throw new IOException(String.format("切换到分支：%s 失败，result：%s", branch, result));
+        }
+        git.reset()
+                .setMode(ResetCommand.ResetType.HARD)
+                .setRef(commitId.name())
                 .call();
     }
 
+    private File getMirrorDirectory(String projectName) {
+        return new File(String.join(File.separator, getBasedir(), MIRRORS_DIRECTORY_NAME, projectName + Constants.DOT_GIT_EXT));
+    }
+
+    private static boolean isGitRepository(File gitDirectory) {
+        return RepositoryCache.FileKey.isGitRepository(gitDirectory, FS.DETECTED);
+    }
+
+    private static void deleteQuietly(File directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory.toPath());
+        } catch (IOException exception) {
+            log.warn("删除目录{}失败，message：{}", directory.getAbsolutePath(), exception.getMessage());
+        }
+    }
+
     @Override
     protected String getRemoteRepositoryUrl(String projectName) {
         String remoteRepositoryUrl = super.getRemoteRepositoryUrl(projectName);
@@ -111,7 +283,11 @@ public class JGitSourcecodeRepository extends AbstractSourcecodeRepository {
     }
 
     private CredentialsProvider credentialsProvider() {
-        return new UsernamePasswordCredentialsProvider(getUsername(), getPassword());
+        if (getUsername() == null) {
+            // 匿名访问
+            return null;
+        }
+        return new UsernamePasswordCredentialsProvider(getUsername(), getPassword() == null ? "" : getPassword());
     }
 
     private Git openGitRepository(String projectName, String branch) throws IOException {
@@ -52,6 +52,37 @@ public interface SourcecodeRepository {
      */
     boolean exist(String projectName, String branch);
 
+    /**
+     * 获取远程仓库中分支最新的提交，用于在 checkout 之前判断该提交是否已经生成过
+     *
+     * @param projectName 项目名称
+     * @param branch      分支名称
+     * @return 提交 id，不支持或者获取失败时返回 null
+     */
+    default String getRemoteRevision(String projectName, String branch) {
+        return null;
+    }
+
+    /**
+     * 获取本地仓库当前 checkout 的提交
+     *
+     * @param projectName 项目名称
+     * @param branch      分支名称
+     * @return 提交 id，不支持或者获取失败时返回 null
+     */
+    default String getLocalRevision(String projectName, String branch) {
+        return null;
+    }
+
+    /**
+     * 本地仓库是否在任务之间复用，复用时 checkout 只做增量更新，任务结束后不删除本地仓库（保留 target 等构建结果）
+     *
+     * @return <code>true</code> 复用本地仓库
+     */
+    default boolean isReuseLocalRepository() {
+        return false;
+    }
+
     /**
      * 删除本地的已经下载的源代码路径
      *
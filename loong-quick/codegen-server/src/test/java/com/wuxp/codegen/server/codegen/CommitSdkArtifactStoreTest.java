@@ -0,0 +1,115 @@
+package com.wuxp.codegen.server.codegen;
+
+import com.wuxp.codegen.core.ClientProviderType;
+import com.wuxp.codegen.server.plugins.CodegenPluginExecuteStrategy;
+import com.wuxp.codegen.starter.enums.OpenApiType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+class CommitSdkArtifactStoreTest {
+
+    private static final String REPOSITORY = "github";
+
+    private static final String PROJECT_NAME = "example";
+
+    private static final String COMMIT_ID = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPublishAndGet() throws Exception {
+        Path project = tempDir.resolve("project");
+        Path module = project.resolve("web");
+        Path sdk = module.resolve("build/codegen-sdk/loong/swagger_2/typescript_feign/api");
+        Files.createDirectories(sdk);
+        Files.write(sdk.resolve("UserFeignClient.ts"), "export default {}".getBytes());
+        Path swagger3Sdk = module.resolve("build/codegen-sdk/loong/swagger_3/typescript_feign/api");
+        Files.createDirectories(swagger3Sdk);
+        Files.write(swagger3Sdk.resolve("UserFeignClient.ts"), "export default {}".getBytes());
+        Files.write(module.resolve("pom.xml"), new byte[0]);
+
+        CommitSdkArtifactStore store = new CommitSdkArtifactStore(tempDir.resolve("store").toString(), new ModuleCodegenPluginExecuteStrategy(module));
+
+        Assertions.assertFalse(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null));
+        Assertions.assertNull(store.get(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null, ClientProviderType.TYPESCRIPT_FEIGN));
+        // 只构建了 typescript_feign，其他类型的构建不视为完成
+        store.publish(REPOSITORY, PROJECT_NAME, COMMIT_ID, project.toString(), "web", ClientProviderType.TYPESCRIPT_FEIGN);
+        Assertions.assertTrue(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", ClientProviderType.TYPESCRIPT_FEIGN));
+        Assertions.assertFalse(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", ClientProviderType.DART_FEIGN));
+        Assertions.assertFalse(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null));
+        // 不同 OpenApiType 的 sdk 分别保存
+        File swagger2 = store.get(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", OpenApiType.SWAGGER_2, ClientProviderType.TYPESCRIPT_FEIGN);
+        File swagger3 = store.get(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", OpenApiType.SWAGGER_3, ClientProviderType.TYPESCRIPT_FEIGN);
+        Assertions.assertNotNull(swagger2);
+        Assertions.assertNotNull(swagger3);
+        Assertions.assertNotEquals(swagger2, swagger3);
+        Assertions.assertEquals(swagger2, store.get(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null, ClientProviderType.TYPESCRIPT_FEIGN));
+        Assertions.assertNull(store.get(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", null, ClientProviderType.DART_FEIGN));
+
+        // 全部模块、全部类型的构建
+        long lastModified = swagger2.lastModified();
+        store.publish(REPOSITORY, PROJECT_NAME, COMMIT_ID, project.toString(), null, null);
+        Assertions.assertTrue(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null));
+        Assertions.assertTrue(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, "web", ClientProviderType.DART_FEIGN));
+        // 已经保存的 sdk 不重复保存
+        Assertions.assertEquals(lastModified, swagger2.lastModified());
+
+        // 执行插件之前删除上一次生成的 sdk
+        store.deleteSdkOutputs(project.toString());
+        Assertions.assertFalse(Files.exists(sdk));
+    }
+
+    @Test
+    void testPublishWithoutSdk() throws Exception {
+        Path project = tempDir.resolve("project");
+        Path module = project.resolve("web");
+        Files.createDirectories(module.resolve("build/codegen-sdk/loong/swagger_2"));
+        Files.write(module.resolve("pom.xml"), new byte[0]);
+
+        CommitSdkArtifactStore store = new CommitSdkArtifactStore(tempDir.resolve("store").toString(), new ModuleCodegenPluginExecuteStrategy(module));
+        store.publish(REPOSITORY, PROJECT_NAME, COMMIT_ID, project.toString(), null, null);
+        // 没有生成 sdk 时不标记为完成
+        Assertions.assertFalse(store.isCompleted(REPOSITORY, PROJECT_NAME, COMMIT_ID, null, null));
+        // 不保留临时目录
+        Files.createDirectories(tempDir.resolve("store"));
+        try (Stream<Path> stream = Files.walk(tempDir.resolve("store"))) {
+            Assertions.assertFalse(stream.anyMatch(path -> path.getFileName().toString().startsWith(".staging-")));
+        }
+    }
+
+    /**
+     * 只有一个模块，输出目录为模块的 build 目录
+     */
+    private static class ModuleCodegenPluginExecuteStrategy implements CodegenPluginExecuteStrategy {
+
+        private final Path module;
+
+        ModuleCodegenPluginExecuteStrategy(Path module) {
+            this.module = module;
+        }
+
+        @Override
+        public void executeCodegenPlugin(String projectBaseDir, String modelName, ClientProviderType type) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> findModuleFiles(String projectBaseDir, String modelName) {
+            return Collections.singletonList(module.resolve("pom.xml").toString());
+        }
+
+        @Override
+        public String getOutputPath(String moduleFile) {
+            return module.resolve("build").toString();
+        }
+    }
+}
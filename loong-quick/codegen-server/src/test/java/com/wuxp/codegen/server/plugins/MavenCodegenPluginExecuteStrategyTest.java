@@ -3,7 +3,11 @@ package com.wuxp.codegen.server.plugins;
 import com.wuxp.codegen.core.util.PathResolveUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 class MavenCodegenPluginExecuteStrategyTest {
@@ -19,4 +23,28 @@ class MavenCodegenPluginExecuteStrategyTest {
         Assertions.assertFalse(moduleFiles.isEmpty());
         findPluginExecuteDirStrategy.executeCodegenPlugin(projectDir, null, null);
     }
+
+    @Test
+    void testGetOutputPath(@TempDir Path tempDir) throws Exception {
+        CodegenPluginExecuteStrategy strategy = new MavenCodegenPluginExecuteStrategy();
+        Path pom = tempDir.resolve("pom.xml");
+        Files.write(pom, getPom("").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(tempDir.resolve("target").toString(), strategy.getOutputPath(pom.toString()));
+
+        Files.write(pom, getPom("<configuration><outputPath>${project.build.directory}/sdk</outputPath></configuration>").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(tempDir.resolve("target").resolve("sdk").toString(), strategy.getOutputPath(pom.toString()));
+
+        Files.write(pom, getPom("<configuration><outputPath>../sdk</outputPath></configuration>").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(tempDir.resolveSibling("sdk").toString(), strategy.getOutputPath(pom.toString()));
+
+        // 无法解析的表达式使用构建目录
+        Files.write(pom, getPom("<configuration><outputPath>${sdk.dir}</outputPath></configuration>").getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(tempDir.resolve("target").toString(), strategy.getOutputPath(pom.toString()));
+    }
+
+    private static String getPom(String configuration) {
+        return "<project><modelVersion>4.0.0</modelVersion><groupId>example</groupId><artifactId>web</artifactId><version>1.0</version>"
+                + "<build><plugins><plugin><groupId>com.wuxp.codegen</groupId><artifactId>wuxp-codegen-loong-maven-plugin</artifactId>"
+                + configuration + "</plugin></plugins></build></project>";
+    }
 }
@@ -0,0 +1,43 @@
+package com.wuxp.codegen.server.plugins;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+class ReactorMavenCodegenPluginExecuteStrategyTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFindReactorModules() throws IOException {
+        writePom(tempDir, "<modules><module>core</module></modules>"
+                + "<profiles>"
+                + "<profile><id>web</id><modules><module>web</module></modules></profile>"
+                + "<profile><id>default</id><activation><activeByDefault>true</activeByDefault></activation><modules><module>example</module></modules></profile>"
+                + "</profiles>");
+        writePom(tempDir.resolve("core"), "");
+        writePom(tempDir.resolve("web"), "");
+        writePom(tempDir.resolve("example"), "");
+
+        // 没有指定 profile 时默认激活的 profile 生效
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(tempDir, tempDir.resolve("core"), tempDir.resolve("example"))),
+                new ReactorMavenCodegenPluginExecuteStrategy(null, null).findReactorModules(tempDir));
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(tempDir, tempDir.resolve("core"), tempDir.resolve("web"))),
+                new ReactorMavenCodegenPluginExecuteStrategy("jcenter, web", null).findReactorModules(tempDir));
+    }
+
+    private static void writePom(Path directory, String content) throws IOException {
+        Files.createDirectories(directory);
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>example</groupId><artifactId>" + directory.getFileName()
+                + "</artifactId><version>1.0</version>" + content + "</project>";
+        Files.write(directory.resolve("pom.xml"), pom.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.wuxp.codegen.server.vcs;
+
+import com.wuxp.codegen.server.config.SourcecodeRepositoryProperties;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+class JGitSourcecodeRepositoryWorkspaceTest {
+
+    private static final String PROJECT_NAME = "example";
+
+    private static final String BRANCH = "main";
+
+    @TempDir
+    Path tempDir;
+
+    private Git remote;
+
+    private JGitSourcecodeRepository sourcecodeRepository;
+
+    @BeforeEach
+    void setup() throws Exception {
+        Path remotes = tempDir.resolve("remotes");
+        remote = Git.init().setDirectory(remotes.resolve(PROJECT_NAME + ".git").toFile()).setInitialBranch(BRANCH).call();
+        commit("pom.xml", "v1");
+
+        SourcecodeRepositoryProperties properties = new SourcecodeRepositoryProperties();
+        properties.setUri(remotes.toString());
+        properties.setBasedir(tempDir.resolve("workspace").toString());
+        sourcecodeRepository = new JGitSourcecodeRepository(properties);
+    }
+
+    @Test
+    void testCheckoutReuseWorkspace() throws Exception {
+        Path workingDirectory = Paths.get(sourcecodeRepository.checkout(PROJECT_NAME, BRANCH));
+        Assertions.assertEquals("v1", read(workingDirectory.resolve("pom.xml")));
+        Path buildOutput = workingDirectory.resolve("target").resolve("classes.marker");
+        Files.createDirectories(buildOutput.getParent());
+        Files.write(buildOutput, new byte[0]);
+
+        commit("pom.xml", "v2");
+        Assertions.assertEquals(workingDirectory.toString(), sourcecodeRepository.checkout(PROJECT_NAME, BRANCH));
+        Assertions.assertEquals("v2", read(workingDirectory.resolve("pom.xml")));
+        Assertions.assertTrue(Files.exists(buildOutput));
+        String head = remote.getRepository().resolve("HEAD").name();
+        Assertions.assertEquals(head, sourcecodeRepository.getRemoteRevision(PROJECT_NAME, BRANCH));
+        Assertions.assertEquals(head, sourcecodeRepository.getLocalRevision(PROJECT_NAME, BRANCH));
+        Assertions.assertNull(sourcecodeRepository.getRemoteRevision(PROJECT_NAME, "missing"));
+        // 对象保存在镜像中
+        try (Stream<Path> objects = Files.list(workingDirectory.resolve(".git").resolve("objects"))) {
+            Assertions.assertTrue(objects.noneMatch(path -> path.getFileName().toString().length() == 2));
+        }
+        Assertions.assertTrue(sourcecodeRepository.exist(PROJECT_NAME, BRANCH));
+        Assertions.assertFalse(sourcecodeRepository.exist(PROJECT_NAME, "missing"));
+    }
+
+    private void commit(String filename, String content) throws Exception {
+        File file = new File(remote.getRepository().getWorkTree(), filename);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        remote.add().addFilepattern(filename).call();
+        remote.commit().setMessage(content).call();
+    }
+
+    private static String read(Path path) throws Exception {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+}
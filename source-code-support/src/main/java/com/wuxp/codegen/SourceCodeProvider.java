@@ -1,13 +1,10 @@
 package com.wuxp.codegen;
 
+import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.*;
-import com.github.javaparser.utils.CollectionStrategy;
-import com.github.javaparser.utils.ParserCollectionStrategy;
-import com.github.javaparser.utils.ProjectRoot;
-import com.github.javaparser.utils.SourceZip;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrentReferenceHashMap;
@@ -19,10 +16,10 @@ import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.github.javaparser.utils.CodeGenerationUtils.mavenModuleRoot;
 
@@ -64,39 +61,73 @@ public class SourceCodeProvider {
 
 
     /**
-     * test source code dir
+     * sources.jar 中编译单元缓存的最大数量
      */
-    private static final String TEST_SOURCE_DIR = String.join(File.separator, "src", "test", "java");
+    private static final int MAX_SOURCES_JAR_COMPILATION_UNIT_CACHE_SIZE = 1024;
 
     /**
-     * 源代码编译结果缓存
+     * 打开的 sources.jar 的最大数量
      */
-    private final Map<Class<?>, Optional<CompilationUnit>> compilationUnitCaches;
+    private static final int MAX_SOURCES_JAR_INDEX_SIZE = 64;
 
     /**
-     * 项目roots缓存
+     * sources.jar 索引，进程内共享，按照最近最少使用淘汰，淘汰时关闭 jar 文件
      *
-     * @key 模块源码路径
-     * @value ProjectRoot
+     * @key sources.jar版本 {@link SourcesJarIndex#getVersion(File)}
+     * @value sources.jar索引
      */
-    private final Map<Path, ProjectRoot> projectRoots;
+    private static final Map<String, SourcesJarIndex> SOURCES_JAR_INDEXES = new LinkedHashMap<String, SourcesJarIndex>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SourcesJarIndex> eldest) {
+            if (size() > MAX_SOURCES_JAR_INDEX_SIZE) {
+                eldest.getValue().close();
+                return true;
+            }
+            return false;
+        }
+    };
 
     /**
-     * 源码jar解析缓存
+     * sources.jar 中已经解析的编译单元，按照最近最少使用淘汰
      *
-     * @key sources.jar路径
-     * @value sources.jar解析结果
+     * @key sources.jar版本!源代码文件路径
+     * @value 编译单元
+     */
+    private static final Map<String, Optional<CompilationUnit>> SOURCES_JAR_COMPILATION_UNITS = Collections.synchronizedMap(
+            new LinkedHashMap<String, Optional<CompilationUnit>>(256, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Optional<CompilationUnit>> eldest) {
+                    return size() > MAX_SOURCES_JAR_COMPILATION_UNIT_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * 源代码编译结果缓存
      */
-    private final Map<String, Map<Path, ParseResult<CompilationUnit>>> sourcesJarCaches;
+    private final Map<Class<?>, Optional<CompilationUnit>> compilationUnitCaches;
 
+    /**
+     * 类型成员索引缓存
+     */
+    private final Map<Class<?>, Optional<TypeMemberIndex>> typeMemberIndexes;
 
-    private final CollectionStrategy parserCollectionStrategy;
+    /**
+     * 模块源代码文件索引缓存
+     *
+     * @key 模块源码路径
+     * @value 源代码文件索引
+     */
+    private final Map<Path, SourceFileIndex> sourceFileIndexes;
 
     public SourceCodeProvider() {
         compilationUnitCaches = new ConcurrentReferenceHashMap<>(256, ConcurrentReferenceHashMap.ReferenceType.WEAK);
-        projectRoots = new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
-        sourcesJarCaches = new ConcurrentReferenceHashMap<>(8, ConcurrentReferenceHashMap.ReferenceType.WEAK);
-        parserCollectionStrategy = new ParserCollectionStrategy();
+        // 使用软引用，避免每次 GC 后都重新构建索引
+        typeMemberIndexes = new ConcurrentReferenceHashMap<>(256, ConcurrentReferenceHashMap.ReferenceType.SOFT);
+        sourceFileIndexes = new ConcurrentHashMap<>(16);
     }
 
 
@@ -109,33 +140,43 @@ public class SourceCodeProvider {
     @SuppressWarnings({"rawtypes", "unchecked"})
     public <T extends TypeDeclaration> Optional<T> getTypeDeclaration(Class<?> clazz) {
         Assert.notNull(clazz, "clazz must not null");
-        Optional<CompilationUnit> unitOptional = this.getCompilationUnit(clazz);
-        if (unitOptional.isPresent()) {
-            CompilationUnit compilationUnit = unitOptional.get();
-            String simpleName = clazz.getSimpleName();
-            Optional<T> optionalTypeDeclaration = compilationUnit.getTypes().stream()
-                    .filter(typeDeclaration -> typeDeclaration.getNameAsString().equals(simpleName))
-                    .map(typeDeclaration -> (T) typeDeclaration)
-                    .findFirst();
-            if (optionalTypeDeclaration.isPresent()) {
-                return optionalTypeDeclaration;
-            }
-            return compilationUnit.getTypes()
-                    .stream()
-                    // 从节点对象中寻找
-                    .map(typeDeclaration -> typeDeclaration.getMembers()
-                            .stream()
-                            .filter(node -> node instanceof TypeDeclaration)
-                            .map(TypeDeclaration.class::cast)
-                            .filter(bodyDeclaration -> bodyDeclaration.getNameAsString().equals(simpleName))
-                            .map(bodyDeclaration -> (T) bodyDeclaration)
-                            .findFirst()
-                            .orElse(null))
-                    .filter(Objects::nonNull)
-                    .findFirst();
+        return this.getTypeMemberIndex(clazz).map(index -> (T) index.getType().getDeclaration());
+    }
+
+    /**
+     * 获取类的注释
+     *
+     * @param clazz 类对象
+     * @return 解析后的注释
+     */
+    public Optional<SourceJavadoc> getJavadoc(Class<?> clazz) {
+        return this.getTypeMemberIndex(clazz).flatMap(index -> index.getType().getJavadoc());
+    }
 
+    /**
+     * 获取字段（枚举常量）的注释
+     *
+     * @param field 字段定义
+     * @return 解析后的注释
+     */
+    public Optional<SourceJavadoc> getJavadoc(Field field) {
+        String fieldName = field.getName();
+        Optional<TypeMemberIndex> typeMemberIndex = this.getTypeMemberIndex(field.getDeclaringClass());
+        if (field.isEnumConstant()) {
+            return typeMemberIndex.flatMap(index -> index.getEnumConstant(fieldName)).flatMap(TypeMemberIndex.Member::getJavadoc);
         }
-        return Optional.empty();
+        return typeMemberIndex.flatMap(index -> index.getField(fieldName)).flatMap(TypeMemberIndex.Member::getJavadoc);
+    }
+
+    /**
+     * 获取方法的注释
+     *
+     * @param method 方法定义
+     * @return 解析后的注释
+     */
+    public Optional<SourceJavadoc> getJavadoc(Method method) {
+        return this.getMethodMember(method.getDeclaringClass(), method.getName(), method.getParameterTypes())
+                .flatMap(TypeMemberIndex.Member::getJavadoc);
     }
 
     /**
@@ -212,18 +253,10 @@ public class SourceCodeProvider {
      * @param fieldName 字段名称
      * @return Field编译描述对象
      */
-    @SuppressWarnings({"unchecked"})
     public Optional<FieldDeclaration> getFieldDeclaration(Class<?> clazz, String fieldName) {
-        return this.getTypeDeclaration(clazz).flatMap(declaration -> declaration
-                .getMembers()
-                .stream()
-                .filter(item -> item instanceof FieldDeclaration)
-                .filter(item -> {
-                    FieldDeclaration fieldDeclaration = (FieldDeclaration) item;
-                    String name = fieldDeclaration.getVariables().get(0).getName().asString();
-                    return fieldName.equals(name);
-                })
-                .findFirst());
+        return this.getTypeMemberIndex(clazz)
+                .flatMap(index -> index.getField(fieldName))
+                .map(TypeMemberIndex.Member::getDeclaration);
     }
 
     /**
@@ -251,13 +284,9 @@ public class SourceCodeProvider {
      */
     @SuppressWarnings({"rawtypes"})
     public Optional<EnumConstantDeclaration> getEnumConstantDeclaration(Class<? extends Enum> enumClass, String enumConstant) {
-        Optional<EnumDeclaration> typeDeclaration = this.getTypeDeclaration(enumClass);
-        return typeDeclaration.flatMap(declaration -> declaration
-                .getEntries()
-                .stream()
-                .filter(item -> item.asEnumConstantDeclaration().getName().asString().equals(enumConstant))
-                .map(BodyDeclaration::asEnumConstantDeclaration)
-                .findFirst());
+        return this.getTypeMemberIndex(enumClass)
+                .flatMap(index -> index.getEnumConstant(enumConstant))
+                .map(TypeMemberIndex.Member::getDeclaration);
     }
 
     /**
@@ -281,42 +310,18 @@ public class SourceCodeProvider {
      * @param parameterTypes 参数类型列表
      * @return Method编译描述对象
      */
-    @SuppressWarnings({"rawtypes","unchecked"})
+    @SuppressWarnings({"rawtypes"})
     public Optional<MethodDeclaration> getMethodDeclaration(Class<?> clazz, String methodName, Class[] parameterTypes) {
-        String[] parameterTypeNames = Arrays.stream(parameterTypes).map(Class::getName).toArray(String[]::new);
-        return this.getTypeDeclaration(clazz)
-                .flatMap(declaration -> declaration
-                        .getMembers()
-                        .stream()
-                        .filter(item -> item instanceof MethodDeclaration)
-                        .filter(item -> ((MethodDeclaration) item).getName().asString().equals(methodName))
-                        .filter(item -> {
-                            // 参数匹配
-                            MethodDeclaration methodDeclaration = (MethodDeclaration) item;
-                            NodeList<Parameter> parameters = methodDeclaration.getParameters();
-                            String[] parameterTypeSimpleNames = parameters.stream()
-                                    .map(parameter -> parameter.getType().asString())
-                                    .toArray(String[]::new);
-
-                            boolean matchParameterType;
-                            for (int i = 0; i < parameterTypeSimpleNames.length; i++) {
-                                String expectName = parameterTypeNames[i];
-                                String actual = parameterTypeSimpleNames[i];
-                                if (actual.contains(".")) {
-                                    // 参数写了全类名
-                                    matchParameterType = expectName.equals(actual);
-                                } else {
-                                    // 只匹配类型后缀，为了准确加上"."
-                                    matchParameterType = expectName.endsWith(String.format(".%s", actual));
-                                }
-                                if (!matchParameterType) {
-                                    // 不匹配则返回失败
-                                    return false;
-                                }
-                            }
-                            return true;
-                        })
-                        .findFirst());
+        return this.getMethodMember(clazz, methodName, parameterTypes).map(TypeMemberIndex.Member::getDeclaration);
+    }
+
+    @SuppressWarnings({"rawtypes"})
+    private Optional<TypeMemberIndex.MethodMember> getMethodMember(Class<?> clazz, String methodName, Class[] parameterTypes) {
+        String[] parameterTypeNames = new String[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypeNames[i] = parameterTypes[i].getName();
+        }
+        return this.getTypeMemberIndex(clazz).flatMap(index -> index.getMethod(methodName, parameterTypeNames));
     }
 
 
@@ -342,6 +347,38 @@ public class SourceCodeProvider {
     }
 
 
+    private Optional<TypeMemberIndex> getTypeMemberIndex(Class<?> clazz) {
+        return typeMemberIndexes.computeIfAbsent(clazz, key -> this.findTypeDeclaration(key).map(TypeMemberIndex::new));
+    }
+
+    private Optional<TypeDeclaration<?>> findTypeDeclaration(Class<?> clazz) {
+        Optional<CompilationUnit> unitOptional = this.getCompilationUnit(clazz);
+        if (!unitOptional.isPresent()) {
+            return Optional.empty();
+        }
+        CompilationUnit compilationUnit = unitOptional.get();
+        String simpleName = clazz.getSimpleName();
+        Optional<TypeDeclaration<?>> optionalTypeDeclaration = compilationUnit.getTypes().stream()
+                .filter(typeDeclaration -> typeDeclaration.getNameAsString().equals(simpleName))
+                .<TypeDeclaration<?>>map(typeDeclaration -> typeDeclaration)
+                .findFirst();
+        if (optionalTypeDeclaration.isPresent()) {
+            return optionalTypeDeclaration;
+        }
+        return compilationUnit.getTypes()
+                .stream()
+                // 从节点对象中寻找
+                .<TypeDeclaration<?>>map(typeDeclaration -> typeDeclaration.getMembers()
+                        .stream()
+                        .filter(node -> node instanceof TypeDeclaration)
+                        .map(node -> (TypeDeclaration<?>) node)
+                        .filter(bodyDeclaration -> bodyDeclaration.getNameAsString().equals(simpleName))
+                        .findFirst()
+                        .orElse(null))
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
     /**
      * 从源代码路径（classes\sources.jar）获取编译结果
      *
@@ -379,33 +416,23 @@ public class SourceCodeProvider {
         if (mavenModuleRoot == null) {
             return Optional.empty();
         }
-        ProjectRoot projectRoot = projectRoots.computeIfAbsent(mavenModuleRoot, key -> parserCollectionStrategy.collect(mavenModuleRoot));
-        if (projectRoot == null) {
+        SourceFileIndex sourceFileIndex = sourceFileIndexes.computeIfAbsent(mavenModuleRoot, SourceFileIndex::new);
+        boolean isTestClasses = classSourcePath.endsWith(String.format("%s%s", TEST_CLASSES_PATH, File.separator));
+        Optional<Path> sourceFile = sourceFileIndex.find(this.transformClassToPath(clazz), isTestClasses);
+        if (!sourceFile.isPresent()) {
+            log.warn("source file not found,mavenModuleRoot={},clazz={}", mavenModuleRoot, clazz.getName());
+            return Optional.empty();
+        }
+        try {
+            ParseResult<CompilationUnit> result = new JavaParser().parse(sourceFile.get());
+            if (!result.isSuccessful()) {
+                log.warn("parse source file error,sourceFile={},problems={}", sourceFile.get(), result.getProblems());
+            }
+            return result.getResult();
+        } catch (IOException e) {
+            log.warn("read source file error,sourceFile={},message={}", sourceFile.get(), e.getMessage());
             return Optional.empty();
         }
-        boolean isTestClasses = classSourcePath.endsWith(String.format("%s%s", TEST_CLASSES_PATH, File.separator));
-        String sourceFilePath = getSourceFilePath(clazz);
-        // 模块下可能有多个源代码目录，main\test等
-        return projectRoot.getSourceRoots()
-                .stream()
-                .filter(sourceRoot -> {
-                    if (isTestClasses) {
-                        return sourceRoot.getRoot().endsWith(TEST_SOURCE_DIR);
-                    } else {
-                        return true;
-                    }
-                })
-                .map(sourceRoot -> {
-                    try {
-                        return sourceRoot.parse(clazz.getPackage().getName(), sourceFilePath);
-                    } catch (Exception e) {
-                        // 由于target目录下可能会有一些其他目录会被误识别为源码目录，此处的异常忽略
-                        log.warn("get source file error sourceRoot={},sourceFilePath={},clazz={}", sourceRoot.getRoot(), sourceFilePath, clazz.getName());
-                    }
-                    return null;
-                })
-                .filter(Objects::nonNull)
-                .findFirst();
     }
 
 
@@ -415,38 +442,84 @@ public class SourceCodeProvider {
             log.warn("sources.jar not exists,classSourcePath={}", classSourcePath);
             return Optional.empty();
         }
-        Map<Path, ParseResult<CompilationUnit>> sources = sourcesJarCaches.computeIfAbsent(classSourcePath, this::getSourcesJarParseResults);
-        Path sourcePath = Paths.get(this.transformClassToPath(clazz));
-        return sources.get(sourcePath).getResult();
+        SourcesJarIndex sourcesJarIndex = getSourcesJarIndex(classSourcePath);
+        if (sourcesJarIndex == null) {
+            return Optional.empty();
+        }
+        String entryName = this.transformClassToPath(clazz);
+        String cacheKey = sourcesJarIndex.getVersion() + "!" + entryName;
+        Optional<CompilationUnit> result = SOURCES_JAR_COMPILATION_UNITS.get(cacheKey);
+        if (result == null) {
+            // 在锁外解析，并发解析同一个文件时以先放入缓存的为准
+            result = sourcesJarIndex.parse(entryName);
+            Optional<CompilationUnit> exists = SOURCES_JAR_COMPILATION_UNITS.putIfAbsent(cacheKey, result);
+            if (exists != null) {
+                result = exists;
+            }
+        }
+        return result;
     }
 
-    private Map<Path, ParseResult<CompilationUnit>> getSourcesJarParseResults(String sourcesJarPath) {
-        SourceZip sourceZip = new SourceZip(Paths.get(sourcesJarPath));
-        Map<Path, ParseResult<CompilationUnit>> sources = new HashMap<>(256);
-        try {
-            sourceZip.parse(sources::put);
-        } catch (IOException e) {
-            log.info("解析sources.jar失败，sourcesJarPath = {},message={}", sourcesJarPath, e.getMessage(), e);
-            return Collections.emptyMap();
+    /**
+     * 获取 sources.jar 的索引，jar 文件发生变化（例如 SNAPSHOT 重新下载）时关闭旧的索引并重新打开
+     *
+     * @param sourcesJarPath sources.jar路径
+     * @return sources.jar索引，打开失败时返回 null
+     */
+    static SourcesJarIndex getSourcesJarIndex(String sourcesJarPath) {
+        String version = SourcesJarIndex.getVersion(new File(sourcesJarPath));
+        synchronized (SOURCES_JAR_INDEXES) {
+            SourcesJarIndex result = SOURCES_JAR_INDEXES.get(version);
+            if (result != null) {
+                return result;
+            }
+            Iterator<SourcesJarIndex> iterator = SOURCES_JAR_INDEXES.values().iterator();
+            while (iterator.hasNext()) {
+                SourcesJarIndex index = iterator.next();
+                if (index.getSourcesJarPath().equals(sourcesJarPath)) {
+                    index.close();
+                    iterator.remove();
+                }
+            }
+            result = openSourcesJar(sourcesJarPath);
+            if (result != null) {
+                SOURCES_JAR_INDEXES.put(version, result);
+            }
+            return result;
         }
-        return sources;
     }
 
+    /**
+     * 关闭所有打开的 sources.jar 并清除从 sources.jar 中解析的编译单元
+     */
+    public static void clearSourcesJarCaches() {
+        synchronized (SOURCES_JAR_INDEXES) {
+            SOURCES_JAR_INDEXES.values().forEach(SourcesJarIndex::close);
+            SOURCES_JAR_INDEXES.clear();
+        }
+        SOURCES_JAR_COMPILATION_UNITS.clear();
+    }
 
-    private String getSourceFilePath(Class<?> clazz) {
-        String name = clazz.getName();
-        String simpleName = clazz.getSimpleName();
-        if (name.contains(INNER_CLASS_FLAG)) {
-            // TODO 内部类判断加强 Modifier.isStatic(clazz.getModifiers())
-            name = name.split("\\$")[0];
-            String[] values = name.split("\\.");
-            simpleName = values[values.length - 1];
+    private static SourcesJarIndex openSourcesJar(String sourcesJarPath) {
+        try {
+            return new SourcesJarIndex(sourcesJarPath);
+        } catch (IOException e) {
+            log.info("打开sources.jar失败，sourcesJarPath = {},message={}", sourcesJarPath, e.getMessage(), e);
+            return null;
         }
-        return String.format("%s.%s", simpleName, SOURCE_FILE_EXT_NAME);
     }
 
+
+    /**
+     * @return 类的源代码文件在 jar（源代码目录）中的路径，内部类返回外部类的源代码文件
+     */
     private String transformClassToPath(Class<?> clazz) {
-        return String.format("%s.%s", clazz.getName().replace(".", "/"), SOURCE_FILE_EXT_NAME);
+        String name = clazz.getName();
+        int index = name.indexOf(INNER_CLASS_FLAG);
+        if (index > 0) {
+            name = name.substring(0, index);
+        }
+        return String.format("%s.%s", name.replace(".", "/"), SOURCE_FILE_EXT_NAME);
     }
 
     private boolean isInSourcesJar(String classSourcePath) {
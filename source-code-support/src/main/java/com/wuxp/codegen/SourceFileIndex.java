@@ -0,0 +1,151 @@
+package com.wuxp.codegen;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+
+/**
+ * 模块源代码文件的索引
+ * <p>
+ * 通过一次 {@link Files#walkFileTree} 遍历模块目录（跳过 target、node_modules 以及隐藏目录），
+ * 建立 源代码文件路径（例如：com/wuxp/codegen/SourceCodeProvider.java） -> 文件 的索引，
+ * 查找时不再需要逐个源代码目录尝试解析
+ * </p>
+ * <p>
+ * 目录中新增或删除文件会改变目录的修改时间，查找不到或者文件已经被删除时，检查目录的修改时间，发生变化则重建索引
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+final class SourceFileIndex {
+
+    private static final String SOURCE_FILE_SUFFIX = ".java";
+
+    private static final Set<String> EXCLUDE_DIRECTORIES = new HashSet<>(Arrays.asList("target", "node_modules"));
+
+    private final Path moduleRoot;
+
+    /**
+     * @key 源代码文件名称
+     * @value 同名的源代码文件
+     */
+    private volatile Map<String, List<Path>> sourceFiles;
+
+    /**
+     * @key 目录
+     * @value 建立索引时目录的修改时间
+     */
+    private volatile Map<Path, FileTime> directoryModifiedTimes;
+
+    SourceFileIndex(Path moduleRoot) {
+        this.moduleRoot = moduleRoot;
+        this.rebuild();
+    }
+
+    /**
+     * @param sourceFilePath 源代码文件在源代码目录中的路径，例如：com/wuxp/codegen/SourceCodeProvider.java
+     * @param preferTest     存在同名文件时是否优先使用测试源代码目录（src/test/java）中的文件
+     * @return 源代码文件
+     */
+    Optional<Path> find(String sourceFilePath, boolean preferTest) {
+        Optional<Path> result = lookup(sourceFilePath, preferTest);
+        if (result.isPresent() && Files.exists(result.get())) {
+            return result;
+        }
+        if (isModified()) {
+            synchronized (this) {
+                if (isModified()) {
+                    rebuild();
+                }
+            }
+            return lookup(sourceFilePath, preferTest);
+        }
+        return result;
+    }
+
+    private Optional<Path> lookup(String sourceFilePath, boolean preferTest) {
+        String fileName = sourceFilePath.substring(sourceFilePath.lastIndexOf('/') + 1);
+        List<Path> candidates = sourceFiles.get(fileName);
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        Path relativePath = Paths.get(sourceFilePath);
+        Path result = null;
+        for (Path candidate : candidates) {
+            if (!candidate.endsWith(relativePath)) {
+                continue;
+            }
+            if (result == null || isTestSource(candidate) == preferTest) {
+                result = candidate;
+            }
+        }
+        return Optional.ofNullable(result);
+    }
+
+    private boolean isTestSource(Path sourceFile) {
+        Path relativePath = moduleRoot.relativize(sourceFile);
+        return relativePath.getNameCount() > 1 && "src".equals(relativePath.getName(0).toString()) && "test".equals(relativePath.getName(1).toString());
+    }
+
+    private boolean isModified() {
+        for (Map.Entry<Path, FileTime> entry : directoryModifiedTimes.entrySet()) {
+            try {
+                if (!Files.getLastModifiedTime(entry.getKey()).equals(entry.getValue())) {
+                    return true;
+                }
+            } catch (IOException exception) {
+                // 目录被删除
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rebuild() {
+        Map<String, List<Path>> files = new HashMap<>(256);
+        Map<Path, FileTime> modifiedTimes = new HashMap<>(64);
+        try {
+            Files.walkFileTree(moduleRoot, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path name = dir.getFileName();
+                    if (!dir.equals(moduleRoot) && name != null && isExcluded(name.toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    modifiedTimes.put(dir, attrs.lastModifiedTime());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String fileName = file.getFileName().toString();
+                    if (fileName.endsWith(SOURCE_FILE_SUFFIX)) {
+                        files.computeIfAbsent(fileName, key -> new ArrayList<>(1)).add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException exception) {
+            log.warn("建立源代码文件索引失败，moduleRoot = {}，message = {}", moduleRoot, exception.getMessage());
+        }
+        this.sourceFiles = files;
+        this.directoryModifiedTimes = modifiedTimes;
+        if (log.isDebugEnabled()) {
+            log.debug("建立源代码文件索引，moduleRoot = {}，共{}个目录", moduleRoot, modifiedTimes.size());
+        }
+    }
+
+    private static boolean isExcluded(String directoryName) {
+        return directoryName.startsWith(".") || EXCLUDE_DIRECTORIES.contains(directoryName);
+    }
+}
@@ -0,0 +1,91 @@
+package com.wuxp.codegen;
+
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.javadoc.Javadoc;
+import com.github.javaparser.javadoc.JavadocBlockTag;
+import com.github.javaparser.javadoc.description.JavadocDescriptionElement;
+import org.springframework.util.StringUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 解析后的源代码注释，每个注释只解析一次
+ *
+ * @author wuxp
+ */
+public final class SourceJavadoc {
+
+    private static final String EMPTY = "";
+
+    /**
+     * 描述
+     */
+    private final String description;
+
+    /**
+     * 注释标签，非 javadoc 注释为空
+     *
+     * @key 标签类型
+     * @value 该类型的标签（按照注释中的顺序）
+     */
+    private final Map<JavadocBlockTag.Type, List<JavadocBlockTag>> blockTags;
+
+    private SourceJavadoc(String description, Map<JavadocBlockTag.Type, List<JavadocBlockTag>> blockTags) {
+        this.description = description;
+        this.blockTags = blockTags;
+    }
+
+    static SourceJavadoc of(Comment comment) {
+        if (!comment.isJavadocComment()) {
+            return new SourceJavadoc(comment.getContent(), Collections.emptyMap());
+        }
+        Javadoc javadoc = comment.asJavadocComment().parse();
+        String description = javadoc.getDescription().getElements().stream()
+                .map(JavadocDescriptionElement::toText)
+                .collect(Collectors.joining(EMPTY));
+        Map<JavadocBlockTag.Type, List<JavadocBlockTag>> blockTags = new EnumMap<>(JavadocBlockTag.Type.class);
+        javadoc.getBlockTags().forEach(blockTag -> blockTags.computeIfAbsent(blockTag.getType(), key -> new ArrayList<>(2)).add(blockTag));
+        return new SourceJavadoc(description, blockTags);
+    }
+
+    /**
+     * @return 注释的描述，非 javadoc 注释返回注释的内容
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 通过注解标签获取注释
+     *
+     * @param tag 标签类型
+     * @return 第一个内容不为空的标签，没有时返回空字符串
+     */
+    public String getBlockTag(JavadocBlockTag.Type tag) {
+        return getBlockTag(tag, null);
+    }
+
+    /**
+     * 通过注解标签和名称获取注释
+     *
+     * @param tag  标签类型
+     * @param name 名称，例如 @param 的参数名称，为 null 时不匹配名称
+     * @return 第一个匹配且内容不为空的标签，没有时返回空字符串
+     */
+    public String getBlockTag(JavadocBlockTag.Type tag, String name) {
+        List<JavadocBlockTag> tags = blockTags.get(tag);
+        if (tags == null) {
+            return EMPTY;
+        }
+        for (JavadocBlockTag blockTag : tags) {
+            if (name != null && blockTag.getName().isPresent() && !blockTag.getName().get().equals(name)) {
+                continue;
+            }
+            if (StringUtils.hasText(blockTag.getContent().toText())) {
+                return blockTag.toText();
+            }
+        }
+        return EMPTY;
+    }
+}
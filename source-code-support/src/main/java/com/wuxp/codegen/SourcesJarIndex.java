@@ -0,0 +1,151 @@
+package com.wuxp.codegen;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * sources.jar 的索引
+ * <p>
+ * 打开 jar 时只读取 zip 的中央目录（文件名称 -> 偏移量），需要时再按照文件名称读取并解析单个源代码文件，
+ * 不再解析整个 sources.jar
+ * </p>
+ * <p>
+ * 索引会一直持有打开的 jar 文件，jar 文件发生变化（例如 SNAPSHOT 重新下载）或者不再使用时需要调用 {@link #close()}，
+ * 读取时持有引用计数，关闭时如果还有正在进行的读取，在最后一个读取结束后才关闭 jar 文件；
+ * 已经关闭的索引在 jar 文件没有变化时临时打开 jar 文件读取
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+final class SourcesJarIndex {
+
+    private final String sourcesJarPath;
+
+    /**
+     * 打开时 jar 文件的版本
+     */
+    private final String version;
+
+    private final ZipFile zipFile;
+
+    /**
+     * 正在进行的读取数量
+     */
+    private int references;
+
+    private boolean closed;
+
+    SourcesJarIndex(String sourcesJarPath) throws IOException {
+        this.sourcesJarPath = sourcesJarPath;
+        this.version = getVersion(new File(sourcesJarPath));
+        this.zipFile = new ZipFile(sourcesJarPath);
+    }
+
+    /**
+     * @return jar 文件的版本，由路径、最后修改时间以及文件大小组成
+     */
+    static String getVersion(File sourcesJar) {
+        return String.format("%s@%d#%d", sourcesJar.getPath(), sourcesJar.lastModified(), sourcesJar.length());
+    }
+
+    /**
+     * @param entryName 源代码文件在 jar 中的路径，例如：com/wuxp/codegen/SourceCodeProvider.java
+     * @return 编译单元对象，文件不存在或解析失败时返回 empty
+     */
+    Optional<CompilationUnit> parse(String entryName) {
+        if (acquire()) {
+            try {
+                return parse(zipFile, entryName);
+            } finally {
+                release();
+            }
+        }
+        // 索引已经被关闭（淘汰或清除缓存），jar 文件发生变化时不再读取
+        if (!version.equals(getVersion(new File(sourcesJarPath)))) {
+            log.warn("sources.jar已经关闭并且发生了变化，sourcesJarPath = {}，entryName = {}", sourcesJarPath, entryName);
+            return Optional.empty();
+        }
+        try (ZipFile file = new ZipFile(sourcesJarPath)) {
+            return parse(file, entryName);
+        } catch (IOException exception) {
+            log.warn("打开sources.jar失败，sourcesJarPath = {}，message = {}", sourcesJarPath, exception.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<CompilationUnit> parse(ZipFile file, String entryName) {
+        ZipEntry entry = file.getEntry(entryName);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        try (InputStream inputStream = file.getInputStream(entry)) {
+            // JavaParser 不是线程安全的，每次解析创建一个新的对象
+            ParseResult<CompilationUnit> result = new JavaParser().parse(inputStream, StandardCharsets.UTF_8);
+            if (!result.isSuccessful() && log.isWarnEnabled()) {
+                log.warn("解析sources.jar中的文件失败，sourcesJarPath = {}，entryName = {}，problems = {}", sourcesJarPath, entryName, result.getProblems());
+            }
+            return result.getResult();
+        } catch (IOException exception) {
+            log.warn("读取sources.jar中的文件失败，sourcesJarPath = {}，entryName = {}，message = {}", sourcesJarPath, entryName, exception.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return <code>false</code> 索引已经关闭
+     */
+    synchronized boolean acquire() {
+        if (closed) {
+            return false;
+        }
+        references++;
+        return true;
+    }
+
+    synchronized void release() {
+        references--;
+        if (closed && references == 0) {
+            closeZipFile();
+        }
+    }
+
+    String getSourcesJarPath() {
+        return sourcesJarPath;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    /**
+     * 关闭索引，没有正在进行的读取时立即关闭 jar 文件，释放文件句柄
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (references == 0) {
+            closeZipFile();
+        }
+    }
+
+    private void closeZipFile() {
+        try {
+            zipFile.close();
+        } catch (IOException exception) {
+            log.warn("关闭sources.jar失败，sourcesJarPath = {}，message = {}", sourcesJarPath, exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.wuxp.codegen;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.*;
+
+import java.util.*;
+
+/**
+ * 类型成员的索引，每个类型声明只建立一次
+ * <p>
+ * 按照名称索引字段、枚举常量以及方法（方法保存参数类型的源代码字符串），
+ * 成员的注释在第一次获取时解析，之后直接使用解析结果
+ * </p>
+ *
+ * @author wuxp
+ */
+final class TypeMemberIndex {
+
+    private final Member<TypeDeclaration<?>> type;
+
+    /**
+     * @key 字段名称
+     */
+    private final Map<String, Member<FieldDeclaration>> fields = new HashMap<>();
+
+    /**
+     * @key 枚举常量名称
+     */
+    private final Map<String, Member<EnumConstantDeclaration>> enumConstants = new HashMap<>();
+
+    /**
+     * @key 方法名称
+     * @value 同名的方法（重载）
+     */
+    private final Map<String, List<MethodMember>> methods = new HashMap<>();
+
+    TypeMemberIndex(TypeDeclaration<?> typeDeclaration) {
+        this.type = new Member<>(typeDeclaration);
+        for (BodyDeclaration<?> declaration : typeDeclaration.getMembers()) {
+            if (declaration instanceof FieldDeclaration) {
+                FieldDeclaration fieldDeclaration = (FieldDeclaration) declaration;
+                Member<FieldDeclaration> member = new Member<>(fieldDeclaration);
+                fieldDeclaration.getVariables().forEach(variable -> fields.putIfAbsent(variable.getNameAsString(), member));
+            } else if (declaration instanceof MethodDeclaration) {
+                MethodDeclaration methodDeclaration = (MethodDeclaration) declaration;
+                methods.computeIfAbsent(methodDeclaration.getNameAsString(), key -> new ArrayList<>(1)).add(new MethodMember(methodDeclaration));
+            }
+        }
+        if (typeDeclaration.isEnumDeclaration()) {
+            typeDeclaration.asEnumDeclaration().getEntries()
+                    .forEach(entry -> enumConstants.putIfAbsent(entry.getNameAsString(), new Member<>(entry)));
+        }
+    }
+
+    Member<TypeDeclaration<?>> getType() {
+        return type;
+    }
+
+    Optional<Member<FieldDeclaration>> getField(String fieldName) {
+        return Optional.ofNullable(fields.get(fieldName));
+    }
+
+    Optional<Member<EnumConstantDeclaration>> getEnumConstant(String enumConstant) {
+        return Optional.ofNullable(enumConstants.get(enumConstant));
+    }
+
+    /**
+     * @param methodName         方法名称
+     * @param parameterTypeNames 参数类型的全类名
+     * @return 第一个参数类型匹配的方法
+     */
+    Optional<MethodMember> getMethod(String methodName, String[] parameterTypeNames) {
+        List<MethodMember> members = methods.get(methodName);
+        if (members == null) {
+            return Optional.empty();
+        }
+        return members.stream().filter(member -> member.matches(parameterTypeNames)).findFirst();
+    }
+
+    /**
+     * 类型成员及其注释的解析结果
+     */
+    static class Member<T extends Node> {
+
+        private final T declaration;
+
+        private volatile Optional<SourceJavadoc> javadoc;
+
+        Member(T declaration) {
+            this.declaration = declaration;
+        }
+
+        T getDeclaration() {
+            return declaration;
+        }
+
+        Optional<SourceJavadoc> getJavadoc() {
+            Optional<SourceJavadoc> result = javadoc;
+            if (result == null) {
+                // 并发时可能重复解析，结果相同
+                result = declaration.getComment().map(SourceJavadoc::of);
+                javadoc = result;
+            }
+            return result;
+        }
+    }
+
+    static final class MethodMember extends Member<MethodDeclaration> {
+
+        /**
+         * 参数类型在源代码中的写法
+         */
+        private final String[] parameterTypes;
+
+        /**
+         * 参数类型在源代码中没有写全类名时，用于匹配全类名的后缀，例如：.String
+         */
+        private final String[] parameterTypeSuffixes;
+
+        MethodMember(MethodDeclaration declaration) {
+            super(declaration);
+            this.parameterTypes = declaration.getParameters().stream()
+                    .map(parameter -> parameter.getType().asString())
+                    .toArray(String[]::new);
+            this.parameterTypeSuffixes = Arrays.stream(parameterTypes)
+                    .map(parameterType -> parameterType.contains(".") ? null : "." + parameterType)
+                    .toArray(String[]::new);
+        }
+
+        private boolean matches(String[] parameterTypeNames) {
+            if (parameterTypes.length != parameterTypeNames.length) {
+                return false;
+            }
+            for (int i = 0; i < parameterTypes.length; i++) {
+                String expectName = parameterTypeNames[i];
+                String suffix = parameterTypeSuffixes[i];
+                // 参数写了全类名时全匹配，否则只匹配类型后缀，为了准确加上"."
+                boolean matchParameterType = suffix == null ? expectName.equals(parameterTypes[i]) : expectName.endsWith(suffix);
+                if (!matchParameterType) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
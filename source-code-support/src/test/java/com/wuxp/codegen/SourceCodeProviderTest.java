@@ -94,4 +94,19 @@ class SourceCodeProviderTest {
         Optional<EnumConstantDeclaration> constantDeclaration = sourceCodeProvider.getEnumConstantDeclaration(TestEnum.class.getField("test_v1"));
         Assertions.assertTrue(constantDeclaration.isPresent());
     }
+
+    @Test
+    void getJavadoc() throws Exception {
+        Optional<SourceJavadoc> javadoc = sourceCodeProvider.getJavadoc(ExampleSourceObject.class.getMethod("setName", String.class));
+        Assertions.assertTrue(javadoc.isPresent());
+        Assertions.assertEquals("set name", javadoc.get().getDescription().trim());
+        Assertions.assertTrue(javadoc.get().getBlockTag(JavadocBlockTag.Type.PARAM, "name").contains("名称"));
+        Assertions.assertEquals("", javadoc.get().getBlockTag(JavadocBlockTag.Type.RETURN));
+        // 注释只解析一次
+        Assertions.assertSame(javadoc.get(), sourceCodeProvider.getJavadoc(ExampleSourceObject.class.getMethod("setName", String.class)).orElse(null));
+        Assertions.assertEquals("example name", sourceCodeProvider.getJavadoc(ExampleSourceObject.class.getField("name"))
+                .map(SourceJavadoc::getDescription)
+                .map(String::trim)
+                .orElse(null));
+    }
 }
@@ -0,0 +1,37 @@
+package com.wuxp.codegen;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+class SourceFileIndexTest {
+
+    @Test
+    void testFind(@TempDir Path moduleRoot) throws IOException {
+        Path mainSource = createFile(moduleRoot.resolve("src/main/java/com/example/Example.java"));
+        Path testSource = createFile(moduleRoot.resolve("src/test/java/com/example/Example.java"));
+        createFile(moduleRoot.resolve("target/generated-sources/com/example/Generated.java"));
+
+        SourceFileIndex sourceFileIndex = new SourceFileIndex(moduleRoot);
+        Assertions.assertEquals(mainSource, sourceFileIndex.find("com/example/Example.java", false).orElse(null));
+        Assertions.assertEquals(testSource, sourceFileIndex.find("com/example/Example.java", true).orElse(null));
+        Assertions.assertFalse(sourceFileIndex.find("com/example/Generated.java", false).isPresent());
+        Assertions.assertFalse(sourceFileIndex.find("com/other/Example.java", false).isPresent());
+
+        // 新增文件后重建索引
+        Path addedSource = createFile(moduleRoot.resolve("src/main/java/com/example/Added.java"));
+        // 避免文件系统修改时间精度不足导致目录的修改时间没有变化
+        Files.setLastModifiedTime(addedSource.getParent(), FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        Assertions.assertEquals(addedSource, sourceFileIndex.find("com/example/Added.java", false).orElse(null));
+    }
+
+    private static Path createFile(Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        return Files.write(path, "class Example {}".getBytes());
+    }
+}
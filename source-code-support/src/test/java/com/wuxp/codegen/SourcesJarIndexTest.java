@@ -0,0 +1,75 @@
+package com.wuxp.codegen;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class SourcesJarIndexTest {
+
+    @Test
+    void testParse(@TempDir Path tempDir) throws IOException {
+        Path sourcesJar = tempDir.resolve("example-sources.jar");
+        writeSourcesJar(sourcesJar, "package com.example;\n\npublic class Example {\n\n    static class Inner {\n    }\n}\n");
+        SourcesJarIndex sourcesJarIndex = new SourcesJarIndex(sourcesJar.toString());
+        Optional<CompilationUnit> result = sourcesJarIndex.parse("com/example/Example.java");
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertTrue(result.get().getClassByName("Example").isPresent());
+        Assertions.assertFalse(sourcesJarIndex.parse("com/example/NotExists.java").isPresent());
+        sourcesJarIndex.close();
+    }
+
+    @Test
+    void testReopenChangedSourcesJar(@TempDir Path tempDir) throws IOException {
+        Path sourcesJar = tempDir.resolve("example-SNAPSHOT-sources.jar");
+        writeSourcesJar(sourcesJar, "package com.example;\n\npublic class Example {\n}\n");
+        SourcesJarIndex sourcesJarIndex = SourceCodeProvider.getSourcesJarIndex(sourcesJar.toString());
+        Assertions.assertNotNull(sourcesJarIndex);
+        Assertions.assertSame(sourcesJarIndex, SourceCodeProvider.getSourcesJarIndex(sourcesJar.toString()));
+
+        // jar 文件发生变化时关闭旧的索引
+        writeSourcesJar(sourcesJar, "package com.example;\n\npublic class Example {\n\n    private String name;\n}\n");
+        SourcesJarIndex changed = SourceCodeProvider.getSourcesJarIndex(sourcesJar.toString());
+        Assertions.assertNotSame(sourcesJarIndex, changed);
+        Assertions.assertFalse(sourcesJarIndex.parse("com/example/Example.java").isPresent());
+        Optional<CompilationUnit> result = changed.parse("com/example/Example.java");
+        Assertions.assertTrue(result.isPresent());
+        Assertions.assertTrue(result.get().getClassByName("Example").flatMap(declaration -> declaration.getFieldByName("name")).isPresent());
+
+        // 清除缓存后 jar 文件没有变化，临时打开 jar 文件读取
+        SourceCodeProvider.clearSourcesJarCaches();
+        Assertions.assertTrue(changed.parse("com/example/Example.java").isPresent());
+    }
+
+    @Test
+    void testCloseWhileReading(@TempDir Path tempDir) throws IOException {
+        Path sourcesJar = tempDir.resolve("example-sources.jar");
+        writeSourcesJar(sourcesJar, "package com.example;\n\npublic class Example {\n}\n");
+        SourcesJarIndex sourcesJarIndex = new SourcesJarIndex(sourcesJar.toString());
+        // 模拟正在读取时被其他线程关闭（淘汰或清除缓存）
+        Assertions.assertTrue(sourcesJarIndex.acquire());
+        sourcesJarIndex.close();
+        Assertions.assertFalse(sourcesJarIndex.acquire());
+        Assertions.assertTrue(sourcesJarIndex.parse("com/example/Example.java").isPresent());
+        sourcesJarIndex.release();
+        Assertions.assertTrue(sourcesJarIndex.parse("com/example/Example.java").isPresent());
+    }
+
+    private static void writeSourcesJar(Path sourcesJar, String source) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(sourcesJar);
+             ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            zipOutputStream.putNextEntry(new ZipEntry("com/example/Example.java"));
+            zipOutputStream.write(source.getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.wuxp.codegen.templates;
 
 import com.wuxp.codegen.core.ClientProviderType;
-import com.wuxp.codegen.core.util.ClassLoaderUtils;
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
 import com.wuxp.codegen.model.TemplateFileVersion;
-import freemarker.ext.beans.MapModel;
+import freemarker.core.Environment;
 import freemarker.template.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * freemarker的模板加载器
+ * <p>
+ * 默认使用 {@link FreemarkerTemplateRegistry} 中共享的模板，共享变量在渲染时通过 {@link #process(Template, Object, Writer)} 提供，
+ * 使用自定义的 {@link Configuration} 时模板不共享
+ * </p>
  *
  * @author wxup
  */
@@ -25,6 +30,11 @@ public class FreemarkerTemplateLoader extends AbstractTemplateLoader<Template> {
 
     protected Configuration configuration;
 
+    /**
+     * 渲染时使用的共享变量，为 null 表示使用 {@link #configuration} 中的共享变量
+     */
+    private final TemplateHashModel sharedVariablesModel;
+
     public FreemarkerTemplateLoader(ClientProviderType clientProviderType) {
         this(clientProviderType, null);
     }
@@ -34,34 +44,78 @@ public class FreemarkerTemplateLoader extends AbstractTemplateLoader<Template> {
     }
 
     public FreemarkerTemplateLoader(ClientProviderType clientProviderType, String templateFileVersion, Map<String, Object> sharedVariables) {
-        this(clientProviderType, templateFileVersion, initConfiguration(sharedVariables));
+        super(clientProviderType, templateFileVersion);
+        this.configuration = FreemarkerTemplateRegistry.getConfiguration();
+        this.sharedVariablesModel = wrapSharedVariables(sharedVariables);
     }
 
     public FreemarkerTemplateLoader(ClientProviderType clientProviderType, TemplateFileVersion templateFileVersion, Map<String, Object> sharedVariables) {
-        this(clientProviderType, templateFileVersion.getVersion(), initConfiguration(sharedVariables));
+        this(clientProviderType, templateFileVersion.getVersion(), sharedVariables);
     }
 
     public FreemarkerTemplateLoader(ClientProviderType clientProviderType, String templateFileVersion, Configuration configuration) {
         super(clientProviderType, templateFileVersion);
         this.configuration = configuration;
+        this.sharedVariablesModel = null;
     }
 
     @Override
     public Template load(String templateName) {
+        String templatePath = buildTemplatePath(templateName);
+        if (isUseRegistry()) {
+            return FreemarkerTemplateRegistry.getTemplate(templatePath);
+        }
         try {
-            return configuration.getTemplate(buildTemplatePath(templateName));
+            return configuration.getTemplate(templatePath);
         } catch (IOException e) {
             log.error("获取模板失败，模板名称：{}", templateName, e);
         }
         return null;
     }
 
-    private String buildTemplatePath(String templateName) {
-        String templatePath = MessageFormat.format("{0}/{1}/{2}{3}",
+    /**
+     * 预加载（解析）当前语言的所有模板
+     */
+    public FreemarkerTemplateLoader warmUp() {
+        if (isUseRegistry()) {
+            FreemarkerTemplateRegistry.warmUp(buildTemplateDirectory());
+        }
+        return this;
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param template  通过 {@link #load(String)} 加载的模板
+     * @param dataModel 数据模型，数据模型中不存在的变量从共享变量中获取
+     * @param out       输出
+     */
+    public void process(Template template, Object dataModel, Writer out) throws TemplateException, IOException {
+        if (sharedVariablesModel == null) {
+            template.process(dataModel, out);
+            return;
+        }
+        TemplateModel model = template.getObjectWrapper().wrap(dataModel);
+        if (!(model instanceof TemplateHashModel)) {
+            throw new IllegalArgumentException("数据模型无法转换为 TemplateHashModel：" + dataModel);
+        }
+        Environment environment = template.createProcessingEnvironment(new SharedVariablesHashModel((TemplateHashModel) model, sharedVariablesModel), out);
+        environment.process();
+    }
+
+    private boolean isUseRegistry() {
+        return configuration == FreemarkerTemplateRegistry.getConfiguration();
+    }
+
+    private String buildTemplateDirectory() {
+        return MessageFormat.format("{0}/{1}/{2}",
                 this.templateBaseDir,
                 this.clientProviderType.name().toLowerCase(),
-                StringUtils.hasText(this.templateFileVersion) ? MessageFormat.format("{0}/", this.templateFileVersion) : "",
-                templateName);
+                StringUtils.hasText(this.templateFileVersion) ? MessageFormat.format("{0}/", this.templateFileVersion) : "");
+    }
+
+    private String buildTemplatePath(String templateName) {
+        String templatePath = buildTemplateDirectory() + templateName;
         if (!templatePath.endsWith(".ftl")) {
             templatePath += ".ftl";
         }
@@ -72,44 +126,43 @@ public class FreemarkerTemplateLoader extends AbstractTemplateLoader<Template> {
         this.templateBaseDir = templateBaseDir;
     }
 
-    private static Configuration initConfiguration(Map<String, Object> sharedVariables) {
-        //创建一个合适的Configuration对象
-        Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
-        DefaultObjectWrapper objectWrapper = new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_28).build();
-        configuration.setObjectWrapper(objectWrapper);
-        //这个一定要设置，不然在生成的页面中 会乱码
-        configuration.setDefaultEncoding("UTF-8");
-        // 支持从jar中加载模板
-        configuration.setClassForTemplateLoading(FreemarkerTemplateLoader.class, "/");
+    private static TemplateHashModel wrapSharedVariables(Map<String, Object> sharedVariables) {
         if (sharedVariables == null) {
             log.warn("sharedVariables is null");
             sharedVariables = new HashMap<>();
         }
-        Map<Object, Object> templateMethods = initCustomizeMethods();
-        sharedVariables.put("customizeMethod", templateMethods);
-        MapModel mapModel = new MapModel(sharedVariables, objectWrapper);
         try {
-            configuration.setAllSharedVariables(mapModel);
-        } catch (TemplateModelException e) {
-            e.printStackTrace();
+            // 只包含 map 中的 key，不暴露 map 自身的方法
+            return (TemplateHashModel) FreemarkerTemplateRegistry.getConfiguration().getObjectWrapper().wrap(new HashMap<>(sharedVariables));
+        } catch (TemplateModelException exception) {
+            throw new CodegenRuntimeException(exception);
         }
-
-        return configuration;
     }
 
     /**
-     * 初始化自定义的freemarker 模板中调用的方法
+     * 优先从数据模型中获取变量，不存在时从共享变量中获取，和 {@link Configuration#getSharedVariable(String)} 的查找顺序一致
      */
-    private static Map<Object, Object> initCustomizeMethods() {
-        Map<Object, Object> templateMethods = new HashMap<>();
-        try {
-            templateMethods.put("combineType", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.CombineTypeMethod").newInstance());
-            templateMethods.put("pathResolve", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.PathResolveMethod").newInstance());
-            templateMethods.put("combineDartFullType", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.DartFullTypeCombineMethod").newInstance());
-        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-            e.printStackTrace();
+    private static final class SharedVariablesHashModel implements TemplateHashModel {
+
+        private final TemplateHashModel dataModel;
+
+        private final TemplateHashModel sharedVariables;
+
+        SharedVariablesHashModel(TemplateHashModel dataModel, TemplateHashModel sharedVariables) {
+            this.dataModel = dataModel;
+            this.sharedVariables = sharedVariables;
+        }
+
+        @Override
+        public TemplateModel get(String key) throws TemplateModelException {
+            TemplateModel result = dataModel.get(key);
+            return result == null ? sharedVariables.get(key) : result;
+        }
+
+        @Override
+        public boolean isEmpty() throws TemplateModelException {
+            return dataModel.isEmpty() && sharedVariables.isEmpty();
         }
-        return templateMethods;
     }
 
 }
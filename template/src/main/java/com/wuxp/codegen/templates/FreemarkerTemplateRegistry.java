@@ -0,0 +1,174 @@
+package com.wuxp.codegen.templates;
+
+import com.wuxp.codegen.core.exception.CodegenRuntimeException;
+import com.wuxp.codegen.core.util.ClassLoaderUtils;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.template.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内共享的 freemarker 模板注册表
+ * <p>
+ * 所有生成器共享同一个 {@link Configuration}（包括 object wrapper 的内省缓存和模板中调用的自定义方法），
+ * 模板只解析一次，模板文件位于 jar 中不会发生变化，因此不检查模板的更新
+ * </p>
+ * <p>
+ * 生成器各自的共享变量在渲染时通过 {@link FreemarkerTemplateLoader#process(Template, Object, java.io.Writer)} 提供
+ * </p>
+ *
+ * @author wuxp
+ */
+@Slf4j
+public final class FreemarkerTemplateRegistry {
+
+    private static final String TEMPLATE_SUFFIX = ".ftl";
+
+    private static final Configuration CONFIGURATION = initConfiguration();
+
+    /**
+     * @key 模板路径，包含了 ClientProviderType、模板版本以及模板名称
+     */
+    private static final Map<String, Template> TEMPLATES = new ConcurrentHashMap<>(64);
+
+    /**
+     * 已经预加载的模板目录
+     */
+    private static final Set<String> WARMED_DIRECTORIES = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder HIT_COUNT = new LongAdder();
+
+    private static final LongAdder COMPILE_COUNT = new LongAdder();
+
+    private FreemarkerTemplateRegistry() {
+    }
+
+    public static Configuration getConfiguration() {
+        return CONFIGURATION;
+    }
+
+    /**
+     * @param templatePath 模板路径，例如：clients/typescript_feign/api_service.ftl
+     * @return 解析后的模板
+     */
+    public static Template getTemplate(String templatePath) {
+        Template result = TEMPLATES.get(templatePath);
+        if (result != null) {
+            HIT_COUNT.increment();
+            return result;
+        }
+        return TEMPLATES.computeIfAbsent(templatePath, FreemarkerTemplateRegistry::compile);
+    }
+
+    /**
+     * 预加载目录下的所有模板
+     *
+     * @param templateDirectory 模板目录，例如：clients/typescript_feign/
+     */
+    public static void warmUp(String templateDirectory) {
+        if (!WARMED_DIRECTORIES.add(templateDirectory)) {
+            return;
+        }
+        String directory = templateDirectory.endsWith("/") ? templateDirectory : templateDirectory + "/";
+        Resource[] resources;
+        try {
+            resources = new PathMatchingResourcePatternResolver(FreemarkerTemplateRegistry.class.getClassLoader())
+                    .getResources("classpath*:" + directory + "**/*" + TEMPLATE_SUFFIX);
+        } catch (IOException exception) {
+            log.warn("扫描模板目录{}失败，message = {}", directory, exception.getMessage());
+            return;
+        }
+        for (Resource resource : resources) {
+            String templatePath = getTemplatePath(resource, directory);
+            if (templatePath == null || TEMPLATES.containsKey(templatePath)) {
+                continue;
+            }
+            try {
+                TEMPLATES.computeIfAbsent(templatePath, FreemarkerTemplateRegistry::compile);
+            } catch (CodegenRuntimeException exception) {
+                log.warn("预加载模板{}失败，message = {}", templatePath, exception.getMessage());
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("预加载模板目录{}，共{}个模板", directory, resources.length);
+        }
+    }
+
+    public static long getHitCount() {
+        return HIT_COUNT.sum();
+    }
+
+    public static long getCompileCount() {
+        return COMPILE_COUNT.sum();
+    }
+
+    /**
+     * 清除已经解析的模板
+     */
+    public static void clear() {
+        TEMPLATES.clear();
+        WARMED_DIRECTORIES.clear();
+        CONFIGURATION.clearTemplateCache();
+    }
+
+    private static Template compile(String templatePath) {
+        try {
+            Template result = CONFIGURATION.getTemplate(templatePath);
+            COMPILE_COUNT.increment();
+            return result;
+        } catch (IOException exception) {
+            throw new CodegenRuntimeException("加载模板失败，模板路径：" + templatePath, exception);
+        }
+    }
+
+    private static String getTemplatePath(Resource resource, String directory) {
+        try {
+            String url = resource.getURL().toString();
+            int index = url.lastIndexOf("/" + directory);
+            return index < 0 ? null : url.substring(index + 1);
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    private static Configuration initConfiguration() {
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_28);
+        configuration.setObjectWrapper(new DefaultObjectWrapperBuilder(Configuration.VERSION_2_3_28).build());
+        //这个一定要设置，不然在生成的页面中 会乱码
+        configuration.setDefaultEncoding("UTF-8");
+        // 支持从jar中加载模板
+        configuration.setClassForTemplateLoading(FreemarkerTemplateLoader.class, "/");
+        // 模板不会发生变化，不检查更新，被 include 的模板也一直保留在缓存中
+        configuration.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        configuration.setCacheStorage(new StrongCacheStorage());
+        try {
+            configuration.setSharedVariable("customizeMethod", initCustomizeMethods());
+        } catch (TemplateModelException exception) {
+            throw new CodegenRuntimeException(exception);
+        }
+        return configuration;
+    }
+
+    /**
+     * 初始化自定义的freemarker 模板中调用的方法
+     */
+    static Map<Object, Object> initCustomizeMethods() {
+        Map<Object, Object> templateMethods = new HashMap<>();
+        try {
+            templateMethods.put("combineType", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.CombineTypeMethod").newInstance());
+            templateMethods.put("pathResolve", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.PathResolveMethod").newInstance());
+            templateMethods.put("combineDartFullType", ClassLoaderUtils.loadClass("com.wuxp.codegen.loong.freemarker.DartFullTypeCombineMethod").newInstance());
+        } catch (InstantiationException | IllegalAccessException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+        return templateMethods;
+    }
+}